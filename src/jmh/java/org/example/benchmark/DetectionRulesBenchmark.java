@@ -0,0 +1,58 @@
+package org.example.benchmark;
+
+import org.example.service.DetectionRules;
+import org.example.service.MutantDetector;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MutantDetector.isMutant con reglas distintas de la regla por defecto.
+ *
+ * defaultRule es el camino optimizado de siempre; packedRules usa PackedRulesDetector
+ * (K=4 y M=3, mismo alfabeto) y runLengthRules el fallback genérico (alfabeto de 5 bases).
+ * Con la misma entrada las tres recorren toda la matriz en HUMAN y WORST_CASE.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class DetectionRulesBenchmark {
+
+    private static final List<String> ALL_DIRECTIONS =
+            List.of("horizontal", "vertical", "diagonal", "anti-diagonal");
+
+    @Param({"64", "512", "4096"})
+    private int size;
+
+    @Param({"MUTANT", "HUMAN", "WORST_CASE"})
+    private DnaInputs.Shape shape;
+
+    private final MutantDetector detector = MutantDetector.builder()
+            .parallelThreshold(Integer.MAX_VALUE)
+            .vectorEnabled(false)
+            .build();
+    private final DetectionRules packedRules = DetectionRules.of(4, 3, "ACGT", ALL_DIRECTIONS);
+    private final DetectionRules runLengthRules = DetectionRules.of(4, 3, "ACGTN", ALL_DIRECTIONS);
+    private String[] dna;
+
+    @Setup
+    public void setUp() {
+        dna = DnaInputs.build(size, shape);
+    }
+
+    @Benchmark
+    public boolean defaultRule() {
+        return detector.isMutant(dna);
+    }
+
+    @Benchmark
+    public boolean packedRules() {
+        return detector.isMutant(dna, packedRules);
+    }
+
+    @Benchmark
+    public boolean runLengthRules() {
+        return detector.isMutant(dna, runLengthRules);
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.benchmark;
+
+import org.example.service.DnaFingerprinter;
+import org.example.service.Murmur3DnaFingerprinter;
+import org.example.service.PackedDnaFingerprinter;
+import org.example.service.Sha256DnaFingerprinter;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Huella del ADN (clave de caché) por algoritmo y tamaño de matriz.
+ *
+ * sha256Joined reproduce el cálculo original (getInstance por llamada + String.join)
+ * como línea base.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class DnaFingerprintBenchmark {
+
+    @Param({"6", "64", "512", "4096"})
+    private int size;
+
+    @Param({Sha256DnaFingerprinter.ALGORITHM, Murmur3DnaFingerprinter.ALGORITHM, PackedDnaFingerprinter.ALGORITHM})
+    private String algorithm;
+
+    private DnaFingerprinter fingerprinter;
+    private String[] dna;
+
+    @Setup
+    public void setUp() {
+        dna = DnaInputs.build(size, DnaInputs.Shape.HUMAN);
+        fingerprinter = switch (algorithm) {
+            case Sha256DnaFingerprinter.ALGORITHM -> new Sha256DnaFingerprinter();
+            case Murmur3DnaFingerprinter.ALGORITHM -> new Murmur3DnaFingerprinter();
+            default -> new PackedDnaFingerprinter();
+        };
+    }
+
+    @Benchmark
+    public byte[] fingerprint() {
+        return fingerprinter.fingerprint(dna);
+    }
+
+    @Benchmark
+    public byte[] sha256Joined() throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        return digest.digest(String.join("", dna).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.benchmark;
+
+/**
+ * Matrices de ADN de entrada para los benchmarks, generadas de forma determinista.
+ *
+ * La base es un patrón sin secuencias ("ACGT" desplazado 2 posiciones por fila):
+ * ninguna dirección repite la misma base dos veces seguidas. Sobre él se escriben
+ * las secuencias de cada forma.
+ */
+public final class DnaInputs {
+
+    /**
+     * Forma de la matriz.
+     * - MUTANT: dos secuencias cerca de la fila del medio
+     * - HUMAN: ninguna secuencia
+     * - EARLY_EXIT: dos secuencias en las primeras filas (corta enseguida)
+     * - WORST_CASE: una sola secuencia en la última fila (recorre y valida todo, resultado humano)
+     */
+    public enum Shape {
+        MUTANT(true),
+        HUMAN(false),
+        EARLY_EXIT(true),
+        WORST_CASE(false);
+
+        private final boolean mutant;
+
+        Shape(boolean mutant) {
+            this.mutant = mutant;
+        }
+
+        boolean isMutant() {
+            return mutant;
+        }
+    }
+
+    private DnaInputs() {
+    }
+
+    static String[] build(int n, Shape shape) {
+        char[][] matrix = new char[n][n];
+        for (int row = 0; row < n; row++) {
+            for (int col = 0; col < n; col++) {
+                matrix[row][col] = "ACGT".charAt((col + 2 * row) % 4);
+            }
+        }
+
+        switch (shape) {
+            case MUTANT -> {
+                int middle = n / 2;
+                fillHorizontal(matrix, middle, 0, 'A');
+                fillVertical(matrix, middle - 2, n - 1, 'T');
+            }
+            case EARLY_EXIT -> {
+                fillHorizontal(matrix, 0, 0, 'A');
+                fillHorizontal(matrix, 1, 0, 'C');
+            }
+            case WORST_CASE -> fillHorizontal(matrix, n - 1, n - 4, 'G');
+            case HUMAN -> {
+            }
+        }
+
+        String[] dna = new String[n];
+        for (int row = 0; row < n; row++) {
+            dna[row] = new String(matrix[row]);
+        }
+        return dna;
+    }
+
+    private static void fillHorizontal(char[][] matrix, int row, int col, char base) {
+        for (int i = 0; i < 4; i++) {
+            matrix[row][col + i] = base;
+        }
+    }
+
+    private static void fillVertical(char[][] matrix, int row, int col, char base) {
+        for (int i = 0; i < 4; i++) {
+            matrix[row + i][col] = base;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.benchmark;
+
+import org.example.validation.ValidDnaSequenceValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ValidDnaSequenceValidator.isValid por tamaño de matriz.
+ *
+ * valid recorre la matriz completa; invalidLastBase falla en el último carácter
+ * (peor caso del rechazo).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class DnaValidationBenchmark {
+
+    @Param({"6", "64", "512", "4096"})
+    private int size;
+
+    private final ValidDnaSequenceValidator validator = new ValidDnaSequenceValidator();
+    private String[] validDna;
+    private String[] invalidDna;
+
+    @Setup
+    public void setUp() {
+        validDna = DnaInputs.build(size, DnaInputs.Shape.HUMAN);
+        invalidDna = validDna.clone();
+        invalidDna[size - 1] = invalidDna[size - 1].substring(0, size - 1) + "X";
+    }
+
+    @Benchmark
+    public boolean valid() {
+        return validator.isValid(validDna, null);
+    }
+
+    @Benchmark
+    public boolean invalidLastBase() {
+        return validator.isValid(invalidDna, null);
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.config.DnaBinaryMessageConverter;
+import org.example.config.DnaStreamMessageConverter;
+import org.example.service.DetectionRules;
+import org.example.service.DnaAnalysis;
+import org.example.service.DnaFingerprinter;
+import org.example.service.Sha256DnaFingerprinter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lectura y análisis del body de POST /mutant por formato: JSON en streaming,
+ * binario a un byte por base y binario a 2 bits por base (huella SHA-256 en los tres).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class DnaWireFormatBenchmark {
+
+    @Param({"64", "512", "4096"})
+    private int size;
+
+    private final DnaFingerprinter fingerprinter = new Sha256DnaFingerprinter();
+    private final DnaStreamMessageConverter jsonConverter = new DnaStreamMessageConverter(
+            new ObjectMapper().getFactory(), fingerprinter, false, DetectionRules.DEFAULT);
+    private final DnaBinaryMessageConverter binaryConverter =
+            new DnaBinaryMessageConverter(fingerprinter, false, DetectionRules.DEFAULT);
+
+    private byte[] json;
+    private byte[] ascii;
+    private byte[] packed;
+
+    @Setup
+    public void setUp() throws IOException {
+        String[] dna = DnaInputs.build(size, DnaInputs.Shape.HUMAN);
+        json = new ObjectMapper().writeValueAsBytes(Map.of("dna", dna));
+        ascii = encode(dna, DnaBinaryMessageConverter.ENCODING_ASCII);
+        packed = encode(dna, DnaBinaryMessageConverter.ENCODING_PACKED);
+    }
+
+    @Benchmark
+    public DnaAnalysis json() throws IOException {
+        return jsonConverter.read(DnaAnalysis.class, message(json));
+    }
+
+    @Benchmark
+    public DnaAnalysis binaryAscii() throws IOException {
+        return binaryConverter.read(DnaAnalysis.class, message(ascii));
+    }
+
+    @Benchmark
+    public DnaAnalysis binaryPacked() throws IOException {
+        return binaryConverter.read(DnaAnalysis.class, message(packed));
+    }
+
+    private static HttpInputMessage message(byte[] body) {
+        return new HttpInputMessage() {
+            @Override
+            public InputStream getBody() {
+                return new ByteArrayInputStream(body);
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return HttpHeaders.EMPTY;
+            }
+        };
+    }
+
+    private static byte[] encode(String[] dna, int encoding) {
+        final int n = dna.length;
+        final boolean twoBits = encoding == DnaBinaryMessageConverter.ENCODING_PACKED;
+        ByteBuffer body = ByteBuffer.allocate(5 + (twoBits ? (n * n + 3) / 4 : n * n));
+        body.put((byte) encoding).putInt(n);
+
+        int position = 0;
+        for (String row : dna) {
+            for (int col = 0; col < n; col++, position++) {
+                if (twoBits) {
+                    final int index = 5 + (position >>> 2);
+                    body.put(index, (byte) (body.get(index) | "ACGT".indexOf(row.charAt(col)) << ((position & 3) << 1)));
+                } else {
+                    body.put((byte) row.charAt(col));
+                }
+            }
+        }
+        return body.array();
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.benchmark;
+
+import org.example.service.MutantDetector;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MutantDetector.isMutant por tamaño de matriz y forma del ADN.
+ *
+ * isMutant es el camino escalar; isMutantParallel fuerza el modo por bandas e
+ * isMutantVector la Vector API (el jmh corre con --add-modules jdk.incubator.vector).
+ * isMutantRunLength usa RunLengthRowDetector (una lectura por celda, rachas por columna).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class MutantDetectorBenchmark {
+
+    @Param({"6", "64", "512", "4096"})
+    private int size;
+
+    @Param({"MUTANT", "HUMAN", "EARLY_EXIT", "WORST_CASE"})
+    private DnaInputs.Shape shape;
+
+    private final MutantDetector detector = MutantDetector.builder()
+            .parallelThreshold(Integer.MAX_VALUE)
+            .vectorEnabled(false)
+            .build();
+    private final MutantDetector parallelDetector = MutantDetector.builder()
+            .parallelThreshold(0)
+            .vectorEnabled(false)
+            .build();
+    private final MutantDetector vectorDetector = MutantDetector.builder()
+            .parallelThreshold(Integer.MAX_VALUE)
+            .build();
+    private final MutantDetector runLengthDetector = MutantDetector.builder()
+            .parallelThreshold(Integer.MAX_VALUE)
+            .vectorEnabled(false)
+            .algorithm(MutantDetector.ALGORITHM_RUN_LENGTH)
+            .build();
+    private String[] dna;
+
+    @Setup
+    public void setUp() {
+        dna = DnaInputs.build(size, shape);
+        if (detector.isMutant(dna) != shape.isMutant()) {
+            throw new IllegalStateException("Entrada mal generada: " + shape + " " + size);
+        }
+    }
+
+    @Benchmark
+    public boolean isMutant() {
+        return detector.isMutant(dna);
+    }
+
+    @Benchmark
+    public boolean isMutantVector() {
+        return vectorDetector.isMutant(dna);
+    }
+
+    @Benchmark
+    public boolean isMutantRunLength() {
+        return runLengthDetector.isMutant(dna);
+    }
+
+    @Benchmark
+    public boolean isMutantParallel() {
+        return parallelDetector.isMutant(dna);
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "dna.db.admission.enabled", havingValue = "true")
+public class DatabaseAdmissionConfig {
+
+    /**
+     * Envuelve el DataSource (Hikari) con el limitador de admisión.
+     * Los permisos por defecto son el tamaño del pool: más no sirve, menos lo desaprovecha.
+     *
+     * Es static para que el post-processor se registre antes de crear el DataSource.
+     */
+    @Bean
+    public static BeanPostProcessor admissionControlledDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof AdmissionControlledDataSource) {
+                    return bean;
+                }
+                int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+                int permits = environment.getProperty("dna.db.admission.permits", Integer.class, poolSize);
+                Duration timeout = environment.getProperty("dna.db.admission.timeout", Duration.class, Duration.ofSeconds(30));
+                return new AdmissionControlledDataSource(dataSource, permits, timeout);
+            }
+        };
+    }
+}
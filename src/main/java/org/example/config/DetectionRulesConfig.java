@@ -0,0 +1,28 @@
+package org.example.config;
+
+import org.example.service.DetectionRules;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class DetectionRulesConfig {
+
+    /**
+     * Reglas de detección del despliegue: largo de secuencia, mínimo de secuencias y direcciones.
+     *
+     * El alfabeto del despliegue es siempre A, C, G, T: la validación, las huellas y la
+     * codificación a 2 bits dependen de él. Otro alfabeto solo se puede pedir por request
+     * (POST /mutant/rules). Cambiar las reglas con datos ya guardados deja resultados
+     * calculados con la regla anterior: hacerlo con la BD vacía.
+     */
+    @Bean
+    public DetectionRules detectionRules(
+            @Value("${dna.detector.rules.sequence-length:4}") int sequenceLength,
+            @Value("${dna.detector.rules.min-sequences:2}") int minSequences,
+            @Value("${dna.detector.rules.directions:horizontal,vertical,diagonal,anti-diagonal}") String[] directions) {
+        return DetectionRules.of(sequenceLength, minSequences, DetectionRules.DEFAULT_ALPHABET, List.of(directions));
+    }
+}
@@ -0,0 +1,260 @@
+package org.example.config;
+
+import org.example.exception.InvalidDnaException;
+import org.example.service.DetectionRules;
+import org.example.service.DnaAnalysis;
+import org.example.service.DnaFingerprinter;
+import org.example.service.DnaStreamScanner;
+import org.example.validation.ValidDnaSequenceValidator;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Lee un ADN en formato binario (application/x-dna) y analiza cada fila a medida que llega.
+ *
+ * Formato:
+ * - 1 byte: codificación, {@link #ENCODING_ASCII} o {@link #ENCODING_PACKED}
+ * - 4 bytes: N (big-endian)
+ * - ASCII: las N*N bases seguidas, fila por fila, un byte por base (A, C, G, T)
+ * - PACKED: las N*N bases seguidas a 2 bits (A=0, C=1, G=2, T=3), 4 por byte empezando por los
+ *   bits bajos, sin relleno entre filas; es el mismo formato que CompactDnaEncoding
+ *
+ * Cada fila se arma en un buffer reutilizado y pasa al scanner como CharSequence: no se crea
+ * ningún String ni el árbol JSON. Con PACKED no hay bases inválidas, solo se valida el largo.
+ */
+public class DnaBinaryMessageConverter extends AbstractHttpMessageConverter<DnaAnalysis> {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-dna";
+    public static final MediaType MEDIA_TYPE = MediaType.valueOf(MEDIA_TYPE_VALUE);
+
+    public static final int ENCODING_ASCII = 1;
+    public static final int ENCODING_PACKED = 2;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DnaFingerprinter fingerprinter;
+    private final boolean keepBases;
+    private final DetectionRules rules;
+
+    public DnaBinaryMessageConverter(DnaFingerprinter fingerprinter, boolean keepBases, DetectionRules rules) {
+        super(MEDIA_TYPE);
+        this.fingerprinter = fingerprinter;
+        this.keepBases = keepBases;
+        this.rules = rules;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return DnaAnalysis.class.equals(clazz);
+    }
+
+    @Override
+    protected boolean canWrite(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected DnaAnalysis readInternal(Class<? extends DnaAnalysis> clazz, HttpInputMessage inputMessage)
+            throws IOException {
+
+        Body body = new Body(inputMessage.getBody());
+        final int encoding = body.read();
+        final int n = body.readInt();
+
+        if (encoding != ENCODING_ASCII && encoding != ENCODING_PACKED) {
+            throw new HttpMessageNotReadableException("Request body is missing or malformed", inputMessage);
+        }
+        if (n < ValidDnaSequenceValidator.MIN_SIZE) {
+            throw new InvalidDnaException();
+        }
+
+        DnaStreamScanner scanner = new DnaStreamScanner(fingerprinter, keepBases, rules);
+        BinaryRow row = new BinaryRow();
+
+        for (int r = 0; r < n; r++) {
+            final boolean complete = encoding == ENCODING_PACKED
+                    ? row.readPacked(body, n)
+                    : row.readAscii(body, n);
+            if (!complete) {
+                throw new InvalidDnaException(); // Menos de N*N bases
+            }
+            scanner.acceptRow(row);
+        }
+
+        if (body.read() >= 0) {
+            throw new InvalidDnaException(); // Más de N*N bases
+        }
+        return scanner.finish();
+    }
+
+    @Override
+    protected void writeInternal(DnaAnalysis analysis, HttpOutputMessage outputMessage)
+            throws HttpMessageNotWritableException {
+        throw new HttpMessageNotWritableException("DnaAnalysis is read-only");
+    }
+
+    /**
+     * Lectura del body con un buffer propio: un byte por llamada sin pasar por InputStream.read().
+     * En PACKED guarda también el byte en curso, porque una fila puede empezar a mitad de byte.
+     */
+    private static final class Body {
+
+        private final InputStream in;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position;
+        private int limit;
+
+        private int packed;
+        private int lanesLeft;
+
+        private Body(InputStream in) {
+            this.in = in;
+        }
+
+        /**
+         * Siguiente byte (0-255) o -1 al final del body.
+         */
+        int read() throws IOException {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        /**
+         * Entero big-endian. Un header incompleto termina en 400 (body mal formado).
+         */
+        int readInt() throws IOException {
+            int value = 0;
+            for (int i = 0; i < 4; i++) {
+                final int b = read();
+                if (b < 0) {
+                    throw new EOFException("Incomplete DNA header");
+                }
+                value = (value << 8) | b;
+            }
+            return value;
+        }
+
+        /**
+         * Copia hasta {@code max} bytes en {@code target}. Retorna la cantidad copiada, 0 al final del body.
+         */
+        int read(byte[] target, int offset, int max) throws IOException {
+            if (position == limit && !fill()) {
+                return 0;
+            }
+            final int count = Math.min(max, limit - position);
+            System.arraycopy(buffer, position, target, offset, count);
+            position += count;
+            return count;
+        }
+
+        /**
+         * Código de 2 bits de la siguiente base o -1 al final del body.
+         */
+        int readCode() throws IOException {
+            if (lanesLeft == 0) {
+                packed = read();
+                if (packed < 0) {
+                    return -1;
+                }
+                lanesLeft = 4;
+            }
+            final int code = packed & 3;
+            packed >>>= 2;
+            lanesLeft--;
+            return code;
+        }
+
+        private boolean fill() throws IOException {
+            int read;
+            do {
+                read = in.read(buffer);
+            } while (read == 0);
+            position = 0;
+            limit = Math.max(read, 0);
+            return read > 0;
+        }
+    }
+
+    /**
+     * Fila en bytes ASCII vista como CharSequence. Crece a medida que llegan bases: un N
+     * declarado enorme no reserva memoria que el body no trae.
+     */
+    private static final class BinaryRow implements CharSequence {
+
+        private static final byte[] BASES = {'A', 'C', 'G', 'T'};
+
+        private byte[] bytes = new byte[256];
+        private int length;
+
+        boolean readAscii(Body body, int n) throws IOException {
+            length = 0;
+            while (length < n) {
+                if (length == bytes.length) {
+                    ensureCapacity(Math.min(n, length * 2));
+                }
+                final int read = body.read(bytes, length, Math.min(n, bytes.length) - length);
+                if (read == 0) {
+                    return false;
+                }
+                length += read;
+            }
+            return true;
+        }
+
+        boolean readPacked(Body body, int n) throws IOException {
+            length = 0;
+            while (length < n) {
+                final int code = body.readCode();
+                if (code < 0) {
+                    return false;
+                }
+                if (length == bytes.length) {
+                    ensureCapacity(Math.min(n, length * 2));
+                }
+                bytes[length++] = BASES[code];
+            }
+            return true;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (bytes.length < capacity) {
+                bytes = Arrays.copyOf(bytes, capacity);
+            }
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index >= length) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return (char) (bytes[index] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().substring(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return new String(bytes, 0, length, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.config;
+
+import org.example.service.DnaFingerprinter;
+import org.example.service.Murmur3DnaFingerprinter;
+import org.example.service.PackedDnaFingerprinter;
+import org.example.service.Sha256DnaFingerprinter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class DnaFingerprintConfig {
+
+    /**
+     * Elige la huella con la que se deduplica el ADN.
+     *
+     * Cambiarla con datos ya guardados hace que el mismo ADN tenga otra clave:
+     * se vuelve a analizar y se guarda de nuevo. Hacerlo con la BD vacía.
+     */
+    @Bean
+    public DnaFingerprinter dnaFingerprinter(
+            @Value("${dna.fingerprint.algorithm:" + Sha256DnaFingerprinter.ALGORITHM + "}") String algorithm) {
+        return switch (algorithm.trim().toLowerCase()) {
+            case Sha256DnaFingerprinter.ALGORITHM -> new Sha256DnaFingerprinter();
+            case Murmur3DnaFingerprinter.ALGORITHM -> new Murmur3DnaFingerprinter();
+            case PackedDnaFingerprinter.ALGORITHM -> new PackedDnaFingerprinter();
+            default -> throw new IllegalArgumentException(
+                    "dna.fingerprint.algorithm desconocido: " + algorithm + " (sha256, murmur3, packed)");
+        };
+    }
+}
@@ -0,0 +1,113 @@
+package org.example.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import org.example.exception.InvalidDnaException;
+import org.example.service.DetectionRules;
+import org.example.service.DnaAnalysis;
+import org.example.service.DnaFingerprinter;
+import org.example.service.DnaStreamScanner;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+
+/**
+ * Lee {"dna": [...]} directamente del InputStream del request y analiza cada fila
+ * a medida que el parser la entrega.
+ *
+ * No arma el árbol JSON, ni el String[], ni una matriz de chars: las filas se toman
+ * del buffer interno del parser y pasan directo a la matriz empaquetada.
+ */
+public class DnaStreamMessageConverter extends AbstractHttpMessageConverter<DnaAnalysis> {
+
+    private static final String DNA_FIELD = "dna";
+
+    private final JsonFactory jsonFactory;
+    private final DnaFingerprinter fingerprinter;
+    private final boolean keepBases;
+    private final DetectionRules rules;
+
+    public DnaStreamMessageConverter(JsonFactory jsonFactory, DnaFingerprinter fingerprinter, boolean keepBases,
+                                     DetectionRules rules) {
+        super(MediaType.APPLICATION_JSON);
+        this.jsonFactory = jsonFactory;
+        this.fingerprinter = fingerprinter;
+        this.keepBases = keepBases;
+        this.rules = rules;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return DnaAnalysis.class.equals(clazz);
+    }
+
+    @Override
+    protected boolean canWrite(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected DnaAnalysis readInternal(Class<? extends DnaAnalysis> clazz, HttpInputMessage inputMessage)
+            throws IOException {
+
+        DnaStreamScanner scanner = new DnaStreamScanner(fingerprinter, keepBases, rules);
+        boolean dnaFound = false;
+
+        try (JsonParser parser = jsonFactory.createParser(inputMessage.getBody())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new HttpMessageNotReadableException("Request body is missing or malformed", inputMessage);
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+
+                if (DNA_FIELD.equals(field) && dnaFound) {
+                    // Un segundo "dna" sumaría sus filas a la misma matriz
+                    throw new InvalidDnaException("El campo dna no puede repetirse");
+                }
+                if (DNA_FIELD.equals(field) && value == JsonToken.START_ARRAY) {
+                    readRows(parser, scanner);
+                    dnaFound = true;
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("Request body is missing or malformed", e, inputMessage);
+        }
+
+        if (!dnaFound) {
+            throw new InvalidDnaException("El ADN no puede ser nulo");
+        }
+        return scanner.finish();
+    }
+
+    /**
+     * Entrega cada fila al scanner sin crear el String: se envuelve el buffer del parser.
+     */
+    private void readRows(JsonParser parser, DnaStreamScanner scanner) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.VALUE_STRING) {
+                throw new InvalidDnaException();
+            }
+            scanner.acceptRow(CharBuffer.wrap(
+                    parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength()));
+        }
+    }
+
+    @Override
+    protected void writeInternal(DnaAnalysis analysis, HttpOutputMessage outputMessage)
+            throws HttpMessageNotWritableException {
+        throw new HttpMessageNotWritableException("DnaAnalysis is read-only");
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.config;
+
+import org.example.controller.MutantHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Stack reactivo (spring.main.web-application-type=reactive, ver application-reactive.properties).
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWebConfig {
+
+    @Bean
+    public RouterFunction<ServerResponse> mutantRoutes(MutantHandler handler) {
+        return route(POST("/mutant"), handler::checkMutant)
+                .andRoute(GET("/stats"), handler::getStats)
+                .andRoute(GET("/stats/history"), handler::getStatsHistory);
+    }
+
+    /**
+     * Scheduler de detección: un hilo por CPU, la detección es CPU pura.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler dnaDetectionScheduler() {
+        return Schedulers.newParallel("dna-detect", Schedulers.DEFAULT_POOL_SIZE);
+    }
+
+    /**
+     * Netty en lugar de Tomcat: Tomcat sigue en el classpath por el stack servlet
+     * y Spring Boot lo elegiría primero.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.example.service.DetectionRules;
+import org.example.service.DnaFingerprinter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+    private final DnaFingerprinter dnaFingerprinter;
+    private final DetectionRules detectionRules;
+
+    @Value("${dna.fingerprint.verify:false}")
+    private boolean verifyFingerprints;
+
+    /**
+     * Registra los converters de ADN en streaming (JSON y binario) antes que Jackson.
+     * Solo aplican a parámetros de tipo DnaAnalysis, el resto sigue igual.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new DnaStreamMessageConverter(
+                objectMapper.getFactory(), dnaFingerprinter, verifyFingerprints, detectionRules));
+        converters.add(1, new DnaBinaryMessageConverter(dnaFingerprinter, verifyFingerprints, detectionRules));
+    }
+}
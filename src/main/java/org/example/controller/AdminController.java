@@ -1,13 +1,25 @@
 package org.example.controller;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import io.swagger.v3.oas.annotations.Hidden;
 import lombok.RequiredArgsConstructor;
 import org.example.entity.DnaRecord;
+import org.example.repository.DnaRecordArchiveRepository;
+import org.example.repository.DnaRecordBatchWriter;
 import org.example.repository.DnaRecordRepository;
+import org.example.service.DnaFingerprinter;
+import org.example.service.DnaHashBloomFilter;
+import org.example.service.DnaInFlightRequests;
+import org.example.service.DnaRecordRetention;
+import org.example.service.DnaResultCache;
+import org.example.service.DnaWriteBehindQueue;
+import org.example.service.StatsHistoryService;
+import org.example.service.StatsService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -23,7 +35,19 @@ import java.util.Map;
 @Hidden // Oculto en Swagger
 public class AdminController {
 
+    private static final String DEMO_BASES = "ACGT";
+
     private final DnaRecordRepository dnaRecordRepository;
+    private final DnaRecordBatchWriter dnaRecordBatchWriter;
+    private final DnaRecordArchiveRepository archiveRepository;
+    private final DnaResultCache dnaResultCache;
+    private final DnaWriteBehindQueue writeBehindQueue;
+    private final DnaInFlightRequests inFlightRequests;
+    private final DnaHashBloomFilter hashFilter;
+    private final StatsService statsService;
+    private final StatsHistoryService statsHistoryService;
+    private final DnaRecordRetention recordRetention;
+    private final DnaFingerprinter dnaFingerprinter;
 
     @Value("${admin.secret.token:default-secret-change-me}")
     private String adminToken;
@@ -64,18 +88,21 @@ public class AdminController {
 
         // Insertar 40 mutantes
         for (int i = 1; i <= 40; i++) {
-            String hash = String.format("demo_mutant_%03d_%d", i, System.currentTimeMillis());
-            records.add(new DnaRecord(hash, true));
+            String label = String.format("demo_mutant_%03d_%d", i, System.currentTimeMillis());
+            records.add(new DnaRecord(demoHash(label), true));
         }
 
         // Insertar 100 humanos
         for (int i = 1; i <= 100; i++) {
-            String hash = String.format("demo_human_%03d_%d", i, System.currentTimeMillis());
-            records.add(new DnaRecord(hash, false));
+            String label = String.format("demo_human_%03d_%d", i, System.currentTimeMillis());
+            records.add(new DnaRecord(demoHash(label), false));
         }
 
-        // Guardar todos
-        dnaRecordRepository.saveAll(records);
+        // Guardar todos por el insert con lock por hash, como el resto de los inserts
+        dnaRecordBatchWriter.insertIgnoringDuplicates(records).forEach(record -> {
+            statsService.recordInsert(record.isMutant());
+            hashFilter.put(record.getDnaHash());
+        });
 
         // Respuesta
         response.put("success", true);
@@ -109,6 +136,10 @@ public class AdminController {
 
         long count = dnaRecordRepository.count();
         dnaRecordRepository.deleteAll();
+        archiveRepository.deleteAllInBatch(); // Conteos de particiones ya eliminadas
+        dnaResultCache.invalidateAll(); // Los resultados en memoria ya no están en BD
+        hashFilter.clear();
+        statsHistoryService.clear(); // También pone en 0 los totales de /stats
 
         response.put("success", true);
         response.put("message", "Database cleared");
@@ -120,7 +151,9 @@ public class AdminController {
     /**
      * GET /admin/status?token=SECRET
      *
-     * Muestra el estado actual de la base de datos
+     * Muestra el estado actual de la base de datos, del caché en memoria,
+     * de la cola write-behind, de los requests agrupados, del filtro Bloom,
+     * de los buckets de /stats/history sin escribir y de la retención por particiones
      */
     @GetMapping("/status")
     public ResponseEntity<Map<String, Object>> getDatabaseStatus(
@@ -146,6 +179,82 @@ public class AdminController {
         response.put("target_ratio", 0.4);
         response.put("is_target_ratio", Math.abs(ratio - 0.4) < 0.01);
 
+        // Caché en memoria
+        CacheStats cacheStats = dnaResultCache.stats();
+        Map<String, Object> cache = new HashMap<>();
+        cache.put("size", dnaResultCache.size());
+        cache.put("hits", cacheStats.hitCount());
+        cache.put("misses", cacheStats.missCount());
+        cache.put("evictions", cacheStats.evictionCount());
+        cache.put("hit_rate", cacheStats.hitRate());
+        response.put("cache", cache);
+
+        // Persistencia write-behind
+        Map<String, Object> writeBehind = new HashMap<>();
+        writeBehind.put("enabled", writeBehindQueue.isEnabled());
+        writeBehind.put("pending", writeBehindQueue.pending());
+        writeBehind.put("enqueued", writeBehindQueue.enqueuedCount());
+        writeBehind.put("rejected", writeBehindQueue.rejectedCount());
+        writeBehind.put("batches", writeBehindQueue.batchCount());
+        writeBehind.put("inserted", writeBehindQueue.insertedCount());
+        writeBehind.put("duplicates", writeBehindQueue.duplicateCount());
+        writeBehind.put("failed", writeBehindQueue.failedCount());
+        response.put("write_behind", writeBehind);
+
+        // Requests concurrentes del mismo ADN
+        Map<String, Object> inFlight = new HashMap<>();
+        inFlight.put("current", inFlightRequests.size());
+        inFlight.put("computations", inFlightRequests.computationCount());
+        inFlight.put("coalesced", inFlightRequests.coalescedCount());
+        response.put("in_flight", inFlight);
+
+        // Filtro Bloom de hashes guardados
+        Map<String, Object> bloom = new HashMap<>();
+        bloom.put("enabled", hashFilter.isEnabled());
+        bloom.put("ready", hashFilter.isReady());
+        bloom.put("bits", hashFilter.bitCount());
+        bloom.put("hash_functions", hashFilter.hashFunctionCount());
+        bloom.put("skipped_lookups", hashFilter.skippedLookupCount());
+        response.put("bloom_filter", bloom);
+
+        // Buckets de /stats/history
+        Map<String, Object> statsHistory = new HashMap<>();
+        statsHistory.put("pending_buckets", statsHistoryService.pendingBuckets());
+        statsHistory.put("flushes", statsHistoryService.flushCount());
+        statsHistory.put("failed_flushes", statsHistoryService.failedFlushCount());
+        response.put("stats_history", statsHistory);
+
+        // Retención: particiones eliminadas
+        Map<String, Object> retention = new HashMap<>();
+        retention.put("enabled", recordRetention.isEnabled());
+        retention.put("keep_months", recordRetention.keepMonths());
+        retention.put("dropped_partitions", recordRetention.droppedPartitionCount());
+        retention.put("archived_records", recordRetention.archivedRecordCount());
+        response.put("retention", retention);
+
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Huella de un registro de demostración con el algoritmo configurado (el largo depende de él).
+     * El label se codifica a 2 bits por base en una matriz NxN válida, rellenada con A:
+     * labels distintos dan ADN distinto.
+     */
+    private byte[] demoHash(String label) {
+        byte[] bytes = label.getBytes(StandardCharsets.UTF_8);
+        StringBuilder bases = new StringBuilder(bytes.length * 4);
+        for (byte b : bytes) {
+            for (int shift = 6; shift >= 0; shift -= 2) {
+                bases.append(DEMO_BASES.charAt((b >>> shift) & 3));
+            }
+        }
+
+        final int n = (int) Math.ceil(Math.sqrt(bases.length()));
+        bases.append("A".repeat(n * n - bases.length()));
+        String[] dna = new String[n];
+        for (int row = 0; row < n; row++) {
+            dna[row] = bases.substring(row * n, (row + 1) * n);
+        }
+        return dnaFingerprinter.fingerprint(dna);
+    }
+}
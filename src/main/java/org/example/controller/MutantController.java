@@ -7,23 +7,43 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.example.config.DnaBinaryMessageConverter;
+import org.example.dto.DnaBatchRequest;
+import org.example.dto.DnaBatchResponse;
+import org.example.dto.DnaHashResponse;
+import org.example.dto.DnaLookupRequest;
+import org.example.dto.DnaLookupResponse;
 import org.example.dto.DnaRequest;
+import org.example.dto.DnaRulesRequest;
 import org.example.dto.ErrorResponse;
+import org.example.dto.StatsHistoryResponse;
 import org.example.dto.StatsResponse;
+import org.example.service.DnaAnalysis;
 import org.example.service.MutantService;
+import org.example.service.StatsHistoryService;
 import org.example.service.StatsService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.Locale;
+
 @RestController
 @RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Tag(name = "Mutant Detector", description = "API para detectar mutantes mediante análisis de ADN")
 public class MutantController {
 
+    /** Resultado de GET/HEAD /mutant/{hash}: "true" o "false" */
+    public static final String MUTANT_HEADER = "X-Dna-Mutant";
+
     private final MutantService mutantService;
     private final StatsService statsService;
+    private final StatsHistoryService statsHistoryService;
 
     /**
      * POST /mutant
@@ -64,6 +84,262 @@ public class MutantController {
                 : ResponseEntity.status(HttpStatus.FORBIDDEN).build();
     }
 
+    /**
+     * POST /mutant con Content-Type application/x-dna
+     *
+     * Mismo contrato que POST /mutant con el ADN en binario: un header (codificación y N)
+     * y las bases a un byte o a 2 bits. Las filas se decodifican directo del body hacia la
+     * detección, sin Strings ni JSON (ver DnaBinaryMessageConverter).
+     *
+     * Respuestas:
+     * - 200 OK: Es mutante
+     * - 403 Forbidden: No es mutante (humano)
+     * - 400 Bad Request: ADN inválido o header mal formado
+     */
+    @PostMapping(value = "/mutant", consumes = DnaBinaryMessageConverter.MEDIA_TYPE_VALUE)
+    @Operation(
+            summary = "Verificar si un ADN es mutante (binario)",
+            description = "Mismo contrato que POST /mutant. Body: 1 byte de codificación (1 = un byte por base, " +
+                    "2 = 2 bits por base con A=0, C=1, G=2, T=3), N en 4 bytes big-endian y las N*N bases.",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    content = @Content(mediaType = DnaBinaryMessageConverter.MEDIA_TYPE_VALUE,
+                            schema = @Schema(type = "string", format = "binary"))
+            )
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Es mutante"
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "No es mutante (humano)"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "ADN inválido (N menor a 4, cantidad de bases distinta de N*N, bases inválidas, etc.)",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    public ResponseEntity<Void> checkMutantBinary(@RequestBody DnaAnalysis analysis) {
+        boolean isMutant = mutantService.recordAnalysis(analysis);
+
+        return isMutant
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    }
+
+    /**
+     * POST /mutant/stream
+     *
+     * Igual que POST /mutant, pero el ADN se analiza mientras se lee el body:
+     * cada fila se valida, se codifica y se busca en ella el cierre de secuencias
+     * sin armar el String[] completo. Pensado para matrices NxN muy grandes.
+     *
+     * Respuestas:
+     * - 200 OK: Es mutante
+     * - 403 Forbidden: No es mutante (humano)
+     * - 400 Bad Request: ADN inválido
+     */
+    @PostMapping("/mutant/stream")
+    @Operation(
+            summary = "Verificar si un ADN es mutante (streaming)",
+            description = "Mismo contrato que POST /mutant. El ADN se analiza fila por fila mientras " +
+                    "se lee el request, sin cargar la matriz completa en memoria.",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    content = @Content(schema = @Schema(implementation = DnaRequest.class))
+            )
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Es mutante"
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "No es mutante (humano)"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "ADN inválido (matriz no cuadrada, caracteres inválidos, etc.)",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    public ResponseEntity<Void> checkMutantStream(@RequestBody DnaAnalysis analysis) {
+        boolean isMutant = mutantService.recordAnalysis(analysis);
+
+        return isMutant
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    }
+
+    /**
+     * POST /mutant/rules
+     *
+     * Verifica un ADN con reglas de detección propias: largo de secuencia, mínimo de
+     * secuencias, alfabeto y direcciones. Las reglas omitidas toman el valor del despliegue.
+     * El resultado no se cachea ni se guarda (no cuenta en /stats).
+     *
+     * Respuestas:
+     * - 200 OK: Es mutante según las reglas
+     * - 403 Forbidden: No es mutante según las reglas
+     * - 400 Bad Request: Reglas inválidas o ADN inválido para el alfabeto
+     */
+    @PostMapping("/mutant/rules")
+    @Operation(
+            summary = "Verificar un ADN con reglas propias",
+            description = "Mismo contrato que POST /mutant, con reglas de detección del request: " +
+                    "sequence_length, min_sequences, alphabet y directions. No se guarda ni cuenta en /stats."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Es mutante según las reglas"
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "No es mutante según las reglas"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Reglas inválidas o ADN inválido (matriz no cuadrada, bases fuera del alfabeto, etc.)",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    public ResponseEntity<Void> checkMutantWithRules(@Validated @RequestBody DnaRulesRequest request) {
+        boolean isMutant = mutantService.analyzeDnaWithRules(request.getDna(), request.getRules());
+
+        return isMutant
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    }
+
+    /**
+     * POST /mutant/batch
+     *
+     * Verifica un lote de ADN en un solo request (hasta 10.000).
+     * Los ADN repetidos se analizan una vez, los conocidos se resuelven con una sola
+     * consulta a la BD y los nuevos se analizan en paralelo y se guardan en lote.
+     *
+     * Respuestas:
+     * - 200 OK: Un resultado por ADN (MUTANT, HUMAN o INVALID), en el mismo orden
+     * - 400 Bad Request: Lote nulo, vacío o demasiado grande
+     */
+    @PostMapping("/mutant/batch")
+    @Operation(
+            summary = "Verificar un lote de ADN",
+            description = "Analiza varios ADN en una sola llamada y retorna un resultado por ítem. " +
+                    "Un ADN inválido se informa como INVALID sin rechazar el lote."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Resultado de cada ADN, en el orden del request",
+                    content = @Content(schema = @Schema(implementation = DnaBatchResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Lote nulo, vacío o con más de 10.000 ADN",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    public ResponseEntity<DnaBatchResponse> checkMutantBatch(@Validated @RequestBody DnaBatchRequest request) {
+        return ResponseEntity.ok(new DnaBatchResponse(mutantService.analyzeBatch(request.getDnas())));
+    }
+
+    /**
+     * GET /mutant/{hash}
+     *
+     * Resultado guardado de un ADN ya analizado, buscado por su huella en hexadecimal:
+     * un cliente que repite un ADN no necesita volver a subir la matriz.
+     * El resultado va también en el header X-Dna-Mutant (ver HEAD /mutant/{hash}).
+     *
+     * Respuestas:
+     * - 200 OK: ADN conocido, con is_mutant
+     * - 404 Not Found: Huella desconocida (el ADN nunca se analizó)
+     * - 400 Bad Request: Huella que no es hexadecimal o no tiene el largo del algoritmo
+     */
+    @GetMapping("/mutant/{hash}")
+    @Operation(
+            summary = "Consultar el resultado de un ADN por su huella",
+            description = "Retorna el resultado guardado sin volver a analizar el ADN. La huella se calcula " +
+                    "del lado del cliente con el algoritmo del despliegue (por defecto SHA-256 de las filas " +
+                    "concatenadas, en hexadecimal). HEAD responde lo mismo sin body."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "ADN conocido",
+                    content = @Content(schema = @Schema(implementation = DnaHashResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Huella desconocida"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Huella mal formada",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    public ResponseEntity<DnaHashResponse> getMutantByHash(@PathVariable String hash) {
+        return mutantService.lookup(hash)
+                .map(isMutant -> ResponseEntity.ok()
+                        .header(MUTANT_HEADER, isMutant.toString())
+                        .body(new DnaHashResponse(hash.toLowerCase(Locale.ROOT), isMutant)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * HEAD /mutant/{hash}
+     *
+     * Igual que GET /mutant/{hash} pero solo con el status y el header X-Dna-Mutant, sin body.
+     */
+    @RequestMapping(value = "/mutant/{hash}", method = RequestMethod.HEAD)
+    @Operation(
+            summary = "Consultar el resultado de un ADN por su huella (sin body)",
+            description = "Mismas respuestas que GET /mutant/{hash}; el resultado va en el header X-Dna-Mutant."
+    )
+    public ResponseEntity<Void> headMutantByHash(@PathVariable String hash) {
+        return mutantService.lookup(hash)
+                .map(isMutant -> ResponseEntity.ok()
+                        .header(MUTANT_HEADER, isMutant.toString())
+                        .<Void>build())
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * POST /mutant/lookup
+     *
+     * Consulta el resultado guardado de varias huellas (hasta 10.000) en un solo request.
+     * Las que no están en caché se resuelven con una sola consulta a la BD.
+     *
+     * Respuestas:
+     * - 200 OK: Un resultado por huella (MUTANT, HUMAN, UNKNOWN o INVALID), en el mismo orden
+     * - 400 Bad Request: Lista nula, vacía o demasiado grande
+     */
+    @PostMapping("/mutant/lookup")
+    @Operation(
+            summary = "Consultar el resultado de varios ADN por su huella",
+            description = "Retorna un resultado por huella. Una huella desconocida se informa como UNKNOWN " +
+                    "y una mal formada como INVALID, sin rechazar la consulta."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Resultado de cada huella, en el orden del request",
+                    content = @Content(schema = @Schema(implementation = DnaLookupResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Lista nula, vacía o con más de 10.000 huellas",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    public ResponseEntity<DnaLookupResponse> lookupMutants(@Validated @RequestBody DnaLookupRequest request) {
+        return ResponseEntity.ok(new DnaLookupResponse(mutantService.lookupBatch(request.getHashes())));
+    }
+
     /**
      * GET /stats
      *
@@ -88,4 +364,40 @@ public class MutantController {
         StatsResponse stats = statsService.getStats();
         return ResponseEntity.ok(stats);
     }
+
+    /**
+     * GET /stats/history?from=...&to=...&granularity=minute|hour|day
+     *
+     * Cantidad de mutantes y humanos guardados por bucket de tiempo, para gráficos de tendencia.
+     * Se lee de los conteos pre-agregados (dna_stats_rollup), no de dna_records.
+     *
+     * Respuestas:
+     * - 200 OK: Un bucket por intervalo en [from, to), incluidos los vacíos
+     * - 400 Bad Request: Granularidad o fechas inválidas, o más de 10.000 buckets
+     */
+    @GetMapping("/stats/history")
+    @Operation(
+            summary = "Obtener historial de estadísticas",
+            description = "Retorna la cantidad de ADN mutante y humano verificado por minuto, hora o día. " +
+                    "Fechas ISO-8601 (p. ej. 2024-01-15T10:00:00); from se redondea al inicio de su bucket " +
+                    "y to es exclusivo."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Historial obtenido correctamente",
+                    content = @Content(schema = @Schema(implementation = StatsHistoryResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Granularidad o fechas inválidas, o rango demasiado grande",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    public ResponseEntity<StatsHistoryResponse> getStatsHistory(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "hour") String granularity) {
+        return ResponseEntity.ok(statsHistoryService.getHistory(granularity, from, to));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,125 @@
+package org.example.controller;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.example.dto.DnaRequest;
+import org.example.dto.ErrorResponse;
+import org.example.exception.InvalidStatsQueryException;
+import org.example.service.ReactiveMutantService;
+import org.example.service.StatsHistoryService;
+import org.example.service.StatsService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.codec.CodecException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Handlers WebFlux de /mutant, /stats y /stats/history (perfil reactive).
+ *
+ * Mismo contrato que MutantController: 200 mutante, 403 humano y 400 con el mismo
+ * ErrorResponse que arma GlobalExceptionHandler.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class MutantHandler {
+
+    private final ReactiveMutantService mutantService;
+    private final StatsService statsService;
+    private final StatsHistoryService statsHistoryService;
+    private final Validator validator;
+
+    /**
+     * POST /mutant
+     *
+     * Respuestas:
+     * - 200 OK: Es mutante
+     * - 403 Forbidden: No es mutante (humano)
+     * - 400 Bad Request: ADN inválido o body mal formado
+     */
+    public Mono<ServerResponse> checkMutant(ServerRequest request) {
+        return request.bodyToMono(DnaRequest.class)
+                .switchIfEmpty(Mono.error(() -> new ServerWebInputException("Request body is missing")))
+                .flatMap(body -> {
+                    Set<ConstraintViolation<DnaRequest>> violations = validator.validate(body);
+                    if (!violations.isEmpty()) {
+                        return badRequest(request, violations.stream()
+                                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                                .collect(Collectors.joining(", ")));
+                    }
+                    return mutantService.analyzeDna(body.getDna())
+                            .flatMap(isMutant -> isMutant
+                                    ? ServerResponse.ok().build()
+                                    : ServerResponse.status(HttpStatus.FORBIDDEN).build());
+                })
+                .onErrorResume(error -> error instanceof ServerWebInputException || error instanceof CodecException,
+                        error -> badRequest(request, "Request body is missing or malformed"));
+    }
+
+    /**
+     * GET /stats
+     *
+     * Lee los mismos contadores en memoria que el stack servlet: no consulta la BD.
+     */
+    public Mono<ServerResponse> getStats(ServerRequest request) {
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(statsService.getStats());
+    }
+
+    /**
+     * GET /stats/history?from=...&to=...&granularity=minute|hour|day
+     *
+     * Misma consulta que el stack servlet. Lee dna_stats_rollup por JPA (bloqueante),
+     * así que corre en boundedElastic.
+     */
+    public Mono<ServerResponse> getStatsHistory(ServerRequest request) {
+        return Mono.fromCallable(() -> statsHistoryService.getHistory(
+                        request.queryParam("granularity").orElse(null),
+                        dateTimeParam(request, "from"),
+                        dateTimeParam(request, "to")))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(history -> ServerResponse.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(history))
+                .onErrorResume(InvalidStatsQueryException.class, error -> badRequest(request, error.getMessage()));
+    }
+
+    private static LocalDateTime dateTimeParam(ServerRequest request, String name) {
+        String value = request.queryParam(name).orElse(null);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new InvalidStatsQueryException(name + ": invalid value '" + value + "'");
+        }
+    }
+
+    private static Mono<ServerResponse> badRequest(ServerRequest request, String message) {
+        ErrorResponse error = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.BAD_REQUEST.value(),
+                "Bad Request",
+                message,
+                request.path()
+        );
+
+        return ServerResponse.status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(error);
+    }
+}
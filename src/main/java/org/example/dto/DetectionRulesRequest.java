@@ -0,0 +1,33 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Reglas de detección para un request. Los campos omitidos toman el valor del despliegue")
+public class DetectionRulesRequest {
+
+    @Schema(description = "Cantidad de bases iguales seguidas que forman una secuencia (2 a 64)", example = "5")
+    @JsonProperty("sequence_length")
+    private Integer sequenceLength;
+
+    @Schema(description = "Cantidad mínima de secuencias para considerar mutante el ADN", example = "2")
+    @JsonProperty("min_sequences")
+    private Integer minSequences;
+
+    @Schema(description = "Bases válidas (letras A-Z, sin repetir)", example = "ACGU")
+    @JsonProperty("alphabet")
+    private String alphabet;
+
+    @Schema(description = "Direcciones en las que se buscan secuencias: horizontal, vertical, diagonal, anti-diagonal",
+            example = "[\"horizontal\",\"vertical\"]")
+    @JsonProperty("directions")
+    private List<String> directions;
+}
@@ -0,0 +1,32 @@
+package org.example.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request para verificar un lote de ADN en una sola llamada")
+public class DnaBatchRequest {
+
+    public static final int MAX_ITEMS = 10_000;
+
+    @Schema(
+            description = "Lista de ADN, cada uno una matriz NxN de strings. " +
+                    "Los ADN inválidos no rechazan el lote: se informan como INVALID",
+            example = "[[\"ATGCGA\",\"CAGTGC\",\"TTATGT\",\"AGAAGG\",\"CCCCTA\",\"TCACTG\"]," +
+                    "[\"ATGCGA\",\"CAGTGC\",\"TTATTT\",\"AGACGG\",\"GCGTCA\",\"TCACTG\"]]",
+            required = true
+    )
+    @NotNull(message = "El lote no puede ser nulo")
+    @NotEmpty(message = "El lote no puede estar vacío")
+    @Size(max = MAX_ITEMS, message = "El lote no puede superar " + MAX_ITEMS + " ADN")
+    private List<String[]> dnas;
+}
@@ -0,0 +1,18 @@
+package org.example.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado de cada ADN del lote, en el mismo orden del request")
+public class DnaBatchResponse {
+
+    @Schema(description = "Un resultado por ADN", example = "[\"MUTANT\",\"HUMAN\",\"INVALID\"]")
+    private List<DnaBatchResult> results;
+}
@@ -0,0 +1,10 @@
+package org.example.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Resultado de un ADN dentro del lote")
+public enum DnaBatchResult {
+    MUTANT,
+    HUMAN,
+    INVALID
+}
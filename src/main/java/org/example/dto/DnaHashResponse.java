@@ -0,0 +1,23 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado guardado de un ADN, buscado por su huella")
+public class DnaHashResponse {
+
+    @Schema(description = "Huella del ADN en hexadecimal (minúsculas)",
+            example = "a65d94c3e61fa21513338bde031f53064ad9cb63d8a9b4514e3869cc67db6d32")
+    @JsonProperty("dna_hash")
+    private String dnaHash;
+
+    @Schema(description = "Si el ADN guardado es mutante", example = "true")
+    @JsonProperty("is_mutant")
+    private boolean mutant;
+}
@@ -0,0 +1,31 @@
+package org.example.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request para consultar el resultado guardado de varias huellas de ADN")
+public class DnaLookupRequest {
+
+    public static final int MAX_ITEMS = 10_000;
+
+    @Schema(
+            description = "Huellas en hexadecimal, calculadas con el algoritmo del despliegue. " +
+                    "Las mal formadas no rechazan la consulta: se informan como INVALID",
+            example = "[\"a65d94c3e61fa21513338bde031f53064ad9cb63d8a9b4514e3869cc67db6d32\"]",
+            required = true
+    )
+    @NotNull(message = "La lista de huellas no puede ser nula")
+    @NotEmpty(message = "La lista de huellas no puede estar vacía")
+    @Size(max = MAX_ITEMS, message = "La consulta no puede superar " + MAX_ITEMS + " huellas")
+    private List<String> hashes;
+}
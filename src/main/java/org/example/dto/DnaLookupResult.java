@@ -0,0 +1,11 @@
+package org.example.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Resultado guardado de una huella dentro de la consulta")
+public enum DnaLookupResult {
+    MUTANT,
+    HUMAN,
+    UNKNOWN,
+    INVALID
+}
@@ -0,0 +1,27 @@
+package org.example.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request para verificar un ADN con reglas de detección propias")
+public class DnaRulesRequest {
+
+    @Schema(
+            description = "Secuencia de ADN representada como matriz NxN de strings, con las bases del alfabeto de las reglas",
+            example = "[\"ATGCGA\",\"CAGTGC\",\"TTATGT\",\"AGAAGG\",\"CCCCTA\",\"TCACTG\"]",
+            required = true
+    )
+    @NotNull(message = "El ADN no puede ser nulo")
+    @NotEmpty(message = "El ADN no puede estar vacío")
+    private String[] dna;
+
+    @Schema(description = "Reglas de detección; sin reglas se usan las del despliegue")
+    private DetectionRulesRequest rules;
+}
@@ -0,0 +1,32 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "ADN guardados en un bucket de tiempo")
+public class StatsBucket {
+
+    @Schema(description = "Inicio del bucket", example = "2024-01-15T10:00:00")
+    @JsonProperty("start")
+    private LocalDateTime start;
+
+    @Schema(description = "Cantidad de ADN mutante guardado en el bucket", example = "4")
+    @JsonProperty("count_mutant_dna")
+    private long countMutantDna;
+
+    @Schema(description = "Cantidad de ADN humano guardado en el bucket", example = "10")
+    @JsonProperty("count_human_dna")
+    private long countHumanDna;
+
+    @Schema(description = "Ratio de mutantes sobre humanos en el bucket", example = "0.4")
+    @JsonProperty("ratio")
+    private double ratio;
+}
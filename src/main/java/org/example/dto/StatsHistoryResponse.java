@@ -0,0 +1,33 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Historial de verificaciones de ADN agrupado por buckets de tiempo")
+public class StatsHistoryResponse {
+
+    @Schema(description = "Tamaño de cada bucket", example = "hour", allowableValues = {"minute", "hour", "day"})
+    @JsonProperty("granularity")
+    private String granularity;
+
+    @Schema(description = "Inicio del primer bucket (inclusive)", example = "2024-01-15T00:00:00")
+    @JsonProperty("from")
+    private LocalDateTime from;
+
+    @Schema(description = "Fin del rango (exclusivo)", example = "2024-01-16T00:00:00")
+    @JsonProperty("to")
+    private LocalDateTime to;
+
+    @Schema(description = "Un bucket por intervalo, en orden; los intervalos sin registros vienen en 0")
+    @JsonProperty("buckets")
+    private List<StatsBucket> buckets;
+}
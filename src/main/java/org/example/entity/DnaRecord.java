@@ -4,12 +4,13 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.example.service.CompactDnaEncoding;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "dna_records", indexes = {
-        @Index(name = "idx_dna_hash", columnList = "dnaHash"),
+        @Index(name = "idx_dna_records_hash", columnList = "dna_hash", unique = true),
         @Index(name = "idx_is_mutant", columnList = "isMutant")
 })
 @Getter
@@ -21,8 +22,25 @@ public class DnaRecord {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "dna_hash", unique = true, nullable = false, length = 64)
-    private String dnaHash;
+    /**
+     * Huella del ADN en binario (bytea en PostgreSQL): 32 bytes con SHA-256, 16 con Murmur3.
+     *
+     * Un hash por registro no es una restricción de la columna: en PostgreSQL la tabla está
+     * particionada por created_at (V5__partition_dna_records.sql) y no admite UNIQUE (dna_hash).
+     * Todos los inserts pasan por DnaRecordBatchWriter o ReactiveDnaRecordWriter, que toman un
+     * advisory lock por hash e insertan solo si no existe. idx_dna_records_hash es el índice de
+     * búsqueda; solo en el esquema que genera Hibernate (H2) es único y respalda el MERGE.
+     */
+    @Column(name = "dna_hash", nullable = false, length = 32)
+    private byte[] dnaHash;
+
+    /**
+     * ADN completo a 2 bits por base. Solo se guarda con dna.fingerprint.verify=true,
+     * para descartar colisiones de huella comparando contra el ADN real. El largo cubre
+     * el N máximo que se puede verificar.
+     */
+    @Column(name = "dna_bases", length = CompactDnaEncoding.MAX_BYTES)
+    private byte[] dnaBases;
 
     @Column(name = "is_mutant", nullable = false)
     private boolean isMutant;
@@ -30,7 +48,7 @@ public class DnaRecord {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
-    public DnaRecord(String dnaHash, boolean isMutant) {
+    public DnaRecord(byte[] dnaHash, boolean isMutant) {
         this.dnaHash = dnaHash;
         this.isMutant = isMutant;
         this.createdAt = LocalDateTime.now();
@@ -0,0 +1,38 @@
+package org.example.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Conteos de una partición de dna_records eliminada por la retención.
+ *
+ * Los registros ya no existen; /stats los sigue contando desde dna_stats_rollup, que la
+ * retención no toca. Esta tabla queda como registro de lo que se eliminó.
+ */
+@Entity
+@Table(name = "dna_records_archive")
+@Getter
+@Setter
+@NoArgsConstructor
+public class DnaRecordArchive {
+
+    @Id
+    @Column(name = "partition_name", length = 63)
+    private String partitionName;
+
+    @Column(name = "range_end", nullable = false)
+    private LocalDateTime rangeEnd;
+
+    @Column(name = "mutant_count", nullable = false)
+    private long mutantCount;
+
+    @Column(name = "human_count", nullable = false)
+    private long humanCount;
+
+    @Column(name = "dropped_at", nullable = false)
+    private LocalDateTime droppedAt;
+}
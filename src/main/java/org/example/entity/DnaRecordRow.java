@@ -0,0 +1,38 @@
+package org.example.entity;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fila de dna_records para el stack reactivo (R2DBC).
+ *
+ * Misma tabla que DnaRecord, pero sin anotaciones JPA: si fuera @Entity, Spring Data JPA
+ * también intentaría implementar el repositorio reactivo.
+ */
+@Table("dna_records")
+@Getter
+@Setter
+@NoArgsConstructor
+public class DnaRecordRow {
+
+    @Id
+    private Long id;
+
+    @Column("dna_hash")
+    private byte[] dnaHash;
+
+    @Column("dna_bases")
+    private byte[] dnaBases;
+
+    @Column("is_mutant")
+    private boolean isMutant;
+
+    @Column("created_at")
+    private LocalDateTime createdAt;
+}
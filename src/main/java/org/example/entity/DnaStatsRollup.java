@@ -0,0 +1,49 @@
+package org.example.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Conteo de ADN guardados por bucket de tiempo (minuto, hora o día) para /stats/history.
+ *
+ * Se mantiene de forma incremental con cada insert: la consulta del historial lee
+ * estas filas y nunca agrupa sobre dna_records. La restricción unique crea el índice
+ * que usa la consulta por rango.
+ */
+@Entity
+@Table(name = "dna_stats_rollup", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_stats_rollup_bucket", columnNames = {"granularity", "bucket_start"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class DnaStatsRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false, length = 8)
+    private StatsGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "mutant_count", nullable = false)
+    private long mutantCount;
+
+    @Column(name = "human_count", nullable = false)
+    private long humanCount;
+
+    public DnaStatsRollup(StatsGranularity granularity, LocalDateTime bucketStart, long mutantCount, long humanCount) {
+        this.granularity = granularity;
+        this.bucketStart = bucketStart;
+        this.mutantCount = mutantCount;
+        this.humanCount = humanCount;
+    }
+}
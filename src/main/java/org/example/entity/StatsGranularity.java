@@ -0,0 +1,63 @@
+package org.example.entity;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Tamaño de los buckets de /stats/history y de las filas de dna_stats_rollup.
+ */
+public enum StatsGranularity {
+    MINUTE(ChronoUnit.MINUTES, Duration.ofHours(1)),
+    HOUR(ChronoUnit.HOURS, Duration.ofDays(1)),
+    DAY(ChronoUnit.DAYS, Duration.ofDays(30));
+
+    private final ChronoUnit unit;
+    private final Duration defaultWindow;
+
+    StatsGranularity(ChronoUnit unit, Duration defaultWindow) {
+        this.unit = unit;
+        this.defaultWindow = defaultWindow;
+    }
+
+    /**
+     * Inicio del bucket que contiene {@code time}.
+     */
+    public LocalDateTime truncate(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+
+    public LocalDateTime next(LocalDateTime bucketStart) {
+        return bucketStart.plus(1, unit);
+    }
+
+    /**
+     * Cantidad de buckets entre {@code from} (inicio de bucket) y {@code to}, contando el parcial.
+     */
+    public long bucketsBetween(LocalDateTime from, LocalDateTime to) {
+        long full = unit.between(from, to);
+        return from.plus(full, unit).isBefore(to) ? full + 1 : full;
+    }
+
+    /**
+     * Rango que se consulta cuando el request no trae {@code from}.
+     */
+    public Duration defaultWindow() {
+        return defaultWindow;
+    }
+
+    public String value() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static Optional<StatsGranularity> fromValue(String value) {
+        for (StatsGranularity granularity : values()) {
+            if (granularity.value().equalsIgnoreCase(value)) {
+                return Optional.of(granularity);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.exception;
+
+/**
+ * Reglas de detección inválidas (largo de secuencia, mínimo de secuencias, alfabeto o direcciones).
+ */
+public class InvalidDetectionRulesException extends RuntimeException {
+
+    public InvalidDetectionRulesException(String message) {
+        super(message);
+    }
+}
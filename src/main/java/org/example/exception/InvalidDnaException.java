@@ -0,0 +1,15 @@
+package org.example.exception;
+
+public class InvalidDnaException extends RuntimeException {
+
+    public static final String DEFAULT_MESSAGE =
+            "Invalid DNA sequence: must be a square NxN matrix (minimum 4x4) with only A, T, C, G characters";
+
+    public InvalidDnaException() {
+        super(DEFAULT_MESSAGE);
+    }
+
+    public InvalidDnaException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.exception;
+
+/**
+ * Huella de ADN mal formada en una consulta por hash (no es hexadecimal o no tiene el largo del algoritmo).
+ */
+public class InvalidDnaHashException extends RuntimeException {
+
+    public InvalidDnaHashException(String message) {
+        super(message);
+    }
+}
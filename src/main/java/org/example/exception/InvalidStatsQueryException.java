@@ -0,0 +1,11 @@
+package org.example.exception;
+
+/**
+ * Parámetros inválidos en /stats/history (granularidad, rango o cantidad de buckets).
+ */
+public class InvalidStatsQueryException extends RuntimeException {
+
+    public InvalidStatsQueryException(String message) {
+        super(message);
+    }
+}
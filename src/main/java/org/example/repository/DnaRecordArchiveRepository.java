@@ -0,0 +1,9 @@
+package org.example.repository;
+
+import org.example.entity.DnaRecordArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DnaRecordArchiveRepository extends JpaRepository<DnaRecordArchive, String> {
+}
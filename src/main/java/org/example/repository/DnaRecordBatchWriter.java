@@ -0,0 +1,185 @@
+package org.example.repository;
+
+import org.example.entity.DnaRecord;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Inserta DnaRecord con JDBC, ignorando los hash que ya existen.
+ *
+ * Con GenerationType.IDENTITY Hibernate no puede agrupar inserts, por eso este camino
+ * va directo por JdbcTemplate: una sola ida a la BD y una transacción por lote.
+ * Un hash repetido nunca llega a insertarse dos veces: el insert se descarta.
+ *
+ * - PostgreSQL: dna_records está particionada por created_at y no puede tener UNIQUE (dna_hash).
+ *   Se toma pg_advisory_xact_lock con la clave del hash y después se inserta solo si no existe
+ *   (INSERT ... SELECT ... WHERE NOT EXISTS). El lock se toma en una sentencia anterior para que
+ *   el NOT EXISTS vea lo que otra transacción commiteó mientras se esperaba.
+ * - H2 / otros: MERGE ... WHEN NOT MATCHED THEN INSERT (sobre la restricción unique)
+ */
+@Repository
+public class DnaRecordBatchWriter {
+
+    private static final String POSTGRES_LOCK_HASH = "SELECT pg_advisory_xact_lock(?)";
+
+    /**
+     * Locks de un lote en orden de clave: dos lotes con hashes en común no se bloquean en cruz.
+     */
+    private static final String POSTGRES_LOCK_HASHES =
+            "SELECT pg_advisory_xact_lock(k) FROM (SELECT DISTINCT unnest(?::bigint[]) AS k ORDER BY k) keys";
+
+    private static final String POSTGRES_INSERT =
+            "INSERT INTO dna_records (dna_hash, dna_bases, is_mutant, created_at) " +
+                    "SELECT CAST(? AS bytea), CAST(? AS bytea), CAST(? AS boolean), CAST(? AS timestamp) " +
+                    "WHERE NOT EXISTS (SELECT 1 FROM dna_records WHERE dna_hash = ?)";
+
+    private static final String MERGE_INSERT =
+            "MERGE INTO dna_records t " +
+                    "USING (VALUES (CAST(? AS VARBINARY(32)), CAST(? AS VARBINARY), CAST(? AS BOOLEAN), " +
+                    "CAST(? AS TIMESTAMP))) s (dna_hash, dna_bases, is_mutant, created_at) " +
+                    "ON t.dna_hash = s.dna_hash " +
+                    "WHEN NOT MATCHED THEN INSERT (dna_hash, dna_bases, is_mutant, created_at) " +
+                    "VALUES (s.dna_hash, s.dna_bases, s.is_mutant, s.created_at)";
+
+    /**
+     * Insert-or-get en una sola sentencia (con el lock del hash ya tomado): si el insert
+     * se descarta, la segunda rama devuelve la fila existente (la fila recién insertada no
+     * es visible para el SELECT de la misma sentencia, así que siempre vuelve una sola fila).
+     */
+    private static final String POSTGRES_INSERT_OR_GET =
+            "WITH inserted AS (" + POSTGRES_INSERT + " RETURNING is_mutant, dna_bases) " +
+                    "SELECT TRUE AS inserted, is_mutant, dna_bases FROM inserted " +
+                    "UNION ALL " +
+                    "SELECT FALSE, is_mutant, dna_bases FROM dna_records WHERE dna_hash = ?";
+
+    private static final String SELECT_BY_HASH =
+            "SELECT is_mutant, dna_bases FROM dna_records WHERE dna_hash = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean postgres;
+
+    public DnaRecordBatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        this.postgres = "PostgreSQL".equalsIgnoreCase(product);
+    }
+
+    /**
+     * Inserta el registro o, si el hash ya existe, retorna el que está guardado.
+     *
+     * Retorna la misma instancia recibida si el insert ocurrió; si no, un DnaRecord nuevo
+     * con el resultado (y el ADN codificado) de la fila existente.
+     *
+     * En PostgreSQL son dos sentencias: el lock del hash y el insert-or-get. En H2, donde
+     * MERGE no retorna filas, la fila existente se lee con una consulta aparte.
+     */
+    @Transactional
+    public DnaRecord insertOrGet(DnaRecord record) {
+        Object[] row = toRow(record);
+        if (postgres) {
+            jdbcTemplate.query(POSTGRES_LOCK_HASH, (RowCallbackHandler) rs -> { }, lockKey(record.getDnaHash()));
+            Object[] args = Arrays.copyOf(row, row.length + 1);
+            args[row.length] = record.getDnaHash();
+            List<DnaRecord> stored = jdbcTemplate.query(POSTGRES_INSERT_OR_GET,
+                    (rs, rowNum) -> rs.getBoolean("inserted") ? record : toRecord(record.getDnaHash(), rs),
+                    args);
+            if (!stored.isEmpty()) {
+                return stored.get(0);
+            }
+        } else if (jdbcTemplate.update(MERGE_INSERT, row) > 0) {
+            return record;
+        }
+        return jdbcTemplate.queryForObject(SELECT_BY_HASH,
+                (rs, rowNum) -> toRecord(record.getDnaHash(), rs), record.getDnaHash());
+    }
+
+    /**
+     * Inserta el lote y retorna solo los registros que efectivamente se insertaron
+     * (los hash duplicados se ignoran).
+     *
+     * Si el driver no informa filas por sentencia (SUCCESS_NO_INFO, p. ej. con
+     * reWriteBatchedInserts=true) el registro se considera insertado.
+     */
+    @Transactional
+    public List<DnaRecord> insertIgnoringDuplicates(List<DnaRecord> records) {
+        List<Object[]> rows = new ArrayList<>(records.size());
+        for (DnaRecord record : records) {
+            rows.add(toRow(record));
+        }
+
+        int[] updateCounts;
+        if (postgres) {
+            lockHashes(records);
+            updateCounts = jdbcTemplate.batchUpdate(POSTGRES_INSERT, rows);
+        } else {
+            updateCounts = jdbcTemplate.batchUpdate(MERGE_INSERT, rows);
+        }
+
+        List<DnaRecord> inserted = new ArrayList<>(records.size());
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] > 0 || updateCounts[i] == Statement.SUCCESS_NO_INFO) {
+                inserted.add(records.get(i));
+            }
+        }
+        return inserted;
+    }
+
+    private void lockHashes(List<DnaRecord> records) {
+        Long[] keys = new Long[records.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = lockKey(records.get(i).getDnaHash());
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(POSTGRES_LOCK_HASHES);
+            statement.setArray(1, connection.createArrayOf("bigint", keys));
+            return statement;
+        }, (RowCallbackHandler) rs -> { });
+    }
+
+    /**
+     * Clave del advisory lock de un hash: sus primeros 8 bytes (la huella ya es uniforme).
+     * Dos hashes con la misma clave solo se esperan entre sí, no se confunden.
+     */
+    static long lockKey(byte[] dnaHash) {
+        return dnaHash.length >= Long.BYTES ? ByteBuffer.wrap(dnaHash).getLong() : Arrays.hashCode(dnaHash);
+    }
+
+    /**
+     * Parámetros del insert: en PostgreSQL el hash va una vez más para el NOT EXISTS.
+     */
+    private Object[] toRow(DnaRecord record) {
+        Object[] row = {
+                record.getDnaHash(),
+                new SqlParameterValue(Types.BINARY, record.getDnaBases()),
+                record.isMutant(),
+                Timestamp.valueOf(record.getCreatedAt())
+        };
+        if (postgres) {
+            row = Arrays.copyOf(row, row.length + 1);
+            row[row.length - 1] = record.getDnaHash();
+        }
+        return row;
+    }
+
+    private static DnaRecord toRecord(byte[] dnaHash, ResultSet rs) throws SQLException {
+        DnaRecord stored = new DnaRecord(dnaHash, rs.getBoolean("is_mutant"));
+        stored.setDnaBases(rs.getBytes("dna_bases"));
+        return stored;
+    }
+}
@@ -4,12 +4,20 @@ import org.example.entity.DnaRecord;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+/**
+ * Lecturas de dna_records. Los inserts van por DnaRecordBatchWriter (lock por hash), no por save():
+ * la tabla no tiene UNIQUE (dna_hash) en PostgreSQL.
+ */
 @Repository
 public interface DnaRecordRepository extends JpaRepository<DnaRecord, Long> {
 
-    Optional<DnaRecord> findByDnaHash(String dnaHash);
+    Optional<DnaRecord> findByDnaHash(byte[] dnaHash);
+
+    List<DnaRecord> findByDnaHashIn(Collection<byte[]> dnaHashes);
 
     long countByIsMutant(boolean isMutant);
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package org.example.repository;
+
+import org.example.entity.DnaStatsRollup;
+import org.example.entity.StatsGranularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DnaStatsRollupRepository extends JpaRepository<DnaStatsRollup, Long> {
+
+    /**
+     * Buckets de una granularidad con inicio en [from, to), en orden.
+     */
+    @Query("SELECT r FROM DnaStatsRollup r WHERE r.granularity = :granularity " +
+            "AND r.bucketStart >= :from AND r.bucketStart < :to ORDER BY r.bucketStart")
+    List<DnaStatsRollup> findBuckets(@Param("granularity") StatsGranularity granularity,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to);
+
+    /**
+     * Suma de todos los buckets de una granularidad, en una sola consulta.
+     */
+    @Query("SELECT COALESCE(SUM(r.mutantCount), 0) AS mutantCount, COALESCE(SUM(r.humanCount), 0) AS humanCount " +
+            "FROM DnaStatsRollup r WHERE r.granularity = :granularity")
+    Totals sumCounts(@Param("granularity") StatsGranularity granularity);
+
+    interface Totals {
+
+        long getMutantCount();
+
+        long getHumanCount();
+    }
+}
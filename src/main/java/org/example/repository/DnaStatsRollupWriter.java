@@ -0,0 +1,68 @@
+package org.example.repository;
+
+import org.example.entity.DnaStatsRollup;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Suma conteos a dna_stats_rollup con JDBC: crea el bucket si no existe y, si existe,
+ * le suma los nuevos conteos en la misma sentencia. Varias instancias pueden sumar
+ * al mismo bucket sin pisarse.
+ *
+ * - PostgreSQL: INSERT ... ON CONFLICT (granularity, bucket_start) DO UPDATE
+ * - H2 / otros: MERGE ... WHEN MATCHED THEN UPDATE / WHEN NOT MATCHED THEN INSERT
+ */
+@Repository
+public class DnaStatsRollupWriter {
+
+    private static final String POSTGRES_UPSERT =
+            "INSERT INTO dna_stats_rollup (granularity, bucket_start, mutant_count, human_count) " +
+                    "VALUES (?, ?, ?, ?) " +
+                    "ON CONFLICT (granularity, bucket_start) DO UPDATE SET " +
+                    "mutant_count = dna_stats_rollup.mutant_count + EXCLUDED.mutant_count, " +
+                    "human_count = dna_stats_rollup.human_count + EXCLUDED.human_count";
+
+    private static final String MERGE_UPSERT =
+            "MERGE INTO dna_stats_rollup t " +
+                    "USING (VALUES (CAST(? AS VARCHAR(8)), CAST(? AS TIMESTAMP), CAST(? AS BIGINT), " +
+                    "CAST(? AS BIGINT))) s (granularity, bucket_start, mutant_count, human_count) " +
+                    "ON t.granularity = s.granularity AND t.bucket_start = s.bucket_start " +
+                    "WHEN MATCHED THEN UPDATE SET " +
+                    "t.mutant_count = t.mutant_count + s.mutant_count, " +
+                    "t.human_count = t.human_count + s.human_count " +
+                    "WHEN NOT MATCHED THEN INSERT (granularity, bucket_start, mutant_count, human_count) " +
+                    "VALUES (s.granularity, s.bucket_start, s.mutant_count, s.human_count)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String upsertSql;
+
+    public DnaStatsRollupWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        this.upsertSql = "PostgreSQL".equalsIgnoreCase(product) ? POSTGRES_UPSERT : MERGE_UPSERT;
+    }
+
+    /**
+     * Suma cada delta a su bucket, en un solo lote y una sola transacción.
+     */
+    @Transactional
+    public void addCounts(List<DnaStatsRollup> deltas) {
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        for (DnaStatsRollup delta : deltas) {
+            rows.add(new Object[]{
+                    delta.getGranularity().name(),
+                    Timestamp.valueOf(delta.getBucketStart()),
+                    delta.getMutantCount(),
+                    delta.getHumanCount()
+            });
+        }
+        jdbcTemplate.batchUpdate(upsertSql, rows);
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.repository;
+
+import org.example.entity.DnaRecordRow;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Equivalente reactivo de DnaRecordRepository (perfil reactive).
+ */
+@Repository
+public interface ReactiveDnaRecordRepository extends R2dbcRepository<DnaRecordRow, Long> {
+
+    Mono<DnaRecordRow> findByDnaHash(byte[] dnaHash);
+
+    Mono<Long> countByIsMutant(boolean isMutant);
+}
@@ -0,0 +1,73 @@
+package org.example.repository;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Inserta un registro por R2DBC ignorando el hash si ya existe (mismo SQL que DnaRecordBatchWriter).
+ *
+ * - PostgreSQL: pg_advisory_xact_lock del hash y INSERT ... WHERE NOT EXISTS, en una
+ *   transacción R2DBC propia (el TransactionManager de la aplicación es el de JPA)
+ * - H2 / otros: MERGE ... WHEN NOT MATCHED THEN INSERT
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveDnaRecordWriter {
+
+    private static final String POSTGRES_LOCK_HASH = "SELECT pg_advisory_xact_lock(:key)";
+
+    private static final String POSTGRES_INSERT =
+            "INSERT INTO dna_records (dna_hash, dna_bases, is_mutant, created_at) " +
+                    "SELECT CAST(:hash AS bytea), CAST(:bases AS bytea), CAST(:mutant AS boolean), " +
+                    "CAST(:createdAt AS timestamp) " +
+                    "WHERE NOT EXISTS (SELECT 1 FROM dna_records WHERE dna_hash = :hash)";
+
+    private static final String MERGE_INSERT =
+            "MERGE INTO dna_records t " +
+                    "USING (VALUES (CAST(:hash AS VARBINARY(32)), CAST(:bases AS VARBINARY), " +
+                    "CAST(:mutant AS BOOLEAN), CAST(:createdAt AS TIMESTAMP))) " +
+                    "s (dna_hash, dna_bases, is_mutant, created_at) ON t.dna_hash = s.dna_hash " +
+                    "WHEN NOT MATCHED THEN INSERT (dna_hash, dna_bases, is_mutant, created_at) " +
+                    "VALUES (s.dna_hash, s.dna_bases, s.is_mutant, s.created_at)";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final boolean postgres;
+
+    public ReactiveDnaRecordWriter(DatabaseClient databaseClient, ConnectionFactory connectionFactory) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+        this.postgres = connectionFactory.getMetadata().getName().toLowerCase().contains("postgres");
+    }
+
+    /**
+     * Retorna true si el registro se insertó, false si el hash ya existía.
+     */
+    public Mono<Boolean> insertIgnoringDuplicate(byte[] dnaHash, byte[] dnaBases, boolean isMutant) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(postgres ? POSTGRES_INSERT : MERGE_INSERT)
+                .bind("hash", dnaHash)
+                .bind("mutant", isMutant)
+                .bind("createdAt", LocalDateTime.now());
+        spec = dnaBases != null ? spec.bind("bases", dnaBases) : spec.bindNull("bases", byte[].class);
+        Mono<Boolean> insert = spec.fetch()
+                .rowsUpdated()
+                .map(rows -> rows > 0);
+
+        if (!postgres) {
+            return insert;
+        }
+        return databaseClient.sql(POSTGRES_LOCK_HASH)
+                .bind("key", DnaRecordBatchWriter.lockKey(dnaHash))
+                .fetch()
+                .rowsUpdated()
+                .then(insert)
+                .as(transactionalOperator::transactional);
+    }
+}
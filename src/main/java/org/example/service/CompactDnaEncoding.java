@@ -0,0 +1,76 @@
+package org.example.service;
+
+import org.example.validation.DnaBases;
+
+/**
+ * ADN completo codificado a 2 bits por base, para comparar contra el registro guardado
+ * cuando se verifica que una huella repetida no sea una colisión.
+ *
+ * Formato: N en 4 bytes (big-endian) y las N*N bases seguidas, 4 por byte.
+ * Para una matriz de 1000x1000 son 250 KB, contra 1 MB del texto.
+ *
+ * N está acotado por {@link #MAX_SIZE}: el buffer se reserva completo con la primera fila
+ * y la columna dna_bases se dimensiona con {@link #MAX_BYTES}. Un ADN más grande no se
+ * codifica ({@link #toByteArray()} retorna null): no se puede verificar, así que se trata
+ * como una colisión y se analiza sin caché ni guardado.
+ */
+public final class CompactDnaEncoding {
+
+    /** N máximo que se puede verificar (dna.fingerprint.verify=true) */
+    public static final int MAX_SIZE = 4096;
+
+    private static final int HEADER_BYTES = 4;
+
+    /** Largo de la codificación de una matriz de MAX_SIZE x MAX_SIZE */
+    public static final int MAX_BYTES = HEADER_BYTES + (MAX_SIZE * MAX_SIZE + 3) / 4;
+
+    private byte[] bytes;
+    private int position;
+    private boolean oversized;
+
+    CompactDnaEncoding() {
+    }
+
+    /**
+     * Agrega una fila ya validada. La primera fila fija N; si supera {@link #MAX_SIZE}
+     * el resto de las filas se ignora.
+     */
+    void appendRow(CharSequence row) {
+        final int n = row.length();
+        if (oversized) {
+            return;
+        }
+        if (bytes == null) {
+            if (n > MAX_SIZE) {
+                oversized = true;
+                return;
+            }
+            bytes = new byte[HEADER_BYTES + (n * n + 3) / 4];
+            bytes[0] = (byte) (n >>> 24);
+            bytes[1] = (byte) (n >>> 16);
+            bytes[2] = (byte) (n >>> 8);
+            bytes[3] = (byte) n;
+        }
+        for (int col = 0; col < n; col++, position++) {
+            bytes[HEADER_BYTES + (position >>> 2)] |= (byte) (DnaBases.code(row.charAt(col)) << ((position & 3) << 1));
+        }
+    }
+
+    /**
+     * ADN codificado, o null si N supera {@link #MAX_SIZE}.
+     */
+    byte[] toByteArray() {
+        return oversized ? null : bytes;
+    }
+
+    /**
+     * ADN codificado, o null si N supera {@link #MAX_SIZE}.
+     */
+    static byte[] encode(String[] dna) {
+        CompactDnaEncoding encoding = new CompactDnaEncoding();
+        for (String row : dna) {
+            encoding.appendRow(row);
+        }
+        return encoding.toByteArray();
+    }
+}
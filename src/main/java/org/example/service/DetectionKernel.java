@@ -0,0 +1,9 @@
+package org.example.service;
+
+/**
+ * Implementación alternativa de la detección secuencial (mismo contrato que MutantDetector.isMutant).
+ */
+interface DetectionKernel {
+
+    boolean isMutant(String[] dna);
+}
@@ -0,0 +1,190 @@
+package org.example.service;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.example.exception.InvalidDetectionRulesException;
+import org.example.validation.ValidDnaSequenceValidator;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Qué cuenta como mutante: secuencias de {@code sequenceLength} bases iguales en las direcciones
+ * habilitadas, con al menos {@code minSequences} secuencias, sobre las bases de {@code alphabet}.
+ *
+ * DEFAULT es la regla original (4 bases, más de una secuencia, A/C/G/T, las 4 direcciones) y
+ * MutantDetector la resuelve con su camino optimizado; cualquier otra regla va por RowDetector.forRules.
+ */
+@Getter
+@EqualsAndHashCode(of = {"sequenceLength", "minSequences", "alphabet", "directions"})
+public final class DetectionRules {
+
+    public static final int MIN_SEQUENCE_LENGTH = 2;
+    public static final int MAX_SEQUENCE_LENGTH = 64;
+    public static final String DEFAULT_ALPHABET = "ACGT";
+
+    public static final DetectionRules DEFAULT =
+            new DetectionRules(4, 2, DEFAULT_ALPHABET, EnumSet.allOf(Direction.class));
+
+    public enum Direction {
+        HORIZONTAL("horizontal"),
+        VERTICAL("vertical"),
+        DIAGONAL("diagonal"),
+        ANTI_DIAGONAL("anti-diagonal");
+
+        private final String value;
+
+        Direction(String value) {
+            this.value = value;
+        }
+
+        public String value() {
+            return value;
+        }
+
+        public static Optional<Direction> fromValue(String value) {
+            return Arrays.stream(values())
+                    .filter(direction -> direction.value.equalsIgnoreCase(value.trim()))
+                    .findFirst();
+        }
+    }
+
+    private final int sequenceLength;
+    private final int minSequences;
+    /** Bases válidas, en orden alfabético: el código de cada base es su posición */
+    private final String alphabet;
+    private final Set<Direction> directions;
+
+    @Getter(AccessLevel.NONE)
+    private final byte[] codes = new byte[128];
+
+    private DetectionRules(int sequenceLength, int minSequences, String alphabet, Set<Direction> directions) {
+        this.sequenceLength = sequenceLength;
+        this.minSequences = minSequences;
+        this.alphabet = alphabet;
+        this.directions = Collections.unmodifiableSet(directions);
+        Arrays.fill(codes, (byte) -1);
+        for (int i = 0; i < alphabet.length(); i++) {
+            codes[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    /**
+     * Valida y normaliza las reglas: el alfabeto se pasa a mayúsculas y se ordena.
+     * Lanza InvalidDetectionRulesException con el primer problema encontrado.
+     */
+    public static DetectionRules of(int sequenceLength, int minSequences, String alphabet,
+                                    Collection<String> directions) {
+        if (sequenceLength < MIN_SEQUENCE_LENGTH || sequenceLength > MAX_SEQUENCE_LENGTH) {
+            throw new InvalidDetectionRulesException("sequence_length: must be between "
+                    + MIN_SEQUENCE_LENGTH + " and " + MAX_SEQUENCE_LENGTH);
+        }
+        if (minSequences < 1) {
+            throw new InvalidDetectionRulesException("min_sequences: must be at least 1");
+        }
+        return new DetectionRules(sequenceLength, minSequences, normalizeAlphabet(alphabet),
+                parseDirections(directions));
+    }
+
+    /**
+     * Estas reglas con los campos no nulos reemplazados (p. ej. las de un request sobre las del despliegue).
+     */
+    public DetectionRules override(Integer sequenceLength, Integer minSequences, String alphabet,
+                                   Collection<String> directions) {
+        return of(sequenceLength != null ? sequenceLength : this.sequenceLength,
+                minSequences != null ? minSequences : this.minSequences,
+                alphabet != null ? alphabet : this.alphabet,
+                directions != null
+                        ? directions
+                        : this.directions.stream().map(Direction::value).toList());
+    }
+
+    public boolean isDefault() {
+        return equals(DEFAULT);
+    }
+
+    public boolean has(Direction direction) {
+        return directions.contains(direction);
+    }
+
+    /**
+     * Código de la base (su posición en el alfabeto) o -1 si no es válida.
+     */
+    public int code(char c) {
+        return c < codes.length ? codes[c] : -1;
+    }
+
+    /**
+     * Verifica que la fila tenga largo {@code n} y solo contenga bases del alfabeto.
+     */
+    public boolean isValidRow(CharSequence row, int n) {
+        if (row == null || row.length() != n) {
+            return false;
+        }
+        for (int col = 0; col < n; col++) {
+            if (code(row.charAt(col)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Misma validación que ValidDnaSequenceValidator (NxN, mínimo 4x4) con este alfabeto.
+     */
+    public boolean isValidDna(String[] dna) {
+        if (dna == null || dna.length < ValidDnaSequenceValidator.MIN_SIZE) {
+            return false;
+        }
+        for (String row : dna) {
+            if (!isValidRow(row, dna.length)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String normalizeAlphabet(String alphabet) {
+        if (alphabet == null || alphabet.isBlank()) {
+            throw new InvalidDetectionRulesException("alphabet: must not be empty");
+        }
+        final String upper = alphabet.trim().toUpperCase(Locale.ROOT);
+        final int[] sorted = upper.chars().sorted().toArray();
+        for (int i = 0; i < sorted.length; i++) {
+            if (sorted[i] < 'A' || sorted[i] > 'Z') {
+                throw new InvalidDetectionRulesException("alphabet: only letters A-Z are allowed");
+            }
+            if (i > 0 && sorted[i] == sorted[i - 1]) {
+                throw new InvalidDetectionRulesException("alphabet: repeated base " + (char) sorted[i]);
+            }
+        }
+        return new String(sorted, 0, sorted.length);
+    }
+
+    private static Set<Direction> parseDirections(Collection<String> values) {
+        if (values == null || values.isEmpty()) {
+            throw new InvalidDetectionRulesException("directions: at least one direction is required");
+        }
+        Set<Direction> directions = EnumSet.noneOf(Direction.class);
+        for (String value : values) {
+            directions.add(Direction.fromValue(value == null ? "" : value).orElseThrow(() ->
+                    new InvalidDetectionRulesException("directions: must be any of " + Arrays.stream(Direction.values())
+                            .map(Direction::value)
+                            .collect(Collectors.joining(", ")))));
+        }
+        return directions;
+    }
+
+    @Override
+    public String toString() {
+        return "DetectionRules[sequenceLength=" + sequenceLength + ", minSequences=" + minSequences
+                + ", alphabet=" + alphabet + ", directions=" + directions + "]";
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Resultado de analizar un ADN mientras se lee: huella del ADN completo y si es mutante.
+ *
+ * dnaBases (ADN codificado a 2 bits) solo viene cargado con dna.fingerprint.verify=true
+ * y N hasta CompactDnaEncoding.MAX_SIZE.
+ */
+@Getter
+@AllArgsConstructor
+public class DnaAnalysis {
+
+    private final byte[] dnaHash;
+    private final boolean mutant;
+    private final int size;
+    private final byte[] dnaBases;
+
+    public DnaAnalysis(byte[] dnaHash, boolean mutant, int size) {
+        this(dnaHash, mutant, size, null);
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.service;
+
+/**
+ * Huella (fingerprint) de un ADN: la clave con la que se deduplica en caché y en BD.
+ *
+ * Se calcula en streaming, fila por fila, sin concatenar la matriz en un String.
+ * Las filas llegan ya validadas (solo A, T, C, G).
+ *
+ * Implementaciones (propiedad dna.fingerprint.algorithm):
+ * - sha256: SHA-256 del ADN concatenado (32 bytes, compatible con los registros existentes)
+ * - murmur3: Murmur3 x64 128 bits sobre los mismos bytes (16 bytes, no criptográfico)
+ * - packed: Murmur3 x64 128 bits sobre la codificación de 2 bits por base (16 bytes)
+ */
+public interface DnaFingerprinter {
+
+    /**
+     * Nombre del algoritmo, tal como se configura.
+     */
+    String algorithm();
+
+    /**
+     * Largo de la huella en bytes (el doble en caracteres hexadecimales).
+     */
+    int hashLength();
+
+    /**
+     * Abre un cálculo incremental. Cada sesión se usa desde un solo hilo.
+     */
+    Session newSession();
+
+    /**
+     * Calcula la huella de un ADN completo.
+     */
+    default byte[] fingerprint(String[] dna) {
+        Session session = newSession();
+        for (String row : dna) {
+            session.updateRow(row);
+        }
+        return session.finish();
+    }
+
+    interface Session {
+
+        void updateRow(CharSequence row);
+
+        byte[] finish();
+    }
+}
@@ -0,0 +1,266 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtro Bloom de los hashes guardados en dna_records, delante de findByDnaHash.
+ *
+ * Si el filtro dice que el hash no está, seguro no está: el ADN nuevo se analiza y se guarda
+ * sin la consulta previa a la BD. Si dice que puede estar, se consulta como siempre.
+ *
+ * - Se arma al arrancar leyendo dna_records.dna_hash en streaming (fetch size acotado).
+ *   Hasta terminar responde "puede estar" para todo, así que nunca da falsos negativos.
+ * - Se actualiza en cada insert de esta instancia. Los inserts de otras instancias no se ven:
+ *   ese ADN se vuelve a analizar y el insert-or-get retorna el resultado ya guardado.
+ * - Snapshot opcional: al cerrar se guardan los bits y el último id leído; al arrancar se
+ *   cargan y solo se leen las filas con id mayor.
+ *
+ * Las posiciones salen de la propia huella (ya es uniforme): h1 y h2 son sus primeros 16 bytes
+ * y el bit i es {@code h1 + i * h2} (Kirsch-Mitzenmacher).
+ */
+@Slf4j
+@Component
+public class DnaHashBloomFilter implements MeterBinder {
+
+    private static final int SNAPSHOT_MAGIC = 0x444E4142; // "DNAB"
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int FETCH_SIZE = 10_000;
+    private static final int MIN_HASH_BYTES = 16;
+
+    private static final String SELECT_HASHES = "SELECT id, dna_hash FROM dna_records WHERE id > ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final boolean enabled;
+    private final Path snapshotPath;
+    private final long numBits;
+    private final int numHashes;
+    private final AtomicLongArray bits;
+
+    private final LongAdder skippedLookups = new LongAdder();
+    private volatile boolean ready;
+    private volatile long loadedUpToId;
+
+    public DnaHashBloomFilter(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${dna.bloom.enabled:false}") boolean enabled,
+            @Value("${dna.bloom.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${dna.bloom.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${dna.bloom.snapshot-path:}") String snapshotPath) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionManager = transactionManager;
+        this.enabled = enabled;
+        this.snapshotPath = snapshotPath == null || snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+
+        // m = -n ln(p) / ln(2)^2, k = m/n ln(2)
+        final long n = Math.max(1, expectedInsertions);
+        final long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.numBits = Math.max(Long.SIZE, (m + Long.SIZE - 1) / Long.SIZE * Long.SIZE);
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / n * Math.log(2)));
+        this.bits = new AtomicLongArray(enabled ? (int) (numBits / Long.SIZE) : 0);
+    }
+
+    /**
+     * false solo si el hash seguro no está guardado. Deshabilitado o sin cargar retorna true.
+     */
+    public boolean mightContain(byte[] dnaHash) {
+        if (!ready || dnaHash.length < MIN_HASH_BYTES) {
+            return true;
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(dnaHash);
+        final long h1 = buffer.getLong(0);
+        final long h2 = buffer.getLong(8);
+        for (int i = 0; i < numHashes; i++) {
+            final long bit = Math.floorMod(h1 + i * h2, numBits);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                skippedLookups.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Agrega un hash guardado (o a punto de guardarse).
+     */
+    public void put(byte[] dnaHash) {
+        if (!enabled || dnaHash.length < MIN_HASH_BYTES) {
+            return;
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(dnaHash);
+        final long h1 = buffer.getLong(0);
+        final long h2 = buffer.getLong(8);
+        for (int i = 0; i < numHashes; i++) {
+            final long bit = Math.floorMod(h1 + i * h2, numBits);
+            final long mask = 1L << bit;
+            final int word = (int) (bit >>> 6);
+            if ((bits.get(word) & mask) == 0) {
+                bits.getAndAccumulate(word, mask, (current, m) -> current | m);
+            }
+        }
+    }
+
+    /**
+     * Vacía el filtro (p. ej. después de /admin/clear). Sigue listo: la tabla quedó vacía.
+     */
+    public void clear() {
+        for (int i = 0; i < bits.length(); i++) {
+            bits.set(i, 0L);
+        }
+    }
+
+    /**
+     * Carga el filtro una vez que la aplicación está atendiendo: primero el snapshot (si hay)
+     * y después las filas posteriores a él. Si falla queda sin cargar (consulta siempre la BD).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        final long startTime = System.nanoTime();
+        try {
+            final long fromId = snapshotPath != null ? readSnapshot(snapshotPath) : 0L;
+            final long[] rows = {0L};
+            final long[] maxId = {fromId};
+
+            // En PostgreSQL el cursor (fetch size) solo se usa dentro de una transacción
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    jdbcTemplate.query(connection -> {
+                        PreparedStatement statement = connection.prepareStatement(SELECT_HASHES);
+                        statement.setFetchSize(FETCH_SIZE);
+                        statement.setLong(1, fromId);
+                        return statement;
+                    }, (RowCallbackHandler) rs -> {
+                        put(rs.getBytes(2));
+                        maxId[0] = Math.max(maxId[0], rs.getLong(1));
+                        rows[0]++;
+                    }));
+
+            loadedUpToId = maxId[0];
+            ready = true;
+            log.info("DNA hash Bloom filter loaded: {} rows after id {}, {} bits, {} hash functions, {} ms",
+                    rows[0], fromId, numBits, numHashes, (System.nanoTime() - startTime) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("DNA hash Bloom filter not loaded, every lookup goes to the database", e);
+        }
+    }
+
+    @PreDestroy
+    void saveSnapshot() {
+        if (!ready || snapshotPath == null) {
+            return;
+        }
+        try {
+            writeSnapshot(snapshotPath);
+        } catch (IOException e) {
+            log.warn("Could not write DNA hash Bloom filter snapshot to {}", snapshotPath, e);
+        }
+    }
+
+    /**
+     * Escribe bits y último id leído. Se escribe en un temporal y se mueve, para no dejar
+     * un snapshot a medias si el proceso muere.
+     */
+    void writeSnapshot(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(numBits);
+            out.writeInt(numHashes);
+            out.writeLong(loadedUpToId);
+            for (int i = 0; i < bits.length(); i++) {
+                out.writeLong(bits.get(i));
+            }
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Carga un snapshot y retorna el último id que cubre, o 0 si no existe o fue escrito
+     * con otro tamaño (en ese caso se relee la tabla completa).
+     */
+    long readSnapshot(Path path) {
+        if (!Files.isReadable(path)) {
+            return 0L;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION
+                    || in.readLong() != numBits || in.readInt() != numHashes) {
+                log.info("Ignoring DNA hash Bloom filter snapshot {}: different format or size", path);
+                return 0L;
+            }
+            final long upToId = in.readLong();
+            for (int i = 0; i < bits.length(); i++) {
+                bits.set(i, bits.get(i) | in.readLong());
+            }
+            return upToId;
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable DNA hash Bloom filter snapshot {}", path, e);
+            clear();
+            return 0L;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long bitCount() {
+        return numBits;
+    }
+
+    public int hashFunctionCount() {
+        return numHashes;
+    }
+
+    /**
+     * Consultas a la BD evitadas (hash seguro no guardado).
+     */
+    public long skippedLookupCount() {
+        return skippedLookups.sum();
+    }
+
+    /**
+     * Publica las consultas evitadas (dna.bloom.skipped.lookups).
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("dna.bloom.skipped.lookups", skippedLookups, LongAdder::sum)
+                .description("Consultas a la BD evitadas por el filtro Bloom")
+                .register(registry);
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Agrupa los requests concurrentes del mismo ADN (misma huella) en un solo cálculo.
+ *
+ * El primero en llegar ejecuta la búsqueda, la detección y el guardado; los que llegan
+ * mientras tanto esperan su resultado en lugar de repetir el trabajo. La entrada se quita
+ * al terminar, así que solo agrupa requests simultáneos (el resultado queda en el caché).
+ *
+ * Métricas (en /admin/status y Micrometer): cálculos ejecutados (dna.inflight.computations),
+ * requests que esperaron uno ajeno (dna.inflight.coalesced) y huellas en curso (dna.inflight.size).
+ */
+@Component
+public class DnaInFlightRequests implements MeterBinder {
+
+    private final ConcurrentHashMap<ByteBuffer, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder computations = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Ejecuta {@code computation} para la huella, o espera el resultado si ya hay
+     * un request en curso con la misma. Si el cálculo falla, todos reciben la excepción.
+     */
+    public boolean execute(byte[] dnaHash, BooleanSupplier computation) {
+        final ByteBuffer key = ByteBuffer.wrap(dnaHash);
+        final CompletableFuture<Boolean> own = new CompletableFuture<>();
+
+        CompletableFuture<Boolean> existing = inFlight.putIfAbsent(key, own);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        computations.increment();
+        try {
+            boolean result = computation.getAsBoolean();
+            own.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("dna.inflight.computations", computations, LongAdder::sum)
+                .description("Cálculos ejecutados por el primer request de cada huella")
+                .register(registry);
+        FunctionCounter.builder("dna.inflight.coalesced", coalesced, LongAdder::sum)
+                .description("Requests que recibieron el resultado de otro en lugar de calcularlo")
+                .register(registry);
+        Gauge.builder("dna.inflight.size", inFlight, ConcurrentHashMap::size)
+                .description("Huellas con un cálculo en curso")
+                .register(registry);
+    }
+
+    /**
+     * Huellas con un cálculo en curso en este momento.
+     */
+    public int size() {
+        return inFlight.size();
+    }
+
+    public long computationCount() {
+        return computations.sum();
+    }
+
+    /**
+     * Requests que recibieron el resultado de otro en lugar de calcularlo.
+     */
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    private static boolean await(CompletableFuture<Boolean> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas del camino caliente de /mutant (Micrometer, expuestas en /actuator/prometheus).
+ *
+ * - dna.analyze.phase{phase=hash|cache|lookup|detect|save}: duración de cada fase de analyzeDna
+ *   (con write-behind, save solo mide el encolado: el insert se mide en dna.persist.batch)
+ * - dna.results{type=mutant|human}: resultados entregados (incluye los que salen del caché)
+ * - dna.matrix.size: N de los ADN recibidos
+ * - dna.detection.early.termination: % de filas recorridas al encontrar la segunda secuencia
+ *   (escaneo secuencial de MutantDetector, packed o run-length; el vectorial y el paralelo no informan la fila)
+ * - dna.persist.batch{source=write_behind|batch, outcome=success|failure}: duración de cada
+ *   insertIgnoringDuplicates (lotes de write-behind y de /mutant/batch) y dna.persist.batch.size
+ *
+ * Los hits y misses del caché los publica DnaResultCache (cache.gets), los contadores
+ * de /stats StatsService (dna.stats.count), la cola DnaWriteBehindQueue (dna.write_behind.*),
+ * los requests agrupados DnaInFlightRequests (dna.inflight.*) y las consultas evitadas por
+ * el filtro Bloom DnaHashBloomFilter (dna.bloom.skipped.lookups).
+ */
+@Component
+public class DnaMetrics {
+
+    public enum Phase {
+        HASH, CACHE, LOOKUP, DETECT, SAVE
+    }
+
+    public enum BatchSource {
+        WRITE_BEHIND, BATCH
+    }
+
+    private final Map<Phase, Timer> phaseTimers = new EnumMap<>(Phase.class);
+    private final Counter mutantResults;
+    private final Counter humanResults;
+    private final DistributionSummary matrixSize;
+    private final DistributionSummary earlyTermination;
+    private final Map<BatchSource, Timer> batchInserts = new EnumMap<>(BatchSource.class);
+    private final Map<BatchSource, Timer> failedBatchInserts = new EnumMap<>(BatchSource.class);
+    private final DistributionSummary batchSize;
+
+    public DnaMetrics(MeterRegistry registry) {
+        for (Phase phase : Phase.values()) {
+            phaseTimers.put(phase, Timer.builder("dna.analyze.phase")
+                    .description("Duración de cada fase del análisis de un ADN")
+                    .tag("phase", phase.name().toLowerCase(Locale.ROOT))
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(500))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(registry));
+        }
+        this.mutantResults = Counter.builder("dna.results")
+                .description("ADN verificados por resultado")
+                .tag("type", "mutant")
+                .register(registry);
+        this.humanResults = Counter.builder("dna.results")
+                .description("ADN verificados por resultado")
+                .tag("type", "human")
+                .register(registry);
+        this.matrixSize = DistributionSummary.builder("dna.matrix.size")
+                .description("Tamaño N de la matriz NxN recibida")
+                .serviceLevelObjectives(6, 16, 32, 64, 128, 256, 512, 1024, 2048, 4096)
+                .register(registry);
+        this.earlyTermination = DistributionSummary.builder("dna.detection.early.termination")
+                .description("Porcentaje de filas recorridas al encontrar la segunda secuencia")
+                .baseUnit("percent")
+                .serviceLevelObjectives(10, 25, 50, 75, 100)
+                .register(registry);
+        for (BatchSource source : BatchSource.values()) {
+            batchInserts.put(source, batchTimer(registry, source, "success"));
+            failedBatchInserts.put(source, batchTimer(registry, source, "failure"));
+        }
+        this.batchSize = DistributionSummary.builder("dna.persist.batch.size")
+                .description("Registros por insert en lote")
+                .serviceLevelObjectives(1, 10, 50, 100, 500, 1000, 10_000)
+                .register(registry);
+    }
+
+    /**
+     * Métricas sin registro detrás (para instancias creadas fuera de Spring).
+     */
+    public static DnaMetrics noop() {
+        return new DnaMetrics(new CompositeMeterRegistry());
+    }
+
+    /**
+     * Registra la duración de una fase que empezó en {@code startNanos} (System.nanoTime()).
+     */
+    public void recordPhase(Phase phase, long startNanos) {
+        phaseTimers.get(phase).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordResult(boolean isMutant) {
+        (isMutant ? mutantResults : humanResults).increment();
+    }
+
+    public void recordMatrixSize(int n) {
+        matrixSize.record(n);
+    }
+
+    /**
+     * Registra un insert en lote que empezó en {@code startNanos}, haya terminado bien o no.
+     */
+    public void recordBatchInsert(BatchSource source, int records, boolean success, long startNanos) {
+        (success ? batchInserts : failedBatchInserts).get(source)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        batchSize.record(records);
+    }
+
+    private static Timer batchTimer(MeterRegistry registry, BatchSource source, String outcome) {
+        return Timer.builder("dna.persist.batch")
+                .description("Duración de cada insert en lote de DnaRecordBatchWriter")
+                .tag("source", source.name().toLowerCase(Locale.ROOT))
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(500))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry);
+    }
+
+    /**
+     * @param rowsScanned filas codificadas hasta encontrar la segunda secuencia
+     */
+    public void recordEarlyTermination(int rowsScanned, int n) {
+        earlyTermination.record(100.0 * rowsScanned / n);
+    }
+}
@@ -0,0 +1,244 @@
+package org.example.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Mantenimiento de las particiones mensuales de dna_records (PostgreSQL, ver V5__partition_dna_records.sql).
+ *
+ * Cada check-interval:
+ * - Crea las particiones de los próximos premake-months meses, para que ningún insert caiga en la DEFAULT.
+ * - Elimina con DROP TABLE las particiones que terminan antes de keep-months meses atrás
+ *   (sin DELETE: no deja filas muertas ni índices inflados). Antes guarda sus conteos en
+ *   dna_records_archive, en la misma transacción. /stats sigue contando esos registros:
+ *   sale de dna_stats_rollup, que no se toca.
+ *
+ * Con varias instancias solo una hace cada paso: pg_try_advisory_xact_lock con una clave fija.
+ *
+ * La deduplicación por hash dura lo que la retención. Los hashes eliminados pueden seguir en el
+ * caché; si el ADN vuelve y ya no está ahí, se guarda de nuevo y /stats lo cuenta otra vez.
+ */
+@Slf4j
+@Component
+public class DnaRecordRetention {
+
+    private static final long MAINTENANCE_LOCK_KEY = 0x444E4152L; // "DNAR"
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Pattern RANGE_END = Pattern.compile("TO \\('([^']+)'\\)");
+
+    private static final String IS_PARTITIONED =
+            "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('dna_records'))";
+
+    private static final String TRY_LOCK = "SELECT pg_try_advisory_xact_lock(?)";
+
+    private static final String SELECT_PARTITIONS =
+            "SELECT c.relname AS name, pg_get_expr(c.relpartbound, c.oid) AS bound " +
+                    "FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                    "WHERE i.inhparent = 'dna_records'::regclass";
+
+    private static final String INSERT_ARCHIVE =
+            "INSERT INTO dna_records_archive (partition_name, range_end, mutant_count, human_count, dropped_at) " +
+                    "VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int keepMonths;
+    private final int premakeMonths;
+    private final Duration checkInterval;
+
+    private final AtomicLong droppedPartitions = new AtomicLong();
+    private final AtomicLong archivedRecords = new AtomicLong();
+
+    private ScheduledExecutorService scheduler;
+
+    public DnaRecordRetention(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${dna.retention.enabled:false}") boolean enabled,
+            @Value("${dna.retention.keep-months:12}") int keepMonths,
+            @Value("${dna.retention.premake-months:3}") int premakeMonths,
+            @Value("${dna.retention.check-interval:1h}") Duration checkInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.keepMonths = Math.max(1, keepMonths);
+        this.premakeMonths = Math.max(1, premakeMonths);
+        this.checkInterval = checkInterval;
+    }
+
+    /**
+     * Arranca el job si está habilitado y dna_records está particionada (PostgreSQL con V5 aplicada).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equalsIgnoreCase(product)
+                || !Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_PARTITIONED, Boolean.class))) {
+            log.info("DNA record retention disabled: dna_records is not a partitioned PostgreSQL table");
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dna-retention");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::runQuietly, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void runQuietly() {
+        try {
+            run(LocalDate.now());
+        } catch (RuntimeException e) {
+            log.warn("DNA record retention run failed", e);
+        }
+    }
+
+    /**
+     * Un paso de mantenimiento: crea las particiones que faltan y elimina las vencidas.
+     * Cada partición va en su propia transacción, así el lock sobre dna_records dura poco.
+     */
+    void run(LocalDate today) {
+        LocalDate month = today.withDayOfMonth(1);
+        for (int i = 0; i <= premakeMonths; i++) {
+            createPartition(month.plusMonths(i));
+        }
+
+        LocalDateTime cutoff = retentionCutoff(today, keepMonths);
+        for (Map.Entry<String, LocalDateTime> partition : listPartitionEnds().entrySet()) {
+            if (!partition.getValue().isAfter(cutoff)) {
+                dropPartition(partition.getKey(), partition.getValue());
+            }
+        }
+    }
+
+    private void createPartition(LocalDate monthStart) {
+        String name = "dna_records_p" + PARTITION_SUFFIX.format(monthStart);
+        String sql = "CREATE TABLE IF NOT EXISTS " + quoteIdentifier(name) + " PARTITION OF dna_records " +
+                "FOR VALUES FROM ('" + monthStart.atStartOfDay() + "') TO ('" + monthStart.plusMonths(1).atStartOfDay() + "')";
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (tryLock()) {
+                    jdbcTemplate.execute(sql);
+                }
+            });
+        } catch (RuntimeException e) {
+            // P. ej. la DEFAULT ya tiene filas de ese mes: los inserts siguen yendo a la DEFAULT
+            log.warn("Could not create partition {}", name, e);
+        }
+    }
+
+    private void dropPartition(String name, LocalDateTime rangeEnd) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!tryLock() || !listPartitionEnds().containsKey(name)) {
+                return; // Otra instancia la está eliminando o ya la eliminó
+            }
+
+            long[] counts = {0L, 0L};
+            jdbcTemplate.query("SELECT is_mutant, count(*) FROM " + quoteIdentifier(name) + " GROUP BY is_mutant",
+                    (RowCallbackHandler) rs -> counts[rs.getBoolean(1) ? 0 : 1] = rs.getLong(2));
+            jdbcTemplate.update(INSERT_ARCHIVE, name, Timestamp.valueOf(rangeEnd), counts[0], counts[1],
+                    Timestamp.valueOf(LocalDateTime.now()));
+            jdbcTemplate.execute("DROP TABLE " + quoteIdentifier(name));
+
+            droppedPartitions.incrementAndGet();
+            archivedRecords.addAndGet(counts[0] + counts[1]);
+            log.info("Dropped partition {} (up to {}): {} mutant and {} human records archived",
+                    name, rangeEnd, counts[0], counts[1]);
+        });
+    }
+
+    private boolean tryLock() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(TRY_LOCK, Boolean.class, MAINTENANCE_LOCK_KEY));
+    }
+
+    /**
+     * Particiones con su límite superior (exclusivo). La DEFAULT no tiene límite y no se incluye.
+     */
+    private Map<String, LocalDateTime> listPartitionEnds() {
+        Map<String, LocalDateTime> partitions = new LinkedHashMap<>();
+        jdbcTemplate.query(SELECT_PARTITIONS, (RowCallbackHandler) rs -> {
+            LocalDateTime end = rangeEnd(rs.getString("bound"));
+            if (end != null) {
+                partitions.put(rs.getString("name"), end);
+            }
+        });
+        return partitions;
+    }
+
+    /**
+     * Límite superior de una partición a partir de pg_get_expr(relpartbound), p. ej.
+     * {@code FOR VALUES FROM ('2024-01-01 00:00:00') TO ('2024-02-01 00:00:00')}.
+     * Retorna null para la DEFAULT o un límite MAXVALUE.
+     */
+    static LocalDateTime rangeEnd(String bound) {
+        if (bound == null) {
+            return null;
+        }
+        Matcher matcher = RANGE_END.matcher(bound);
+        return matcher.find() ? LocalDateTime.parse(matcher.group(1).replace(' ', 'T')) : null;
+    }
+
+    /**
+     * Se eliminan las particiones que terminan en o antes del inicio del mes de hace keepMonths meses:
+     * con keepMonths=12 y hoy 2024-06-15, todo lo anterior a 2023-06-01.
+     */
+    static LocalDateTime retentionCutoff(LocalDate today, int keepMonths) {
+        return today.withDayOfMonth(1).minusMonths(keepMonths).atStartOfDay();
+    }
+
+    private static String quoteIdentifier(String name) {
+        return '"' + name.replace("\"", "\"\"") + '"';
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return scheduler != null;
+    }
+
+    public int keepMonths() {
+        return keepMonths;
+    }
+
+    public long droppedPartitionCount() {
+        return droppedPartitions.get();
+    }
+
+    public long archivedRecordCount() {
+        return archivedRecords.get();
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+
+/**
+ * Caché en memoria de resultados por hash de ADN, delante de la BD.
+ *
+ * Usa Caffeine (admisión W-TinyLFU): el ADN que se repite mucho se queda en memoria
+ * y el que aparece una sola vez no desplaza a los resultados calientes.
+ * Acotado por cantidad de entradas y con expiración por TTL.
+ *
+ * La clave es el hash binario envuelto en ByteBuffer (equals/hashCode por contenido).
+ * Hits, misses y evictions se publican como cache.gets / cache.evictions{cache=dna-results}.
+ */
+@Component
+public class DnaResultCache implements MeterBinder {
+
+    private final Cache<ByteBuffer, Boolean> cache;
+
+    public DnaResultCache(
+            @Value("${dna.cache.max-entries:50000}") long maxEntries,
+            @Value("${dna.cache.ttl:1h}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Retorna el resultado cacheado o null si el hash no está en memoria.
+     */
+    public Boolean get(byte[] dnaHash) {
+        return cache.getIfPresent(ByteBuffer.wrap(dnaHash));
+    }
+
+    public void put(byte[] dnaHash, boolean isMutant) {
+        cache.put(ByteBuffer.wrap(dnaHash), isMutant);
+    }
+
+    public void invalidate(byte[] dnaHash) {
+        cache.invalidate(ByteBuffer.wrap(dnaHash));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "dna-results");
+    }
+
+    /**
+     * Contadores de hits, misses y evictions desde el arranque.
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lee las filas de un ADN desde un canal de bytes: una fila por línea, en ASCII
+ * ({@code \n} o {@code \r\n}; el salto de línea final es opcional).
+ *
+ * Solo guarda la fila actual: cada next() devuelve la misma vista, válida hasta la
+ * siguiente llamada. Un error de lectura sale como UncheckedIOException.
+ * El canal debe ser bloqueante (un read que retorna 0 se reintenta).
+ */
+final class DnaRowReader implements Iterator<CharSequence> {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final AsciiRow row = new AsciiRow();
+
+    private boolean ready;
+    private boolean endOfStream;
+
+    DnaRowReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        this.buffer.flip();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!ready) {
+            ready = readRow();
+        }
+        return ready;
+    }
+
+    @Override
+    public CharSequence next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        ready = false;
+        return row;
+    }
+
+    /**
+     * Carga la próxima línea en {@code row}. Retorna false si el canal ya no tiene datos.
+     */
+    private boolean readRow() {
+        row.clear();
+        boolean started = false;
+        while (true) {
+            if (!buffer.hasRemaining() && !fill()) {
+                return started; // Última fila sin salto de línea
+            }
+            final byte b = buffer.get();
+            if (b == '\n') {
+                return true;
+            }
+            if (b != '\r') {
+                row.append(b);
+            }
+            started = true;
+        }
+    }
+
+    private boolean fill() {
+        if (endOfStream) {
+            return false;
+        }
+        try {
+            buffer.clear();
+            int read;
+            do {
+                read = channel.read(buffer);
+            } while (read == 0);
+            buffer.flip();
+            endOfStream = read < 0;
+            return !endOfStream;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Fila en bytes ASCII vista como CharSequence, sin crear un String por fila.
+     */
+    private static final class AsciiRow implements CharSequence {
+
+        private byte[] bytes = new byte[256];
+        private int length;
+
+        void clear() {
+            length = 0;
+        }
+
+        void append(byte b) {
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            bytes[length++] = b;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index >= length) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return (char) (bytes[index] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().substring(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return new String(bytes, 0, length, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
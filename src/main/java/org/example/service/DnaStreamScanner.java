@@ -0,0 +1,89 @@
+package org.example.service;
+
+import org.example.exception.InvalidDnaException;
+import org.example.validation.ValidDnaSequenceValidator;
+
+/**
+ * Analiza un ADN fila por fila, a medida que llega.
+ *
+ * Cada fila se valida, pasa al RowDetector de las reglas (con la regla por defecto, una
+ * ventana empaquetada de las últimas 4 filas) y se agrega a la huella. Las filas no se
+ * guardan como String y la detección ocupa O(N) memoria (con keepBases se guarda además
+ * el ADN codificado completo).
+ *
+ * Al encontrar las secuencias necesarias deja de codificar y detectar: el resto de las filas
+ * solo se valida y se agrega a la huella (hace falta el ADN completo para el caché en BD).
+ */
+public class DnaStreamScanner {
+
+    private final DnaFingerprinter.Session fingerprint;
+    private final CompactDnaEncoding bases;
+    private final DetectionRules rules;
+
+    private RowDetector detector;
+    private int n = -1;
+    private int rows;
+
+    public DnaStreamScanner() {
+        this(new Sha256DnaFingerprinter(), false);
+    }
+
+    public DnaStreamScanner(DnaFingerprinter fingerprinter, boolean keepBases) {
+        this(fingerprinter, keepBases, DetectionRules.DEFAULT);
+    }
+
+    /**
+     * @param keepBases guardar también el ADN codificado, para verificar colisiones de huella
+     * @param rules     reglas del despliegue (las mismas de MutantDetector)
+     */
+    public DnaStreamScanner(DnaFingerprinter fingerprinter, boolean keepBases, DetectionRules rules) {
+        this.fingerprint = fingerprinter.newSession();
+        this.bases = keepBases ? new CompactDnaEncoding() : null;
+        this.rules = rules;
+    }
+
+    /**
+     * Procesa la siguiente fila. Lanza InvalidDnaException en el primer problema:
+     * largo distinto de N, más de N filas o carácter fuera de A, T, C, G.
+     */
+    public void acceptRow(CharSequence row) {
+        if (row == null) {
+            throw new InvalidDnaException();
+        }
+        if (n < 0) {
+            start(row.length());
+        }
+        if (rows >= n) {
+            throw new InvalidDnaException(); // Más filas que columnas
+        }
+
+        if (!detector.acceptRow(rows, row)) {
+            throw new InvalidDnaException();
+        }
+
+        fingerprint.updateRow(row);
+        if (bases != null) {
+            bases.appendRow(row);
+        }
+        rows++;
+    }
+
+    /**
+     * Termina el análisis. Falla si la matriz no quedó cuadrada.
+     */
+    public DnaAnalysis finish() {
+        if (n < 0 || rows != n) {
+            throw new InvalidDnaException();
+        }
+        return new DnaAnalysis(fingerprint.finish(), detector.isMutant(), n,
+                bases != null ? bases.toByteArray() : null);
+    }
+
+    private void start(int size) {
+        if (size < ValidDnaSequenceValidator.MIN_SIZE) {
+            throw new InvalidDnaException();
+        }
+        this.n = size;
+        this.detector = RowDetector.forRules(rules, size);
+    }
+}
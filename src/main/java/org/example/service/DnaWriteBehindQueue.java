@@ -0,0 +1,320 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.entity.DnaRecord;
+import org.example.repository.DnaRecordBatchWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Persistencia write-behind de los DnaRecord nuevos.
+ *
+ * El request encola el registro y responde; un hilo aparte los junta y los inserta
+ * en lote cuando se llena el batch o vence el intervalo de flush.
+ *
+ * - Back-pressure: si la cola está llena el request espera hasta offer-timeout;
+ *   si sigue llena, offer() retorna false y el llamador guarda de forma sincrónica.
+ * - Fallas de la BD: el lote que no se pudo guardar se reintenta con backoff exponencial
+ *   (de 100ms a 5s) sin juntar registros nuevos; mientras tanto la cola se llena y offer()
+ *   aplica back-pressure, así que una caída corta no pierde registros.
+ * - Shutdown: al cerrar la aplicación se vacía la cola antes de liberar la BD. offer() encola
+ *   con el read lock y stop() deja de aceptar con el write lock: ningún registro entra a la
+ *   cola después del último drenado. Después de stop() cada lote tiene MAX_SHUTDOWN_ATTEMPTS
+ *   intentos; si se descarta, sus hashes salen del caché en memoria para que el próximo
+ *   request los vuelva a guardar.
+ *
+ * Métricas: dna.write_behind.pending (registros en cola), dna.write_behind.records{outcome=...}
+ * y la duración de cada intento de flush en dna.persist.batch{source=write_behind} (DnaMetrics).
+ */
+@Slf4j
+@Component
+public class DnaWriteBehindQueue implements MeterBinder {
+
+    private static final int MAX_SHUTDOWN_ATTEMPTS = 3;
+    private static final Duration INITIAL_RETRY_BACKOFF = Duration.ofMillis(100);
+    private static final Duration MAX_RETRY_BACKOFF = Duration.ofSeconds(5);
+
+    private final DnaRecordBatchWriter batchWriter;
+    private final StatsService statsService;
+    private final DnaResultCache dnaResultCache;
+    private final DnaMetrics dnaMetrics;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Duration offerTimeout;
+    private final Duration shutdownTimeout;
+    private final BlockingQueue<DnaRecord> queue;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong inserted = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private final ReadWriteLock stateLock = new ReentrantReadWriteLock();
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public DnaWriteBehindQueue(
+            DnaRecordBatchWriter batchWriter,
+            StatsService statsService,
+            DnaResultCache dnaResultCache,
+            DnaMetrics dnaMetrics,
+            @Value("${dna.write-behind.enabled:false}") boolean enabled,
+            @Value("${dna.write-behind.capacity:10000}") int capacity,
+            @Value("${dna.write-behind.batch-size:500}") int batchSize,
+            @Value("${dna.write-behind.flush-interval:200ms}") Duration flushInterval,
+            @Value("${dna.write-behind.offer-timeout:50ms}") Duration offerTimeout,
+            @Value("${dna.write-behind.shutdown-timeout:10s}") Duration shutdownTimeout) {
+        this.batchWriter = batchWriter;
+        this.statsService = statsService;
+        this.dnaResultCache = dnaResultCache;
+        this.dnaMetrics = dnaMetrics;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.offerTimeout = offerTimeout;
+        this.shutdownTimeout = shutdownTimeout;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::runFlushLoop, "dna-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Encola un registro nuevo para guardarlo en el próximo lote.
+     *
+     * Retorna false si el write-behind está deshabilitado, detenido, o la cola sigue
+     * llena después de esperar offer-timeout: en ese caso el llamador debe guardarlo él.
+     * Solo la cola llena cuenta como rechazo (back-pressure).
+     */
+    public boolean offer(DnaRecord record) {
+        stateLock.readLock().lock();
+        try {
+            if (!running) {
+                return false;
+            }
+            if (queue.offer(record, offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                enqueued.incrementAndGet();
+                return true;
+            }
+            rejected.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stateLock.readLock().unlock();
+        }
+        return false;
+    }
+
+    private void runFlushLoop() {
+        List<DnaRecord> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                if (collectBatch(batch)) {
+                    flush(batch);
+                }
+            } catch (InterruptedException e) {
+                // Shutdown vencido: se guarda el lote a medio juntar y stop() vacía el resto
+                Thread.currentThread().interrupt();
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Junta registros hasta completar el batch o hasta que vence el intervalo de flush
+     * contado desde el primer registro del lote.
+     */
+    private boolean collectBatch(List<DnaRecord> batch) throws InterruptedException {
+        DnaRecord first = queue.poll(flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return false;
+        }
+        batch.add(first);
+
+        final long deadline = System.nanoTime() + flushInterval.toNanos();
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                break;
+            }
+            DnaRecord next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return true;
+    }
+
+    /**
+     * Guarda el lote reintentando con backoff mientras la aplicación sigue corriendo:
+     * el hilo no toma registros nuevos hasta guardarlo, así que la cola aplica back-pressure.
+     * Después de stop() (o si se interrumpe el hilo) el lote se descarta tras
+     * MAX_SHUTDOWN_ATTEMPTS intentos.
+     */
+    private void flush(List<DnaRecord> batch) {
+        long backoff = INITIAL_RETRY_BACKOFF.toMillis();
+        int attempt = 0;
+        int shutdownAttempts = 0;
+        while (true) {
+            attempt++;
+            final long start = System.nanoTime();
+            try {
+                List<DnaRecord> insertedRecords = batchWriter.insertIgnoringDuplicates(batch);
+                dnaMetrics.recordBatchInsert(DnaMetrics.BatchSource.WRITE_BEHIND, batch.size(), true, start);
+                for (DnaRecord record : insertedRecords) {
+                    statsService.recordInsert(record.isMutant());
+                }
+                batches.incrementAndGet();
+                inserted.addAndGet(insertedRecords.size());
+                duplicates.addAndGet(batch.size() - insertedRecords.size());
+                return;
+            } catch (RuntimeException e) {
+                dnaMetrics.recordBatchInsert(DnaMetrics.BatchSource.WRITE_BEHIND, batch.size(), false, start);
+                log.warn("Write-behind flush failed (attempt {}, {} records), retrying in {}ms",
+                        attempt, batch.size(), backoff, e);
+            }
+            if (!running && ++shutdownAttempts >= MAX_SHUTDOWN_ATTEMPTS) {
+                break;
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            backoff = Math.min(backoff * 2, MAX_RETRY_BACKOFF.toMillis());
+        }
+        drop(batch, attempt);
+    }
+
+    /**
+     * Descarta un lote que no se pudo guardar. Los hashes salen del caché en memoria:
+     * si no, el mismo ADN se respondería desde el caché y nunca se volvería a insertar.
+     */
+    private void drop(List<DnaRecord> batch, int attempts) {
+        for (DnaRecord record : batch) {
+            dnaResultCache.invalidate(record.getDnaHash());
+        }
+        failed.addAndGet(batch.size());
+        log.error("Write-behind dropped {} records after {} attempts", batch.size(), attempts);
+    }
+
+    /**
+     * Flush durable al cerrar: deja de aceptar registros, espera a que el hilo vacíe
+     * la cola y, si no alcanzó el tiempo, guarda lo que quede desde este hilo.
+     *
+     * El write lock espera a los offer() en curso: al soltarlo la cola ya no crece.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        stateLock.writeLock().lock();
+        try {
+            if (!running) {
+                return;
+            }
+            running = false;
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+        flusher.join(shutdownTimeout.toMillis());
+        if (flusher.isAlive()) {
+            flusher.interrupt();
+            flusher.join();
+        }
+
+        List<DnaRecord> remaining = new ArrayList<>(batchSize);
+        while (queue.drainTo(remaining, batchSize) > 0) {
+            flush(remaining);
+            remaining.clear();
+        }
+    }
+
+    /**
+     * Publica el largo de la cola y los contadores de /admin/status.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("dna.write_behind.pending", queue, BlockingQueue::size)
+                .description("Registros encolados sin guardar")
+                .register(registry);
+        recordsCounter(registry, "enqueued", enqueued);
+        recordsCounter(registry, "rejected", rejected);
+        recordsCounter(registry, "inserted", inserted);
+        recordsCounter(registry, "duplicate", duplicates);
+        recordsCounter(registry, "dropped", failed);
+    }
+
+    private static void recordsCounter(MeterRegistry registry, String outcome, AtomicLong count) {
+        FunctionCounter.builder("dna.write_behind.records", count, AtomicLong::get)
+                .description("Registros del write-behind por resultado")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    public long enqueuedCount() {
+        return enqueued.get();
+    }
+
+    public long rejectedCount() {
+        return rejected.get();
+    }
+
+    public long batchCount() {
+        return batches.get();
+    }
+
+    public long insertedCount() {
+        return inserted.get();
+    }
+
+    public long duplicateCount() {
+        return duplicates.get();
+    }
+
+    public long failedCount() {
+        return failed.get();
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.service;
+
+/**
+ * Murmur3 x64 de 128 bits sobre los caracteres del ADN concatenado.
+ *
+ * No es criptográfico: alcanza para deduplicar y es bastante más barato que SHA-256.
+ * La probabilidad de colisión con 128 bits es despreciable para el volumen de la API;
+ * si hace falta certeza está dna.fingerprint.verify.
+ */
+public class Murmur3DnaFingerprinter implements DnaFingerprinter {
+
+    public static final String ALGORITHM = "murmur3";
+
+    @Override
+    public String algorithm() {
+        return ALGORITHM;
+    }
+
+    @Override
+    public int hashLength() {
+        return 16;
+    }
+
+    @Override
+    public Session newSession() {
+        final Murmur3Hasher hasher = new Murmur3Hasher();
+        return new Session() {
+            @Override
+            public void updateRow(CharSequence row) {
+                hasher.putAscii(row);
+            }
+
+            @Override
+            public byte[] finish() {
+                return hasher.finish();
+            }
+        };
+    }
+}
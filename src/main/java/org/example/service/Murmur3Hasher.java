@@ -0,0 +1,141 @@
+package org.example.service;
+
+/**
+ * MurmurHash3 x64 de 128 bits (semilla 0), incremental.
+ *
+ * Acumula la entrada en bloques de 16 bytes (k1, k2 en little-endian) y los mezcla
+ * a medida que se completan, así no necesita el mensaje entero en memoria.
+ * El resultado son 16 bytes: h1 y h2 en little-endian.
+ */
+final class Murmur3Hasher {
+
+    private static final long C1 = 0x87c3_7b91_1142_53d5L;
+    private static final long C2 = 0x4cf5_ad43_2745_937fL;
+
+    private long h1;
+    private long h2;
+    private long k1;
+    private long k2;
+    private int buffered;
+    private long length;
+
+    void putByte(int value) {
+        final long v = value & 0xFFL;
+        if (buffered < 8) {
+            k1 |= v << (buffered << 3);
+        } else {
+            k2 |= v << ((buffered - 8) << 3);
+        }
+        length++;
+        if (++buffered == 16) {
+            flushBlock();
+        }
+    }
+
+    /**
+     * Agrega 8 bytes (little-endian). Si el buffer está alineado entra como mitad de bloque.
+     */
+    void putLong(long value) {
+        if (buffered == 0) {
+            k1 = value;
+            buffered = 8;
+            length += 8;
+        } else if (buffered == 8) {
+            k2 = value;
+            length += 8;
+            flushBlock();
+        } else {
+            for (int i = 0; i < 8; i++) {
+                putByte((int) (value >>> (i << 3)));
+            }
+        }
+    }
+
+    /**
+     * Agrega los caracteres ASCII de la fila, un byte por carácter.
+     */
+    void putAscii(CharSequence chars) {
+        final int size = chars.length();
+        int i = 0;
+        while (i < size && buffered != 0) {
+            putByte(chars.charAt(i++));
+        }
+        // Bloques completos directo desde la fila
+        while (size - i >= 16) {
+            long a = 0;
+            long b = 0;
+            for (int j = 0; j < 8; j++) {
+                a |= (long) (chars.charAt(i + j) & 0xFF) << (j << 3);
+                b |= (long) (chars.charAt(i + 8 + j) & 0xFF) << (j << 3);
+            }
+            mixBlock(a, b);
+            length += 16;
+            i += 16;
+        }
+        while (i < size) {
+            putByte(chars.charAt(i++));
+        }
+    }
+
+    byte[] finish() {
+        // Cola: mezclar 0 no altera h1/h2, por eso se aplica siempre
+        h1 ^= mixK1(k1);
+        h2 ^= mixK2(k2);
+
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        h2 += h1;
+
+        byte[] out = new byte[16];
+        for (int i = 0; i < 8; i++) {
+            out[i] = (byte) (h1 >>> (i << 3));
+            out[i + 8] = (byte) (h2 >>> (i << 3));
+        }
+        return out;
+    }
+
+    private void flushBlock() {
+        mixBlock(k1, k2);
+        k1 = 0;
+        k2 = 0;
+        buffered = 0;
+    }
+
+    private void mixBlock(long a, long b) {
+        h1 ^= mixK1(a);
+        h1 = Long.rotateLeft(h1, 27);
+        h1 += h2;
+        h1 = h1 * 5 + 0x52dc_e729;
+
+        h2 ^= mixK2(b);
+        h2 = Long.rotateLeft(h2, 31);
+        h2 += h1;
+        h2 = h2 * 5 + 0x3849_5ab5;
+    }
+
+    private static long mixK1(long k) {
+        k *= C1;
+        k = Long.rotateLeft(k, 31);
+        return k * C2;
+    }
+
+    private static long mixK2(long k) {
+        k *= C2;
+        k = Long.rotateLeft(k, 33);
+        return k * C1;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51_afd7_ed55_8ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ce_b9fe_1a85_ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -1,151 +1,349 @@
 package org.example.service;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.Set;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+@Slf4j
 @Service
 public class MutantDetector {
 
-    private static final int SEQUENCE_LENGTH = 4;
-    private static final Set<Character> VALID_BASES = Set.of('A', 'T', 'C', 'G');
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1024;
+
+    /** Escaneo secuencial por defecto: PackedDnaMatrix (o VectorDetectionKernel) */
+    public static final String ALGORITHM_PACKED = "packed";
+    /** Escaneo secuencial con RunLengthRowDetector */
+    public static final String ALGORITHM_RUN_LENGTH = "run-length";
+
+    /** Filas mínimas por banda: por debajo el costo de la tarea supera al del escaneo */
+    private static final int MIN_BAND_ROWS = 64;
+
+    /** Por debajo de este N preparar los vectores cuesta más que el escaneo escalar */
+    private static final int VECTOR_MIN_SIZE = 32;
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_KERNEL = "org.example.service.VectorDetectionKernel";
+
+    private final int parallelThreshold;
+    private final DetectionKernel vectorKernel;
+    private final boolean runLength;
+    private final DetectionRules rules;
+    private final DnaMetrics metrics;
+
+    /**
+     * @param parallelThreshold N a partir del cual la matriz se escanea en paralelo
+     * @param vectorEnabled     usar la Vector API si la JVM tiene el módulo jdk.incubator.vector
+     * @param algorithm         escaneo secuencial: packed o run-length (run-length ignora la Vector API)
+     * @param rules             reglas del despliegue (DetectionRulesConfig); el modo paralelo y la
+     *                          Vector API solo aplican a la regla por defecto
+     * @param metrics           registra en qué fila corta la detección escalar
+     */
+    @Autowired
+    public MutantDetector(
+            @Value("${dna.detector.parallel-threshold:" + DEFAULT_PARALLEL_THRESHOLD + "}") int parallelThreshold,
+            @Value("${dna.detector.vector.enabled:true}") boolean vectorEnabled,
+            @Value("${dna.detector.algorithm:" + ALGORITHM_PACKED + "}") String algorithm,
+            DetectionRules rules,
+            DnaMetrics metrics) {
+        this.parallelThreshold = parallelThreshold;
+        this.runLength = switch (algorithm.trim().toLowerCase()) {
+            case ALGORITHM_PACKED -> false;
+            case ALGORITHM_RUN_LENGTH -> true;
+            default -> throw new IllegalArgumentException(
+                    "dna.detector.algorithm desconocido: " + algorithm + " (packed, run-length)");
+        };
+        this.rules = rules;
+        this.vectorKernel = vectorEnabled && !runLength && rules.isDefault() ? loadVectorKernel() : null;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Detector fuera de Spring (tests y benchmarks). Lo que no se indica toma el valor por
+     * defecto de las propiedades: threshold 1024, Vector API, packed, DetectionRules.DEFAULT
+     * y métricas sin registro.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Reglas con las que detecta isMutant(String[]) y isMutantRows.
+     */
+    public DetectionRules getRules() {
+        return rules;
+    }
+
+    /**
+     * true si la detección secuencial usa la Vector API.
+     */
+    public boolean isVectorized() {
+        return vectorKernel != null;
+    }
 
     /**
      * Determina si un ADN es mutante.
      * Un mutante tiene MÁS DE UNA secuencia de 4 letras iguales.
      *
      * Optimizaciones implementadas:
-     * 1. Early Termination - Para al encontrar >1 secuencias
-     * 2. Single Pass - Recorre la matriz una sola vez
-     * 3. Boundary Checking - Solo busca donde hay espacio
-     * 4. Direct Comparison - Comparaciones sin loops
-     * 5. char[][] conversion - Acceso O(1) rápido
+     * 1. Early Termination - Para de buscar al encontrar >1 secuencias
+     * 2. Single Pass - Valida, codifica y detecta en una sola pasada sobre los String
+     * 3. Boundary Checking - Máscaras de carriles: solo cuenta donde hay espacio
+     * 4. Bit-packing - 2 bits por base en palabras long, en una ventana de las últimas 4 filas
+     * 5. Shift-and-mask - Compara 32 posiciones de inicio por operación
+     *
+     * Un ADN inválido (nulo, vacío, no cuadrado o con caracteres fuera de A, T, C, G)
+     * retorna false en cuanto se encuentra el primer problema.
+     *
+     * Con N >= dna.detector.parallel-threshold se usa isMutantParallel; por debajo, si la JVM
+     * tiene la Vector API y N >= 32, VectorDetectionKernel (mismo algoritmo por carriles de bytes).
+     * Con dna.detector.algorithm=run-length el escaneo secuencial es RunLengthRowDetector.
+     * Con reglas distintas de DetectionRules.DEFAULT el escaneo es siempre secuencial (RowDetector.forRules).
      *
-     * Complejidad: O(N²) peor caso, ~O(N) promedio con early termination
+     * Complejidad: O(N²/32) peor caso, ~O(N/32) promedio con early termination
      */
     public boolean isMutant(String[] dna) {
-        if (!isValidDna(dna)) {
+        if (dna == null || dna.length == 0) {
             return false;
         }
 
         final int n = dna.length;
-        int sequenceCount = 0;
+        if (rules.isDefault() && n >= parallelThreshold) {
+            return isMutantParallel(dna);
+        }
+        if (vectorKernel != null && n >= VECTOR_MIN_SIZE) {
+            return vectorKernel.isMutant(dna);
+        }
+        return scanRows(Arrays.asList(dna).iterator(), n, rules);
+    }
 
-        // Optimización: Convertir a char[][] para acceso más rápido
-        char[][] matrix = new char[n][];
-        for (int i = 0; i < n; i++) {
-            matrix[i] = dna[i].toCharArray();
+    /**
+     * Determina si un ADN es mutante según otras reglas (p. ej. las de un request).
+     * Con las mismas reglas del detector es isMutant(String[]); si no, escaneo secuencial.
+     */
+    public boolean isMutant(String[] dna, DetectionRules requestRules) {
+        if (requestRules.equals(rules)) {
+            return isMutant(dna);
         }
+        if (dna == null || dna.length == 0) {
+            return false;
+        }
+        return scanRows(Arrays.asList(dna).iterator(), dna.length, requestRules);
+    }
 
-        // Single Pass: recorrer la matriz UNA SOLA VEZ
-        for (int row = 0; row < n; row++) {
-            for (int col = 0; col < n; col++) {
+    /**
+     * Igual que isMutant(String[]) pero recibe las filas de a una, sin tener la matriz en memoria.
+     * N es el largo de la primera fila y tiene que haber exactamente N filas.
+     *
+     * Solo se guardan las últimas 4 filas codificadas (PackedDnaMatrix.window): memoria O(N),
+     * para matrices que no entran en el heap. Cada CharSequence se puede reutilizar
+     * después de que next() devuelve la siguiente. No usa el modo paralelo ni la Vector API.
+     */
+    public boolean isMutantRows(Iterator<? extends CharSequence> rows) {
+        if (rows == null) {
+            return false;
+        }
+        return scanRows(rows, -1, rules);
+    }
 
-                // Boundary Checking: Solo buscar donde hay espacio suficiente
+    /**
+     * Lee el ADN de un canal de bytes, una fila por línea en ASCII (ver DnaRowReader),
+     * con la misma memoria O(N) que isMutantRows(Iterator). Deja de leer en cuanto el ADN es inválido.
+     */
+    public boolean isMutantRows(ReadableByteChannel channel) throws IOException {
+        try {
+            return scanRows(new DnaRowReader(channel), -1, rules);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
 
-                // Horizontal (→)
-                if (col <= n - SEQUENCE_LENGTH) {
-                    if (checkHorizontal(matrix, row, col)) {
-                        sequenceCount++;
-                        if (sequenceCount > 1) return true; // Early Termination
-                    }
-                }
+    /**
+     * Escaneo secuencial fila por fila con el RowDetector de las reglas (memoria O(N)).
+     * Con {@code size < 0} N sale de la primera fila.
+     */
+    private boolean scanRows(Iterator<? extends CharSequence> rows, int size, DetectionRules scanRules) {
+        int n = size;
+        RowDetector detector = null;
+        int rowsScanned = 0;
+        int row = 0;
 
-                // Vertical (↓)
-                if (row <= n - SEQUENCE_LENGTH) {
-                    if (checkVertical(matrix, row, col)) {
-                        sequenceCount++;
-                        if (sequenceCount > 1) return true; // Early Termination
-                    }
+        for (; rows.hasNext(); row++) {
+            final CharSequence bases = rows.next();
+            if (detector == null) {
+                if (n < 0) {
+                    n = bases == null ? 0 : bases.length();
                 }
-
-                // Diagonal Descendente (↘)
-                if (row <= n - SEQUENCE_LENGTH && col <= n - SEQUENCE_LENGTH) {
-                    if (checkDiagonalDescending(matrix, row, col)) {
-                        sequenceCount++;
-                        if (sequenceCount > 1) return true; // Early Termination
-                    }
+                if (n == 0) {
+                    return false;
                 }
+                detector = runLength ? new RunLengthRowDetector(scanRules, n) : RowDetector.forRules(scanRules, n);
+            }
+            if (row >= n) {
+                return false; // Más filas que columnas
+            }
 
-                // Diagonal Ascendente (↗)
-                if (row >= SEQUENCE_LENGTH - 1 && col <= n - SEQUENCE_LENGTH) {
-                    if (checkDiagonalAscending(matrix, row, col)) {
-                        sequenceCount++;
-                        if (sequenceCount > 1) return true; // Early Termination
-                    }
-                }
+            final boolean mutantBefore = detector.isMutant();
+            if (!detector.acceptRow(row, bases)) {
+                return false;
+            }
+            if (!mutantBefore && detector.isMutant()) {
+                rowsScanned = row + 1;
             }
         }
 
-        return false; // Solo encontró 0 o 1 secuencia
+        if (row != n || !detector.isMutant()) {
+            return false; // Sin filas, menos filas que columnas o humano
+        }
+        metrics.recordEarlyTermination(rowsScanned, n);
+        return true;
     }
 
     /**
-     * Valida que el ADN sea correcto:
-     * - No nulo ni vacío
-     * - Matriz NxN (cuadrada)
-     * - Solo caracteres A, T, C, G
+     * Versión paralela para matrices muy grandes, en dos fases sobre el ForkJoinPool común:
+     * 1. Validar y codificar todas las filas (cada fila escribe solo sus palabras)
+     * 2. Escanear bandas horizontales de filas: cada banda cierra las secuencias que
+     *    terminan en sus filas y lee las 3 filas anteriores (solapamiento de 3 filas)
+     *
+     * Las bandas comparten un contador atómico y dejan de escanear cuando supera 1.
+     * La validación no puede cortar antes: un ADN inválido es false aunque ya sea mutante.
      */
-    private boolean isValidDna(String[] dna) {
-        if (dna == null || dna.length == 0) {
-            return false;
-        }
-
+    private boolean isMutantParallel(String[] dna) {
         final int n = dna.length;
+        final PackedDnaMatrix matrix = new PackedDnaMatrix(n);
+        final int bandRows = Math.max(MIN_BAND_ROWS, n / (ForkJoinPool.getCommonPoolParallelism() * 4));
 
-        for (String row : dna) {
-            if (row == null || row.length() != n) {
-                return false; // No es cuadrada
+        AtomicBoolean invalid = new AtomicBoolean();
+        ForkJoinPool.commonPool().invoke(new BandTask(0, n, bandRows, (from, to) -> {
+            for (int row = from; row < to && !invalid.get(); row++) {
+                if (!matrix.packRow(row, dna[row])) {
+                    invalid.set(true);
+                }
             }
+        }));
+        if (invalid.get()) {
+            return false;
+        }
 
-            for (char c : row.toCharArray()) {
-                if (!VALID_BASES.contains(c)) {
-                    return false; // Carácter inválido
+        AtomicInteger sequenceCount = new AtomicInteger();
+        ForkJoinPool.commonPool().invoke(new BandTask(0, n, bandRows, (from, to) -> {
+            for (int row = from; row < to; row++) {
+                final int current = sequenceCount.get();
+                if (current > 1) {
+                    return; // Otra banda ya completó las 2 secuencias
+                }
+                final int found = matrix.countSequencesEndingAt(row, 2 - current);
+                if (found > 0) {
+                    sequenceCount.addAndGet(found);
                 }
             }
-        }
+        }));
 
-        return true;
+        return sequenceCount.get() > 1;
     }
 
     /**
-     * Verifica secuencia horizontal (→)
-     * Optimización: Comparación directa sin loops
+     * Carga VectorDetectionKernel por reflexión: si el módulo incubator no está en la JVM,
+     * la clase no se puede enlazar y se sigue con el camino escalar.
      */
-    private boolean checkHorizontal(char[][] matrix, int row, int col) {
-        final char base = matrix[row][col];
-        return matrix[row][col + 1] == base &&
-                matrix[row][col + 2] == base &&
-                matrix[row][col + 3] == base;
+    private static DetectionKernel loadVectorKernel() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return null;
+        }
+        try {
+            DetectionKernel kernel = (DetectionKernel) Class.forName(VECTOR_KERNEL)
+                    .getDeclaredConstructor()
+                    .newInstance();
+            log.debug("Vector API detection kernel enabled");
+            return kernel;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.warn("Vector API not usable, falling back to scalar detection", e);
+            return null;
+        }
     }
 
-    /**
-     * Verifica secuencia vertical (↓)
-     */
-    private boolean checkVertical(char[][] matrix, int row, int col) {
-        final char base = matrix[row][col];
-        return matrix[row + 1][col] == base &&
-                matrix[row + 2][col] == base &&
-                matrix[row + 3][col] == base;
+    public static final class Builder {
+
+        private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+        private boolean vectorEnabled = true;
+        private String algorithm = ALGORITHM_PACKED;
+        private DetectionRules rules = DetectionRules.DEFAULT;
+        private DnaMetrics metrics;
+
+        private Builder() {
+        }
+
+        public Builder parallelThreshold(int parallelThreshold) {
+            this.parallelThreshold = parallelThreshold;
+            return this;
+        }
+
+        public Builder vectorEnabled(boolean vectorEnabled) {
+            this.vectorEnabled = vectorEnabled;
+            return this;
+        }
+
+        public Builder algorithm(String algorithm) {
+            this.algorithm = algorithm;
+            return this;
+        }
+
+        public Builder rules(DetectionRules rules) {
+            this.rules = rules;
+            return this;
+        }
+
+        public Builder metrics(DnaMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        public MutantDetector build() {
+            return new MutantDetector(parallelThreshold, vectorEnabled, algorithm, rules,
+                    metrics != null ? metrics : DnaMetrics.noop());
+        }
     }
 
-    /**
-     * Verifica diagonal descendente (↘)
-     */
-    private boolean checkDiagonalDescending(char[][] matrix, int row, int col) {
-        final char base = matrix[row][col];
-        return matrix[row + 1][col + 1] == base &&
-                matrix[row + 2][col + 2] == base &&
-                matrix[row + 3][col + 3] == base;
+    @FunctionalInterface
+    private interface RowRange {
+        void scan(int from, int to);
     }
 
     /**
-     * Verifica diagonal ascendente (↗)
+     * Divide el rango de filas a la mitad hasta que cada banda tiene a lo sumo bandRows filas.
      */
-    private boolean checkDiagonalAscending(char[][] matrix, int row, int col) {
-        final char base = matrix[row][col];
-        return matrix[row - 1][col + 1] == base &&
-                matrix[row - 2][col + 2] == base &&
-                matrix[row - 3][col + 3] == base;
+    private static final class BandTask extends RecursiveAction {
+
+        private final int from;
+        private final int to;
+        private final int bandRows;
+        private final RowRange work;
+
+        private BandTask(int from, int to, int bandRows, RowRange work) {
+            this.from = from;
+            this.to = to;
+            this.bandRows = bandRows;
+            this.work = work;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= bandRows) {
+                work.scan(from, to);
+                return;
+            }
+            final int middle = (from + to) >>> 1;
+            invokeAll(new BandTask(from, middle, bandRows, work), new BandTask(middle, to, bandRows, work));
+        }
     }
 }
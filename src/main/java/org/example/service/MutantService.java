@@ -1,85 +1,505 @@
 package org.example.service;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dto.DetectionRulesRequest;
+import org.example.dto.DnaBatchResult;
+import org.example.dto.DnaLookupResult;
 import org.example.entity.DnaRecord;
-import org.example.exception.DnaHashCalculationException;
+import org.example.exception.InvalidDnaException;
+import org.example.exception.InvalidDnaHashException;
+import org.example.repository.DnaRecordBatchWriter;
 import org.example.repository.DnaRecordRepository;
+import org.example.validation.ValidDnaSequenceValidator;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class MutantService {
 
+    /** Por debajo de este tamaño el lote se procesa en el hilo del request */
+    private static final int PARALLEL_THRESHOLD = 64;
+
     private final MutantDetector mutantDetector;
     private final DnaRecordRepository dnaRecordRepository;
+    private final DnaResultCache dnaResultCache;
+    private final DnaWriteBehindQueue writeBehindQueue;
+    private final StatsService statsService;
+    private final DnaFingerprinter dnaFingerprinter;
+    private final DnaRecordBatchWriter dnaRecordBatchWriter;
+    private final DnaInFlightRequests inFlightRequests;
+    private final DnaHashBloomFilter hashFilter;
+    private final DnaMetrics dnaMetrics;
+
+    /**
+     * Verificación de colisiones: se guarda el ADN codificado y, cuando la huella ya existe,
+     * se compara contra el ADN real. En este modo no se usa el caché en memoria
+     * (solo guarda huella → resultado). Un ADN de más de CompactDnaEncoding.MAX_SIZE no se
+     * puede verificar: se analiza como una colisión, sin caché, agrupación ni guardado.
+     */
+    @Value("${dna.fingerprint.verify:false}")
+    private boolean verifyFingerprints;
 
     /**
      * Analiza un ADN y determina si es mutante.
-     * Implementa caché con hash SHA-256 para evitar reprocesar.
+     * Implementa caché por huella del ADN para evitar reprocesar.
      *
      * Flujo:
-     * 1. Calcular hash del DNA
-     * 2. Buscar en BD (caché)
-     * 3. Si existe → retornar resultado cacheado
-     * 4. Si no existe → analizar, guardar y retornar
+     * 1. Calcular huella del DNA
+     * 2. Buscar en caché en memoria
+     * 3. Si otro request está analizando el mismo ADN → esperar su resultado
+     * 4. Buscar en BD (caché persistente)
+     * 5. Si existe → retornar resultado cacheado
+     * 6. Si no existe → analizar, guardar y retornar
      */
     public boolean analyzeDna(String[] dna) {
-        // Calcular hash único del DNA
-        String dnaHash = calculateDnaHash(dna);
+        // Calcular huella única del DNA (en streaming, sin concatenar filas)
+        long start = System.nanoTime();
+        byte[] dnaHash = dnaFingerprinter.fingerprint(dna);
+        dnaMetrics.recordPhase(DnaMetrics.Phase.HASH, start);
+        dnaMetrics.recordMatrixSize(dna.length);
+
+        boolean isMutant;
+        if (verifyFingerprints) {
+            // Sin agrupar: dos ADN distintos pueden compartir huella
+            byte[] dnaBases = CompactDnaEncoding.encode(dna);
+            isMutant = dnaBases != null ? analyzeUncached(dna, dnaHash, dnaBases) : detect(dna);
+        } else {
+            // Buscar en caché en memoria (sin ir a la BD)
+            Boolean cachedResult = getCached(dnaHash);
+            isMutant = cachedResult != null
+                    ? cachedResult
+                    : inFlightRequests.execute(dnaHash, () -> analyzeUncached(dna, dnaHash, null));
+        }
+
+        dnaMetrics.recordResult(isMutant);
+        return isMutant;
+    }
 
-        // Buscar en caché (BD)
-        Optional<DnaRecord> existingRecord = dnaRecordRepository.findByDnaHash(dnaHash);
+    private boolean analyzeUncached(String[] dna, byte[] dnaHash, byte[] dnaBases) {
+        // Buscar en caché (BD), salvo que el filtro Bloom asegure que no está
+        Optional<DnaRecord> existingRecord = findExisting(dnaHash);
 
         if (existingRecord.isPresent()) {
-            // Retornar resultado cacheado (no reprocesar)
-            return existingRecord.get().isMutant();
+            if (isSameDna(existingRecord.get(), dnaBases)) {
+                // Retornar resultado cacheado (no reprocesar)
+                boolean isMutant = existingRecord.get().isMutant();
+                dnaResultCache.put(dnaHash, isMutant);
+                return isMutant;
+            }
+            // Colisión: otro ADN con la misma huella, se analiza sin guardar
+            return detect(dna);
         }
 
         // Analizar DNA (primera vez)
-        boolean isMutant = mutantDetector.isMutant(dna);
+        boolean isMutant = detect(dna);
 
         // Guardar resultado en BD (caché)
-        DnaRecord record = new DnaRecord(dnaHash, isMutant);
-        dnaRecordRepository.save(record);
+        long start = System.nanoTime();
+        isMutant = persist(newRecord(dnaHash, dnaBases, isMutant));
+        dnaMetrics.recordPhase(DnaMetrics.Phase.SAVE, start);
+        dnaResultCache.put(dnaHash, isMutant);
+
+        return isMutant;
+    }
+
+    private boolean detect(String[] dna) {
+        long start = System.nanoTime();
+        boolean isMutant = mutantDetector.isMutant(dna);
+        dnaMetrics.recordPhase(DnaMetrics.Phase.DETECT, start);
+        return isMutant;
+    }
 
+    /**
+     * Analiza un ADN con reglas propias del request (las omitidas toman el valor del despliegue).
+     *
+     * El resultado depende de las reglas, así que no pasa por el caché ni se guarda:
+     * no cuenta en /stats ni reemplaza el resultado guardado con las reglas del despliegue.
+     * Lanza InvalidDetectionRulesException si las reglas son inválidas e InvalidDnaException
+     * si el ADN no es NxN (mínimo 4x4) con bases del alfabeto.
+     */
+    public boolean analyzeDnaWithRules(String[] dna, DetectionRulesRequest request) {
+        final DetectionRules deploymentRules = mutantDetector.getRules();
+        final DetectionRules rules = request == null
+                ? deploymentRules
+                : deploymentRules.override(request.getSequenceLength(), request.getMinSequences(),
+                request.getAlphabet(), request.getDirections());
+
+        if (!rules.isValidDna(dna)) {
+            throw new InvalidDnaException("Invalid DNA sequence: must be a square NxN matrix (minimum 4x4) "
+                    + "with only " + rules.getAlphabet() + " characters");
+        }
+
+        long start = System.nanoTime();
+        boolean isMutant = mutantDetector.isMutant(dna, rules);
+        dnaMetrics.recordPhase(DnaMetrics.Phase.DETECT, start);
         return isMutant;
     }
 
     /**
-     * Calcula hash SHA-256 del DNA.
-     * Esto permite:
-     * - Detectar DNAs duplicados
-     * - Búsqueda O(1) con índice en BD
-     * - Ahorrar espacio (64 chars vs matriz completa)
+     * Registra el resultado de un ADN analizado mientras se leía el request.
+     *
+     * Flujo:
+     * 1. Buscar el hash en caché en memoria
+     * 2. Si otro request está registrando el mismo ADN → esperar su resultado
+     * 3. Buscar en BD; si existe → retornar resultado cacheado
+     * 4. Si no existe → guardar el resultado ya calculado y retornarlo
      */
-    private String calculateDnaHash(String[] dna) {
+    public boolean recordAnalysis(DnaAnalysis analysis) {
+        byte[] dnaHash = analysis.getDnaHash();
+
+        if (verifyFingerprints) {
+            // Sin bases (N > MAX_SIZE) no se puede verificar: el resultado ya está calculado
+            return analysis.getDnaBases() != null ? recordUncached(analysis) : analysis.isMutant();
+        }
+
+        Boolean cachedResult = getCached(dnaHash);
+        if (cachedResult != null) {
+            return cachedResult;
+        }
+
+        return inFlightRequests.execute(dnaHash, () -> recordUncached(analysis));
+    }
+
+    private boolean recordUncached(DnaAnalysis analysis) {
+        byte[] dnaHash = analysis.getDnaHash();
+        Optional<DnaRecord> existingRecord = findExisting(dnaHash);
+
+        if (existingRecord.isPresent()) {
+            if (isSameDna(existingRecord.get(), analysis.getDnaBases())) {
+                boolean isMutant = existingRecord.get().isMutant();
+                dnaResultCache.put(dnaHash, isMutant);
+                return isMutant;
+            }
+            // Colisión: el resultado ya está calculado, no se guarda
+            return analysis.isMutant();
+        }
+
+        boolean isMutant = persist(newRecord(dnaHash, analysis.getDnaBases(), analysis.isMutant()));
+        dnaResultCache.put(dnaHash, isMutant);
+
+        return isMutant;
+    }
+
+    /**
+     * Analiza un lote de ADN y retorna un resultado por ítem, en el mismo orden.
+     *
+     * Flujo:
+     * 1. Validar y calcular la huella de cada ADN (en paralelo)
+     * 2. Deduplicar por huella dentro del lote (con verificación, por el ADN codificado:
+     *    dos ADN distintos pueden compartir huella; los que superan CompactDnaEncoding.MAX_SIZE
+     *    se analizan uno por uno, sin caché ni guardado)
+     * 3. Buscar en caché en memoria y el resto en BD con una sola consulta IN
+     * 4. Analizar los nuevos en paralelo (ForkJoinPool común: la detección es CPU pura)
+     * 5. Guardar los nuevos en un solo batch JDBC
+     *
+     * Un ADN inválido no rechaza el lote: se informa como INVALID.
+     */
+    public List<DnaBatchResult> analyzeBatch(List<String[]> dnas) {
+        final int size = dnas.size();
+        final boolean parallel = size >= PARALLEL_THRESHOLD;
+
+        byte[][] hashes = new byte[size][];
+        byte[][] bases = new byte[size][];
+        IntStream indexes = IntStream.range(0, size);
+        (parallel ? indexes.parallel() : indexes).forEach(i -> {
+            final String[] dna = dnas.get(i);
+            if (ValidDnaSequenceValidator.isValidDna(dna)) {
+                long start = System.nanoTime();
+                hashes[i] = dnaFingerprinter.fingerprint(dna);
+                dnaMetrics.recordPhase(DnaMetrics.Phase.HASH, start);
+                dnaMetrics.recordMatrixSize(dna.length);
+                bases[i] = verifyFingerprints ? CompactDnaEncoding.encode(dna) : null;
+            }
+        });
+
+        // Deduplicar: cada ADN distinto se resuelve una sola vez
+        Map<ByteBuffer, BatchEntry> entries = new LinkedHashMap<>();
+        List<BatchEntry> unverifiable = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (hashes[i] != null && verifyFingerprints && bases[i] == null) {
+                BatchEntry entry = new BatchEntry(hashes[i], null, dnas.get(i));
+                entry.indexes.add(i);
+                unverifiable.add(entry);
+            } else if (hashes[i] != null) {
+                final int index = i;
+                final byte[] key = bases[i] != null ? bases[i] : hashes[i];
+                entries.computeIfAbsent(ByteBuffer.wrap(key),
+                        k -> new BatchEntry(hashes[index], bases[index], dnas.get(index))).indexes.add(i);
+            }
+        }
+
+        List<BatchEntry> unresolved = new ArrayList<>();
+        for (BatchEntry entry : entries.values()) {
+            Boolean cachedResult = getCached(entry.hash);
+            if (cachedResult != null) {
+                entry.mutant = cachedResult;
+            } else {
+                unresolved.add(entry);
+            }
+        }
+
+        List<BatchEntry> toAnalyze = resolveFromDatabase(unresolved);
+        toAnalyze.addAll(unverifiable);
+        (toAnalyze.size() >= PARALLEL_THRESHOLD ? toAnalyze.parallelStream() : toAnalyze.stream())
+                .forEach(entry -> entry.mutant = detect(entry.dna));
+        persistBatch(toAnalyze);
+
+        DnaBatchResult[] results = new DnaBatchResult[size];
+        Arrays.fill(results, DnaBatchResult.INVALID);
+        List<BatchEntry> resolved = new ArrayList<>(entries.values());
+        resolved.addAll(unverifiable);
+        for (BatchEntry entry : resolved) {
+            for (int index : entry.indexes) {
+                results[index] = entry.mutant ? DnaBatchResult.MUTANT : DnaBatchResult.HUMAN;
+                dnaMetrics.recordResult(entry.mutant);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Resuelve las huellas contra la BD en una sola consulta IN.
+     * Las que el filtro Bloom descarta no se consultan.
+     * Retorna las que hay que analizar: las nuevas y las que chocan con otro ADN.
+     */
+    private List<BatchEntry> resolveFromDatabase(List<BatchEntry> entries) {
+        List<byte[]> lookups = entries.stream()
+                .map(entry -> entry.hash)
+                .filter(hashFilter::mightContain)
+                .toList();
+
+        Map<ByteBuffer, DnaRecord> existing = new HashMap<>();
+        if (!lookups.isEmpty()) {
+            for (DnaRecord record : dnaRecordRepository.findByDnaHashIn(lookups)) {
+                existing.put(ByteBuffer.wrap(record.getDnaHash()), record);
+            }
+        }
+
+        List<BatchEntry> toAnalyze = new ArrayList<>();
+        for (BatchEntry entry : entries) {
+            DnaRecord record = existing.get(ByteBuffer.wrap(entry.hash));
+            if (record == null) {
+                entry.isNew = true;
+                toAnalyze.add(entry);
+            } else if (isSameDna(record, entry.bases)) {
+                entry.mutant = record.isMutant();
+                dnaResultCache.put(entry.hash, entry.mutant);
+            } else {
+                toAnalyze.add(entry); // Colisión: se analiza sin guardar
+            }
+        }
+        return toAnalyze;
+    }
+
+    private void persistBatch(List<BatchEntry> analyzed) {
+        List<DnaRecord> records = new ArrayList<>(analyzed.size());
+        for (BatchEntry entry : analyzed) {
+            if (entry.isNew) {
+                records.add(newRecord(entry.hash, entry.bases, entry.mutant));
+                dnaResultCache.put(entry.hash, entry.mutant);
+                hashFilter.put(entry.hash);
+            }
+        }
+        if (records.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<DnaRecord> inserted;
         try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-
-            // Concatenar todas las filas
-            String dnaString = String.join("", dna);
-
-            // Calcular hash
-            byte[] hashBytes = digest.digest(dnaString.getBytes(StandardCharsets.UTF_8));
-
-            // Convertir a hexadecimal
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hashBytes) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
+            inserted = dnaRecordBatchWriter.insertIgnoringDuplicates(records);
+        } catch (RuntimeException e) {
+            dnaMetrics.recordBatchInsert(DnaMetrics.BatchSource.BATCH, records.size(), false, start);
+            throw e;
+        }
+        dnaMetrics.recordBatchInsert(DnaMetrics.BatchSource.BATCH, records.size(), true, start);
+        for (DnaRecord record : inserted) {
+            statsService.recordInsert(record.isMutant());
+        }
+    }
+
+    /**
+     * Resultado guardado de un ADN por su huella en hexadecimal, sin analizar nada.
+     *
+     * Flujo:
+     * 1. Buscar en caché en memoria
+     * 2. Si el filtro Bloom descarta la huella → desconocida, sin consultar la BD
+     * 3. Buscar en BD y cachear el resultado
+     *
+     * Vacío si el ADN nunca se analizó. La huella tiene que ser del algoritmo configurado.
+     */
+    public Optional<Boolean> lookup(String dnaHash) {
+        final byte[] hash = parseHash(dnaHash);
+        if (hash == null) {
+            throw new InvalidDnaHashException("hash: must be " + dnaFingerprinter.hashLength() * 2
+                    + " hex characters (" + dnaFingerprinter.algorithm() + ")");
+        }
+
+        Boolean cachedResult = dnaResultCache.get(hash);
+        if (cachedResult != null) {
+            return Optional.of(cachedResult);
+        }
+
+        Optional<Boolean> stored = findExisting(hash).map(DnaRecord::isMutant);
+        stored.ifPresent(isMutant -> dnaResultCache.put(hash, isMutant));
+        return stored;
+    }
+
+    /**
+     * Resultado guardado de cada huella, en el mismo orden: caché en memoria y el resto
+     * con una sola consulta IN. Una huella mal formada se informa como INVALID.
+     */
+    public List<DnaLookupResult> lookupBatch(List<String> dnaHashes) {
+        final int size = dnaHashes.size();
+        DnaLookupResult[] results = new DnaLookupResult[size];
+
+        // Huellas repetidas se buscan una sola vez
+        Map<ByteBuffer, List<Integer>> pending = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            final byte[] hash = parseHash(dnaHashes.get(i));
+            if (hash == null) {
+                results[i] = DnaLookupResult.INVALID;
+                continue;
             }
+            Boolean cachedResult = dnaResultCache.get(hash);
+            if (cachedResult != null) {
+                results[i] = cachedResult ? DnaLookupResult.MUTANT : DnaLookupResult.HUMAN;
+            } else {
+                pending.computeIfAbsent(ByteBuffer.wrap(hash), key -> new ArrayList<>(1)).add(i);
+            }
+        }
+
+        List<byte[]> lookups = pending.keySet().stream()
+                .map(ByteBuffer::array)
+                .filter(hashFilter::mightContain)
+                .toList();
+
+        Map<ByteBuffer, Boolean> stored = new HashMap<>();
+        if (!lookups.isEmpty()) {
+            long start = System.nanoTime();
+            for (DnaRecord record : dnaRecordRepository.findByDnaHashIn(lookups)) {
+                stored.put(ByteBuffer.wrap(record.getDnaHash()), record.isMutant());
+                dnaResultCache.put(record.getDnaHash(), record.isMutant());
+            }
+            dnaMetrics.recordPhase(DnaMetrics.Phase.LOOKUP, start);
+        }
+
+        pending.forEach((hash, indexes) -> {
+            Boolean isMutant = stored.get(hash);
+            DnaLookupResult result = isMutant == null
+                    ? DnaLookupResult.UNKNOWN
+                    : isMutant ? DnaLookupResult.MUTANT : DnaLookupResult.HUMAN;
+            indexes.forEach(index -> results[index] = result);
+        });
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Huella en hexadecimal (mayúsculas o minúsculas) a bytes, o null si no es hexadecimal
+     * o no tiene el largo del algoritmo configurado.
+     */
+    private byte[] parseHash(String dnaHash) {
+        if (dnaHash == null || dnaHash.length() != dnaFingerprinter.hashLength() * 2) {
+            return null;
+        }
+        try {
+            return HexFormat.of().parseHex(dnaHash);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Guarda un registro nuevo y retorna el resultado que queda vigente.
+     * Con write-behind se encola y se inserta en lote; si está deshabilitado o la cola
+     * sigue llena (back-pressure), se guarda en el momento con insert-or-get: si otro
+     * request guardó el mismo hash primero no hay error, se usa el resultado guardado.
+     * Los contadores de /stats se actualizan cuando el insert ocurre.
+     */
+    private boolean persist(DnaRecord record) {
+        hashFilter.put(record.getDnaHash());
+        if (writeBehindQueue.offer(record)) {
+            return record.isMutant();
+        }
+
+        DnaRecord stored = dnaRecordBatchWriter.insertOrGet(record);
+        if (stored == record) {
+            statsService.recordInsert(record.isMutant());
+            return record.isMutant();
+        }
+        return isSameDna(stored, record.getDnaBases()) ? stored.isMutant() : record.isMutant();
+    }
+
+    private Optional<DnaRecord> findExisting(byte[] dnaHash) {
+        if (!hashFilter.mightContain(dnaHash)) {
+            return Optional.empty();
+        }
+        long start = System.nanoTime();
+        Optional<DnaRecord> existing = dnaRecordRepository.findByDnaHash(dnaHash);
+        dnaMetrics.recordPhase(DnaMetrics.Phase.LOOKUP, start);
+        return existing;
+    }
+
+    private Boolean getCached(byte[] dnaHash) {
+        if (verifyFingerprints) {
+            return null;
+        }
+        long start = System.nanoTime();
+        Boolean cachedResult = dnaResultCache.get(dnaHash);
+        dnaMetrics.recordPhase(DnaMetrics.Phase.CACHE, start);
+        return cachedResult;
+    }
+
+    /**
+     * Con verificación activa compara el ADN guardado contra el recibido (comparación completa).
+     * Los registros guardados sin ADN (antes de activar la verificación) se aceptan por huella.
+     */
+    private boolean isSameDna(DnaRecord existing, byte[] dnaBases) {
+        if (!verifyFingerprints || dnaBases == null || existing.getDnaBases() == null) {
+            return true;
+        }
+        if (Arrays.equals(existing.getDnaBases(), dnaBases)) {
+            return true;
+        }
+        log.warn("Fingerprint collision detected ({}), analyzing without cache", dnaFingerprinter.algorithm());
+        return false;
+    }
+
+    private static DnaRecord newRecord(byte[] dnaHash, byte[] dnaBases, boolean isMutant) {
+        DnaRecord record = new DnaRecord(dnaHash, isMutant);
+        record.setDnaBases(dnaBases);
+        return record;
+    }
+
+    /**
+     * ADN distinto dentro de un lote y las posiciones del request donde aparece.
+     */
+    private static final class BatchEntry {
+
+        private final byte[] hash;
+        private final byte[] bases;
+        private final String[] dna;
+        private final List<Integer> indexes = new ArrayList<>(1);
+        private boolean mutant;
+        private boolean isNew;
 
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new DnaHashCalculationException("Error al calcular hash SHA-256", e);
+        private BatchEntry(byte[] hash, byte[] bases, String[] dna) {
+            this.hash = hash;
+            this.bases = bases;
+            this.dna = dna;
         }
     }
-}
\ No newline at end of file
+}
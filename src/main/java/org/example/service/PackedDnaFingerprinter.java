@@ -0,0 +1,65 @@
+package org.example.service;
+
+import org.example.validation.DnaBases;
+
+/**
+ * Murmur3 x64 de 128 bits sobre la codificación de 2 bits por base.
+ *
+ * Cada fila se empaqueta como en PackedDnaMatrix (32 bases por palabra, fila completada
+ * con ceros hasta la palabra) y se mezclan palabras de 64 bits: 8 veces menos datos que
+ * hashear un byte por carácter. El tamaño de la fila entra al final para distinguir
+ * matrices cuyo relleno coincide.
+ */
+public class PackedDnaFingerprinter implements DnaFingerprinter {
+
+    public static final String ALGORITHM = "packed";
+
+    @Override
+    public String algorithm() {
+        return ALGORITHM;
+    }
+
+    @Override
+    public int hashLength() {
+        return 16;
+    }
+
+    @Override
+    public Session newSession() {
+        return new PackedSession();
+    }
+
+    private static final class PackedSession implements Session {
+
+        private final Murmur3Hasher hasher = new Murmur3Hasher();
+        private int rowLength = -1;
+
+        @Override
+        public void updateRow(CharSequence row) {
+            final int n = row.length();
+            if (rowLength < 0) {
+                rowLength = n;
+            }
+
+            long word = 0;
+            int lane = 0;
+            for (int col = 0; col < n; col++) {
+                word |= (long) DnaBases.code(row.charAt(col)) << (lane << 1);
+                if (++lane == PackedDnaMatrix.BASES_PER_WORD) {
+                    hasher.putLong(word);
+                    word = 0;
+                    lane = 0;
+                }
+            }
+            if (lane > 0) {
+                hasher.putLong(word);
+            }
+        }
+
+        @Override
+        public byte[] finish() {
+            hasher.putLong(rowLength);
+            return hasher.finish();
+        }
+    }
+}
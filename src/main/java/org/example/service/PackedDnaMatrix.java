@@ -0,0 +1,218 @@
+package org.example.service;
+
+import org.example.validation.DnaBases;
+
+/**
+ * Matriz de ADN empaquetada a 2 bits por base.
+ *
+ * Cada fila ocupa {@code wordsPerRow} palabras {@code long} consecutivas (32 bases por palabra)
+ * y las filas se guardan una detrás de otra en un único {@code long[]}.
+ * La base de la columna {@code c} vive en los bits {@code 2*(c % 32)} y {@code 2*(c % 32)+1}
+ * de la palabra {@code c / 32} de su fila.
+ *
+ * Codificación: A=00, C=01, G=10, T=11.
+ *
+ * Las secuencias de 4 bases iguales se buscan con operaciones shift-and-mask sobre palabras
+ * completas, evaluando 32 posiciones de inicio a la vez en cada dirección.
+ * Ocupa 8 veces menos memoria que la conversión a char[][].
+ *
+ * {@link #window(int)} guarda solo las últimas 4 filas en un anillo (la fila {@code r} vive en
+ * la posición {@code r & 3}): alcanza para cerrar las secuencias si las filas llegan en orden,
+ * con memoria O(N) en lugar de O(N²).
+ */
+public final class PackedDnaMatrix {
+
+    public static final int SEQUENCE_LENGTH = 4;
+
+    static final int BASES_PER_WORD = 32;
+
+    /** Bit bajo de cada carril de 2 bits */
+    static final long LOW_BITS = 0x5555_5555_5555_5555L;
+
+    /** Máscara de fila de la ventana: cada fila se guarda en {@code row & WINDOW_MASK} */
+    private static final int WINDOW_MASK = SEQUENCE_LENGTH - 1;
+
+    private final int n;
+    private final int wordsPerRow;
+    private final int rowMask;
+    private final long[] words;
+
+    public PackedDnaMatrix(int n) {
+        this(n, n, -1);
+    }
+
+    private PackedDnaMatrix(int n, int storedRows, int rowMask) {
+        this.n = n;
+        this.wordsPerRow = (n + BASES_PER_WORD - 1) / BASES_PER_WORD;
+        this.rowMask = rowMask;
+        this.words = new long[storedRows * wordsPerRow];
+    }
+
+    /**
+     * Matriz de N columnas que guarda solo las últimas 4 filas.
+     * Las filas deben codificarse en orden y cada una contarse antes de codificar la fila r+4.
+     */
+    public static PackedDnaMatrix window(int n) {
+        return new PackedDnaMatrix(n, SEQUENCE_LENGTH, WINDOW_MASK);
+    }
+
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Valida y codifica una fila en su tramo de palabras, en una sola pasada.
+     * Retorna false en el primer carácter inválido o si la fila no tiene largo N.
+     */
+    public boolean packRow(int row, CharSequence bases) {
+        if (bases == null || bases.length() != n) {
+            return false;
+        }
+
+        final int base = offset(row);
+        long word = 0;
+        int lane = 0;
+        int wordIndex = base;
+
+        for (int col = 0; col < n; col++) {
+            final int code = DnaBases.code(bases.charAt(col));
+            if (code < 0) {
+                return false; // Carácter inválido
+            }
+            word |= (long) code << (lane << 1);
+            if (++lane == BASES_PER_WORD) {
+                words[wordIndex++] = word;
+                word = 0;
+                lane = 0;
+            }
+        }
+        if (lane > 0) {
+            words[wordIndex] = word;
+        }
+        return true;
+    }
+
+    /**
+     * Cuenta las secuencias cuya última fila es {@code row}:
+     * - Horizontal (→) dentro de la fila
+     * - Vertical (↓) y Diagonal Descendente (↘) que empiezan en {@code row - 3}
+     * - Diagonal Ascendente (↗) que empieza en {@code row} y sube hasta {@code row - 3}
+     *
+     * Recorriendo las filas en orden cada secuencia se cuenta exactamente una vez.
+     * Deja de contar en cuanto alcanza {@code limit} (Early Termination).
+     */
+    public int countSequencesEndingAt(int row, int limit) {
+        int count = countHorizontal(row, limit);
+        if (count >= limit || row < SEQUENCE_LENGTH - 1) {
+            return count;
+        }
+
+        final int top = row - (SEQUENCE_LENGTH - 1);
+        for (int w = 0; w < wordsPerRow && count < limit; w++) {
+            final long startLanes = startLaneMask(w);
+
+            // Vertical (↓): misma palabra en las 4 filas
+            final long first = words[offset(top) + w];
+            count += Long.bitCount(equalLanes(first,
+                    words[offset(top + 1) + w],
+                    words[offset(top + 2) + w],
+                    words[offset(top + 3) + w]) & columnLaneMask(w));
+
+            // Diagonal Descendente (↘): cada fila desplazada una base más
+            count += Long.bitCount(equalLanes(first,
+                    shiftedWord(top + 1, w, 1),
+                    shiftedWord(top + 2, w, 2),
+                    shiftedWord(top + 3, w, 3)) & startLanes);
+
+            // Diagonal Ascendente (↗): empieza abajo y sube hacia la derecha
+            count += Long.bitCount(equalLanes(words[offset(row) + w],
+                    shiftedWord(row - 1, w, 1),
+                    shiftedWord(row - 2, w, 2),
+                    shiftedWord(row - 3, w, 3)) & startLanes);
+        }
+
+        return count;
+    }
+
+    private int countHorizontal(int row, int limit) {
+        int count = 0;
+        for (int w = 0; w < wordsPerRow && count < limit; w++) {
+            count += Long.bitCount(equalLanes(words[offset(row) + w],
+                    shiftedWord(row, w, 1),
+                    shiftedWord(row, w, 2),
+                    shiftedWord(row, w, 3)) & startLaneMask(w));
+        }
+        return count;
+    }
+
+    /**
+     * Devuelve la palabra {@code w} de la fila vista {@code offset} bases a la derecha:
+     * el carril {@code i} del resultado contiene la base de la columna {@code 32*w + i + offset}.
+     */
+    private long shiftedWord(int row, int w, int offset) {
+        return shiftedWord(words, offset(row) + w, w + 1 == wordsPerRow, offset);
+    }
+
+    /**
+     * Palabra {@code words[index]} desplazada {@code offset} bases (de 1 a 31), completada con la
+     * palabra siguiente de la fila salvo que {@code index} sea la última.
+     * Compartida con PackedRulesDetector.
+     */
+    static long shiftedWord(long[] words, int index, boolean lastWord, int offset) {
+        final long low = words[index] >>> (offset << 1);
+        if (lastWord) {
+            return low;
+        }
+        return low | (words[index + 1] << (64 - (offset << 1)));
+    }
+
+    /**
+     * Primera palabra de la fila: {@code row} en la matriz completa, {@code row & 3} en la ventana.
+     */
+    private int offset(int row) {
+        return (row & rowMask) * wordsPerRow;
+    }
+
+    /**
+     * Marca con el bit bajo de cada carril las posiciones donde las 4 palabras tienen la misma base.
+     */
+    private static long equalLanes(long a, long b, long c, long d) {
+        return equalLanes((a ^ b) | (a ^ c) | (a ^ d));
+    }
+
+    /**
+     * Marca con el bit bajo de cada carril las posiciones sin ninguna diferencia en {@code diff}
+     * (el OR de los XOR contra la primera palabra).
+     */
+    static long equalLanes(long diff) {
+        return ~(diff | (diff >>> 1)) & LOW_BITS;
+    }
+
+    /**
+     * Carriles de la palabra {@code w} donde puede empezar una secuencia hacia la derecha
+     * (columna {@code <= n - 4}).
+     */
+    private long startLaneMask(int w) {
+        return laneMask(n - (SEQUENCE_LENGTH - 1) - w * BASES_PER_WORD);
+    }
+
+    /**
+     * Carriles de la palabra {@code w} que corresponden a columnas reales (columna {@code < n}).
+     */
+    private long columnLaneMask(int w) {
+        return laneMask(n - w * BASES_PER_WORD);
+    }
+
+    /**
+     * Bit bajo de los primeros {@code lanes} carriles de una palabra (ninguno si es {@code <= 0}).
+     */
+    static long laneMask(int lanes) {
+        if (lanes <= 0) {
+            return 0L;
+        }
+        if (lanes >= BASES_PER_WORD) {
+            return LOW_BITS;
+        }
+        return LOW_BITS & ((1L << (lanes << 1)) - 1);
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.service;
+
+import org.example.validation.DnaBases;
+
+/**
+ * Regla por defecto (4 bases iguales, más de una secuencia, A/C/G/T, 4 direcciones) sobre
+ * PackedDnaMatrix.window: 2 bits por base y comparaciones de 32 posiciones por operación.
+ */
+final class PackedRowDetector implements RowDetector {
+
+    private final int n;
+    private final PackedDnaMatrix window;
+    private int sequenceCount;
+
+    PackedRowDetector(int n) {
+        this.n = n;
+        this.window = PackedDnaMatrix.window(n);
+    }
+
+    @Override
+    public boolean acceptRow(int row, CharSequence bases) {
+        if (sequenceCount > 1) {
+            // Ya es mutante: el resto de las filas solo se valida, sin codificar
+            return DnaBases.isValidRow(bases, n);
+        }
+        // Valida y codifica la fila; la fila queda lista para cerrar sus secuencias
+        if (!window.packRow(row, bases)) {
+            return false;
+        }
+        sequenceCount += window.countSequencesEndingAt(row, 2 - sequenceCount);
+        return true;
+    }
+
+    @Override
+    public boolean isMutant() {
+        return sequenceCount > 1;
+    }
+}
@@ -0,0 +1,174 @@
+package org.example.service;
+
+import static org.example.service.PackedDnaMatrix.BASES_PER_WORD;
+import static org.example.service.PackedDnaMatrix.equalLanes;
+import static org.example.service.PackedDnaMatrix.laneMask;
+
+/**
+ * Reglas con alfabeto de hasta 4 bases y K hasta 32, con el mismo esquema que PackedDnaMatrix:
+ * 2 bits por base (el código es la posición en el alfabeto) y shift-and-mask sobre palabras
+ * {@code long}, 32 posiciones de inicio por operación.
+ *
+ * Guarda un anillo con las últimas K filas (redondeado a potencia de 2, la fila {@code r} en
+ * {@code r & rowMask}). Una secuencia de K bases cuyo inicio está en la palabra {@code w}
+ * termina a lo sumo en la palabra {@code w + 1}, por eso K no puede superar 32.
+ *
+ * Por posición de inicio se hacen K-1 comparaciones XOR contra la fila (o palabra) desplazada:
+ * el costo crece con K pero sigue siendo por palabra, no por base.
+ */
+final class PackedRulesDetector implements RowDetector {
+
+    static final int MAX_SEQUENCE_LENGTH = 32;
+    static final int MAX_ALPHABET_SIZE = 4;
+
+    private final DetectionRules rules;
+    private final int n;
+    private final int sequenceLength;
+    private final int minSequences;
+    private final boolean horizontalEnabled;
+    private final boolean verticalEnabled;
+    private final boolean diagonalEnabled;
+    private final boolean antiDiagonalEnabled;
+    private final int wordsPerRow;
+    private final int rowMask;
+    private final long[] words;
+
+    private int sequenceCount;
+
+    PackedRulesDetector(DetectionRules rules, int n) {
+        if (!supports(rules)) {
+            throw new IllegalArgumentException("Packed detection needs at most " + MAX_ALPHABET_SIZE
+                    + " bases and sequences up to " + MAX_SEQUENCE_LENGTH + ": " + rules);
+        }
+        this.rules = rules;
+        this.n = n;
+        this.sequenceLength = rules.getSequenceLength();
+        this.minSequences = rules.getMinSequences();
+        this.horizontalEnabled = rules.has(DetectionRules.Direction.HORIZONTAL);
+        this.verticalEnabled = rules.has(DetectionRules.Direction.VERTICAL);
+        this.diagonalEnabled = rules.has(DetectionRules.Direction.DIAGONAL);
+        this.antiDiagonalEnabled = rules.has(DetectionRules.Direction.ANTI_DIAGONAL);
+        this.wordsPerRow = (n + BASES_PER_WORD - 1) / BASES_PER_WORD;
+        final int ringRows = Integer.highestOneBit(sequenceLength - 1) << 1;
+        this.rowMask = ringRows - 1;
+        this.words = new long[ringRows * wordsPerRow];
+    }
+
+    static boolean supports(DetectionRules rules) {
+        return rules.getAlphabet().length() <= MAX_ALPHABET_SIZE
+                && rules.getSequenceLength() <= MAX_SEQUENCE_LENGTH;
+    }
+
+    @Override
+    public boolean acceptRow(int row, CharSequence bases) {
+        if (sequenceCount >= minSequences) {
+            // Ya es mutante: el resto de las filas solo se valida, sin codificar
+            return rules.isValidRow(bases, n);
+        }
+        if (!packRow(row, bases)) {
+            return false;
+        }
+        sequenceCount += countSequencesEndingAt(row, minSequences - sequenceCount);
+        return true;
+    }
+
+    @Override
+    public boolean isMutant() {
+        return sequenceCount >= minSequences;
+    }
+
+    private boolean packRow(int row, CharSequence bases) {
+        if (bases == null || bases.length() != n) {
+            return false;
+        }
+
+        long word = 0;
+        int lane = 0;
+        int wordIndex = offset(row);
+
+        for (int col = 0; col < n; col++) {
+            final int code = rules.code(bases.charAt(col));
+            if (code < 0) {
+                return false; // Base fuera del alfabeto
+            }
+            word |= (long) code << (lane << 1);
+            if (++lane == BASES_PER_WORD) {
+                words[wordIndex++] = word;
+                word = 0;
+                lane = 0;
+            }
+        }
+        if (lane > 0) {
+            words[wordIndex] = word;
+        }
+        return true;
+    }
+
+    /**
+     * Igual que PackedDnaMatrix.countSequencesEndingAt con K bases y solo las direcciones habilitadas.
+     */
+    private int countSequencesEndingAt(int row, int limit) {
+        final int last = sequenceLength - 1;
+        final boolean columnsClosed = row >= last;
+        final int top = row - last;
+        int count = 0;
+
+        for (int w = 0; w < wordsPerRow && count < limit; w++) {
+            final long startLanes = startLaneMask(w);
+            final long current = words[offset(row) + w];
+
+            if (horizontalEnabled) {
+                long diff = 0;
+                for (int k = 1; k <= last; k++) {
+                    diff |= current ^ shiftedWord(row, w, k);
+                }
+                count += Long.bitCount(equalLanes(diff) & startLanes);
+            }
+            if (!columnsClosed) {
+                continue;
+            }
+
+            final long first = words[offset(top) + w];
+            if (verticalEnabled) {
+                long diff = 0;
+                for (int k = 1; k <= last; k++) {
+                    diff |= first ^ words[offset(top + k) + w];
+                }
+                count += Long.bitCount(equalLanes(diff) & laneMask(n - w * BASES_PER_WORD));
+            }
+            if (diagonalEnabled) {
+                long diff = 0;
+                for (int k = 1; k <= last; k++) {
+                    diff |= first ^ shiftedWord(top + k, w, k);
+                }
+                count += Long.bitCount(equalLanes(diff) & startLanes);
+            }
+            if (antiDiagonalEnabled) {
+                long diff = 0;
+                for (int k = 1; k <= last; k++) {
+                    diff |= current ^ shiftedWord(row - k, w, k);
+                }
+                count += Long.bitCount(equalLanes(diff) & startLanes);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Palabra {@code w} de la fila vista {@code shift} bases a la derecha (shift de 1 a 31).
+     */
+    private long shiftedWord(int row, int w, int shift) {
+        return PackedDnaMatrix.shiftedWord(words, offset(row) + w, w + 1 == wordsPerRow, shift);
+    }
+
+    private int offset(int row) {
+        return (row & rowMask) * wordsPerRow;
+    }
+
+    /**
+     * Carriles de la palabra {@code w} donde puede empezar una secuencia hacia la derecha.
+     */
+    private long startLaneMask(int w) {
+        return laneMask(n - (sequenceLength - 1) - w * BASES_PER_WORD);
+    }
+}
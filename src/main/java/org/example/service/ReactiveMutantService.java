@@ -0,0 +1,137 @@
+package org.example.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.entity.DnaRecordRow;
+import org.example.repository.ReactiveDnaRecordRepository;
+import org.example.repository.ReactiveDnaRecordWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Arrays;
+
+/**
+ * Variante no bloqueante de MutantService para el perfil reactive (WebFlux + R2DBC).
+ *
+ * Mismo flujo y mismo resultado que analyzeDna: caché en memoria, caché en BD y detección.
+ * La BD se consulta por R2DBC y la detección corre en un scheduler acotado a la cantidad
+ * de CPUs, así el event loop nunca queda ocupado analizando una matriz.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveMutantService {
+
+    private final MutantDetector mutantDetector;
+    private final ReactiveDnaRecordRepository dnaRecordRepository;
+    private final ReactiveDnaRecordWriter dnaRecordWriter;
+    private final DnaResultCache dnaResultCache;
+    private final StatsService statsService;
+    private final DnaFingerprinter dnaFingerprinter;
+    private final DnaHashBloomFilter hashFilter;
+    private final DnaMetrics dnaMetrics;
+    private final Scheduler dnaDetectionScheduler;
+
+    @Value("${dna.fingerprint.verify:false}")
+    private boolean verifyFingerprints;
+
+    /**
+     * Analiza un ADN y determina si es mutante.
+     *
+     * Flujo:
+     * 1. Calcular huella del DNA (en el scheduler de detección: es O(N²), no va en el event loop)
+     * 2. Buscar en caché en memoria
+     * 3. Buscar en BD (R2DBC), salvo que el filtro Bloom asegure que no está
+     * 4. Si existe → retornar resultado cacheado
+     * 5. Si no existe → analizar en el scheduler de detección, guardar y retornar
+     */
+    public Mono<Boolean> analyzeDna(String[] dna) {
+        return Mono.fromCallable(() -> fingerprint(dna))
+                .subscribeOn(dnaDetectionScheduler)
+                .flatMap(fingerprint -> resolve(dna, fingerprint.hash(), fingerprint.bases()));
+    }
+
+    private Fingerprint fingerprint(String[] dna) {
+        final long start = System.nanoTime();
+        final byte[] dnaHash = dnaFingerprinter.fingerprint(dna);
+        dnaMetrics.recordPhase(DnaMetrics.Phase.HASH, start);
+        dnaMetrics.recordMatrixSize(dna.length);
+        return new Fingerprint(dnaHash, verifyFingerprints ? CompactDnaEncoding.encode(dna) : null);
+    }
+
+    private Mono<Boolean> resolve(String[] dna, byte[] dnaHash, byte[] dnaBases) {
+        if (verifyFingerprints && dnaBases == null) {
+            // N > CompactDnaEncoding.MAX_SIZE: no se puede verificar, se analiza como una colisión
+            return detect(dna).doOnNext(dnaMetrics::recordResult);
+        }
+        Boolean cachedResult = verifyFingerprints ? null : dnaResultCache.get(dnaHash);
+        if (cachedResult != null) {
+            dnaMetrics.recordResult(cachedResult);
+            return Mono.just(cachedResult);
+        }
+
+        Mono<DnaRecordRow> existingRecord = hashFilter.mightContain(dnaHash)
+                ? dnaRecordRepository.findByDnaHash(dnaHash)
+                : Mono.empty();
+
+        return existingRecord
+                .flatMap(existing -> {
+                    if (isSameDna(existing, dnaBases)) {
+                        dnaResultCache.put(dnaHash, existing.isMutant());
+                        return Mono.just(existing.isMutant());
+                    }
+                    // Colisión: otro ADN con la misma huella, se analiza sin guardar
+                    return detect(dna);
+                })
+                .switchIfEmpty(Mono.defer(() -> detect(dna)
+                        .flatMap(isMutant -> persist(dnaHash, dnaBases, isMutant))))
+                .doOnNext(dnaMetrics::recordResult);
+    }
+
+    private Mono<Boolean> detect(String[] dna) {
+        return Mono.fromCallable(() -> {
+                    long start = System.nanoTime();
+                    boolean isMutant = mutantDetector.isMutant(dna);
+                    dnaMetrics.recordPhase(DnaMetrics.Phase.DETECT, start);
+                    return isMutant;
+                })
+                .subscribeOn(dnaDetectionScheduler);
+    }
+
+    /**
+     * Guarda el registro (ignorando el duplicado si otro request lo insertó antes)
+     * y actualiza los contadores de /stats solo si el insert ocurrió.
+     */
+    private Mono<Boolean> persist(byte[] dnaHash, byte[] dnaBases, boolean isMutant) {
+        hashFilter.put(dnaHash);
+        return dnaRecordWriter.insertIgnoringDuplicate(dnaHash, dnaBases, isMutant)
+                .map(inserted -> {
+                    if (inserted) {
+                        statsService.recordInsert(isMutant);
+                    }
+                    dnaResultCache.put(dnaHash, isMutant);
+                    return isMutant;
+                });
+    }
+
+    private boolean isSameDna(DnaRecordRow existing, byte[] dnaBases) {
+        if (!verifyFingerprints || dnaBases == null || existing.getDnaBases() == null) {
+            return true;
+        }
+        if (Arrays.equals(existing.getDnaBases(), dnaBases)) {
+            return true;
+        }
+        log.warn("Fingerprint collision detected ({}), analyzing without cache", dnaFingerprinter.algorithm());
+        return false;
+    }
+
+    /**
+     * Huella y, con verificación activa, el ADN codificado a 2 bits.
+     */
+    private record Fingerprint(byte[] hash, byte[] bases) {
+    }
+}
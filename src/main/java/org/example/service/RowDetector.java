@@ -0,0 +1,38 @@
+package org.example.service;
+
+/**
+ * Detección de un ADN de N columnas recibiendo las filas en orden, de a una.
+ *
+ * Cada implementación guarda solo el estado necesario para cerrar las secuencias que terminan
+ * en la fila actual (memoria O(N)). Una vez encontradas las secuencias necesarias, acceptRow
+ * solo valida.
+ */
+interface RowDetector {
+
+    /**
+     * Valida la fila {@code row} y cuenta las secuencias que terminan en ella.
+     * Retorna false si la fila no tiene largo N o tiene una base fuera del alfabeto.
+     */
+    boolean acceptRow(int row, CharSequence bases);
+
+    /**
+     * true si ya se encontraron al menos minSequences secuencias.
+     */
+    boolean isMutant();
+
+    /**
+     * Elige la implementación para las reglas:
+     * - Regla por defecto: PackedRowDetector (K=4 fijo, la misma ventana que MutantDetector)
+     * - Alfabeto de hasta 4 bases y K hasta 32: PackedRulesDetector (2 bits por base, shift-and-mask)
+     * - Cualquier otra: RunLengthRowDetector (rachas por columna, sin límite de alfabeto)
+     */
+    static RowDetector forRules(DetectionRules rules, int n) {
+        if (rules.isDefault()) {
+            return new PackedRowDetector(n);
+        }
+        if (PackedRulesDetector.supports(rules)) {
+            return new PackedRulesDetector(rules, n);
+        }
+        return new RunLengthRowDetector(rules, n);
+    }
+}
@@ -0,0 +1,131 @@
+package org.example.service;
+
+import java.util.Arrays;
+
+/**
+ * Detección por run-lengths acumulados: lee cada celda una sola vez, en orden de filas.
+ *
+ * Para cada columna se guarda el largo de la racha de bases iguales que termina en la fila
+ * anterior, en 3 direcciones (↓, ↘ y ↗), más la base de esa fila. La racha horizontal (→)
+ * se lleva en una variable mientras se recorre la fila. Al leer la celda (r, c):
+ * - Vertical: se extiende si coincide con (r-1, c)
+ * - Diagonal Descendente: se extiende si coincide con (r-1, c-1); ese valor ya se pisó con
+ *   el de la fila r, así que se guarda antes en upLeft / upLeftDiagonal
+ * - Diagonal Ascendente: se extiende si coincide con (r-1, c+1), que todavía no se pisó
+ *
+ * Las rachas se topan en K: cada celda con racha K cierra una secuencia, así una racha de K+1
+ * cuenta 2 secuencias solapadas, igual que PackedDnaMatrix.countSequencesEndingAt.
+ *
+ * Sirve para cualquier regla (K hasta 64, alfabeto de hasta 26 letras): es el camino genérico
+ * de RowDetector.forRules y el de dna.detector.algorithm=run-length.
+ * Memoria O(N) (4 arrays de N+1 bytes).
+ */
+final class RunLengthRowDetector implements RowDetector {
+
+    private static final byte NONE = -1;
+
+    private final DetectionRules rules;
+    private final int n;
+    private final int sequenceLength;
+    private final int minSequences;
+    private final boolean horizontalEnabled;
+    private final boolean verticalEnabled;
+    private final boolean diagonalEnabled;
+    private final boolean antiDiagonalEnabled;
+
+    // Una columna extra (n) a la derecha: la ↗ de la última columna lee (r-1, n), que nunca coincide
+    private final byte[] above;
+    private final byte[] vertical;
+    private final byte[] diagonal;
+    private final byte[] antiDiagonal;
+
+    private int sequenceCount;
+
+    RunLengthRowDetector(DetectionRules rules, int n) {
+        this.rules = rules;
+        this.n = n;
+        this.sequenceLength = rules.getSequenceLength();
+        this.minSequences = rules.getMinSequences();
+        this.horizontalEnabled = rules.has(DetectionRules.Direction.HORIZONTAL);
+        this.verticalEnabled = rules.has(DetectionRules.Direction.VERTICAL);
+        this.diagonalEnabled = rules.has(DetectionRules.Direction.DIAGONAL);
+        this.antiDiagonalEnabled = rules.has(DetectionRules.Direction.ANTI_DIAGONAL);
+        this.above = new byte[n + 1];
+        this.vertical = new byte[n + 1];
+        this.diagonal = new byte[n + 1];
+        this.antiDiagonal = new byte[n + 1];
+        Arrays.fill(above, NONE);
+    }
+
+    @Override
+    public boolean acceptRow(int row, CharSequence bases) {
+        if (sequenceCount >= minSequences) {
+            // Ya es mutante: el resto de las filas solo se valida
+            return rules.isValidRow(bases, n);
+        }
+        if (bases == null || bases.length() != n) {
+            return false;
+        }
+
+        int left = NONE;
+        int horizontal = 0;
+        int upLeft = NONE;
+        int upLeftDiagonal = 0;
+
+        for (int col = 0; col < n; col++) {
+            final int code = rules.code(bases.charAt(col));
+            if (code < 0) {
+                return false;
+            }
+
+            final int up = above[col];
+            horizontal = code == left ? extend(horizontal) : 1;
+            final int down = code == up ? extend(vertical[col]) : 1;
+            final int downRight = code == upLeft ? extend(upLeftDiagonal) : 1;
+            final int upRight = code == above[col + 1] ? extend(antiDiagonal[col + 1]) : 1;
+
+            // Guardar (r-1, c) antes de pisarlo: es el up-left de la columna siguiente
+            upLeft = up;
+            upLeftDiagonal = diagonal[col];
+
+            above[col] = (byte) code;
+            vertical[col] = (byte) down;
+            diagonal[col] = (byte) downRight;
+            antiDiagonal[col] = (byte) upRight;
+            left = code;
+
+            if (horizontalEnabled && horizontal == sequenceLength) {
+                sequenceCount++;
+            }
+            if (verticalEnabled && down == sequenceLength) {
+                sequenceCount++;
+            }
+            if (diagonalEnabled && downRight == sequenceLength) {
+                sequenceCount++;
+            }
+            if (antiDiagonalEnabled && upRight == sequenceLength) {
+                sequenceCount++;
+            }
+
+            if (sequenceCount >= minSequences) {
+                // Early Termination: el resto de la fila solo se valida
+                for (int rest = col + 1; rest < n; rest++) {
+                    if (rules.code(bases.charAt(rest)) < 0) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isMutant() {
+        return sequenceCount >= minSequences;
+    }
+
+    private int extend(int run) {
+        return Math.min(run + 1, sequenceLength);
+    }
+}
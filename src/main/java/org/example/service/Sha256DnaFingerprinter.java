@@ -0,0 +1,81 @@
+package org.example.service;
+
+import org.example.exception.DnaHashCalculationException;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 del ADN concatenado, el mismo valor que se guardaba antes de tener huellas configurables.
+ *
+ * El MessageDigest se clona de un prototipo en vez de buscarlo en los providers en cada request.
+ */
+public class Sha256DnaFingerprinter implements DnaFingerprinter {
+
+    public static final String ALGORITHM = "sha256";
+
+    private final MessageDigest prototype;
+
+    public Sha256DnaFingerprinter() {
+        this.prototype = newDigest();
+    }
+
+    @Override
+    public String algorithm() {
+        return ALGORITHM;
+    }
+
+    @Override
+    public int hashLength() {
+        return 32;
+    }
+
+    @Override
+    public Session newSession() {
+        return new Sha256Session(copyPrototype());
+    }
+
+    private MessageDigest copyPrototype() {
+        try {
+            return (MessageDigest) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            return newDigest();
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new DnaHashCalculationException("Error al calcular hash SHA-256", e);
+        }
+    }
+
+    private static final class Sha256Session implements Session {
+
+        private final MessageDigest digest;
+        private byte[] rowBytes = new byte[0];
+
+        private Sha256Session(MessageDigest digest) {
+            this.digest = digest;
+        }
+
+        @Override
+        public void updateRow(CharSequence row) {
+            final int length = row.length();
+            if (rowBytes.length < length) {
+                rowBytes = new byte[length];
+            }
+            // Fila validada: todos los caracteres son ASCII, igual que en UTF-8
+            for (int col = 0; col < length; col++) {
+                rowBytes[col] = (byte) row.charAt(col);
+            }
+            digest.update(rowBytes, 0, length);
+        }
+
+        @Override
+        public byte[] finish() {
+            return digest.digest();
+        }
+    }
+}
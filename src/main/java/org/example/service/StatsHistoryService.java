@@ -0,0 +1,309 @@
+package org.example.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dto.StatsBucket;
+import org.example.dto.StatsHistoryResponse;
+import org.example.entity.DnaStatsRollup;
+import org.example.entity.StatsGranularity;
+import org.example.exception.InvalidStatsQueryException;
+import org.example.repository.DnaStatsRollupRepository;
+import org.example.repository.DnaStatsRollupWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Historial de /stats por buckets de tiempo, servido desde dna_stats_rollup.
+ *
+ * Cada insert suma 1 al bucket de minuto, hora y día en memoria; un hilo aparte suma
+ * esos deltas a la tabla cada flush-interval (upsert incremental, válido con varias
+ * instancias). La consulta lee los buckets del rango y les agrega lo que todavía no se
+ * escribió, así que nunca agrupa sobre dna_records.
+ *
+ * También da los totales de /stats: la suma de los buckets de día (releída en cada
+ * flush-interval, incluye lo escrito por las otras instancias) más los deltas de esta
+ * instancia sin escribir. La tabla no se toca al eliminar particiones, así que los
+ * registros ya eliminados por la retención siguen contando.
+ *
+ * El bucket se elige con la hora del insert en esta instancia (la misma zona que
+ * DnaRecord.createdAt); con write-behind puede diferir del createdAt en lo que tarda el lote.
+ */
+@Slf4j
+@Service
+public class StatsHistoryService {
+
+    static final int MAX_BUCKETS = 10_000;
+
+    private static final int MUTANT = 0;
+    private static final int HUMAN = 1;
+
+    private final DnaStatsRollupRepository rollupRepository;
+    private final DnaStatsRollupWriter rollupWriter;
+    private final Duration flushInterval;
+
+    // Deltas sin escribir; cada long[] solo se modifica dentro de compute() de su clave
+    private final ConcurrentHashMap<BucketKey, long[]> pending = new ConcurrentHashMap<>();
+    // Flush (escritura) vs consultas (lectura): una consulta nunca ve un delta ya sacado de
+    // pending y todavía sin commitear
+    private final ReadWriteLock flushLock = new ReentrantReadWriteLock();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+
+    // Suma de los buckets de día ya escritos {mutantes, humanos}; se lee y escribe con flushLock
+    private final long[] storedTotals = new long[2];
+
+    private ScheduledExecutorService flusher;
+
+    public StatsHistoryService(
+            DnaStatsRollupRepository rollupRepository,
+            DnaStatsRollupWriter rollupWriter,
+            @Value("${dna.stats.history.flush-interval:5s}") Duration flushInterval) {
+        this.rollupRepository = rollupRepository;
+        this.rollupWriter = rollupWriter;
+        this.flushInterval = flushInterval;
+    }
+
+    @PostConstruct
+    void start() {
+        refreshTotals();
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dna-stats-rollup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushAndRefreshQuietly,
+                flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Suma un registro recién insertado a sus buckets. Solo toca memoria.
+     */
+    public void recordInsert(boolean isMutant, LocalDateTime insertedAt) {
+        final int index = isMutant ? MUTANT : HUMAN;
+        for (StatsGranularity granularity : StatsGranularity.values()) {
+            pending.compute(new BucketKey(granularity, granularity.truncate(insertedAt)), (key, counts) -> {
+                long[] updated = counts != null ? counts : new long[2];
+                updated[index]++;
+                return updated;
+            });
+        }
+    }
+
+    /**
+     * Escribe los deltas pendientes. Si falla, vuelven a pending para el próximo flush.
+     */
+    public void flush() {
+        flushLock.writeLock().lock();
+        try {
+            List<DnaStatsRollup> deltas = new ArrayList<>();
+            for (BucketKey key : pending.keySet()) {
+                long[] counts = pending.remove(key);
+                if (counts != null) {
+                    deltas.add(new DnaStatsRollup(key.granularity(), key.start(), counts[MUTANT], counts[HUMAN]));
+                }
+            }
+            if (deltas.isEmpty()) {
+                return;
+            }
+
+            try {
+                rollupWriter.addCounts(deltas);
+                flushes.incrementAndGet();
+                for (DnaStatsRollup delta : deltas) {
+                    if (delta.getGranularity() == StatsGranularity.DAY) {
+                        storedTotals[MUTANT] += delta.getMutantCount();
+                        storedTotals[HUMAN] += delta.getHumanCount();
+                    }
+                }
+            } catch (RuntimeException e) {
+                failedFlushes.incrementAndGet();
+                for (DnaStatsRollup delta : deltas) {
+                    restore(delta);
+                }
+                throw e;
+            }
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Vuelve a leer la suma de los buckets de día: incluye lo que escribieron las otras instancias.
+     * Con el write lock ningún delta está a la vez fuera de pending y sin sumar.
+     */
+    public void refreshTotals() {
+        flushLock.writeLock().lock();
+        try {
+            DnaStatsRollupRepository.Totals totals = rollupRepository.sumCounts(StatsGranularity.DAY);
+            storedTotals[MUTANT] = totals.getMutantCount();
+            storedTotals[HUMAN] = totals.getHumanCount();
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Total de registros guardados por todas las instancias {mutantes, humanos}: la suma de
+     * los buckets de día leída en el último flush-interval más los deltas de esta instancia
+     * sin escribir. Solo lee memoria.
+     */
+    public long[] totals() {
+        long[] totals = new long[2];
+        flushLock.readLock().lock();
+        try {
+            totals[MUTANT] = storedTotals[MUTANT];
+            totals[HUMAN] = storedTotals[HUMAN];
+            for (BucketKey key : pending.keySet()) {
+                if (key.granularity() == StatsGranularity.DAY) {
+                    pending.computeIfPresent(key, (bucket, delta) -> {
+                        totals[MUTANT] += delta[MUTANT];
+                        totals[HUMAN] += delta[HUMAN];
+                        return delta;
+                    });
+                }
+            }
+        } finally {
+            flushLock.readLock().unlock();
+        }
+        return totals;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Stats rollup flush failed, {} buckets kept for the next attempt", pending.size(), e);
+        }
+    }
+
+    private void flushAndRefreshQuietly() {
+        flushQuietly();
+        try {
+            refreshTotals();
+        } catch (RuntimeException e) {
+            log.warn("Stats totals refresh failed, keeping the previous totals", e);
+        }
+    }
+
+    private void restore(DnaStatsRollup delta) {
+        pending.compute(new BucketKey(delta.getGranularity(), delta.getBucketStart()), (key, counts) -> {
+            long[] updated = counts != null ? counts : new long[2];
+            updated[MUTANT] += delta.getMutantCount();
+            updated[HUMAN] += delta.getHumanCount();
+            return updated;
+        });
+    }
+
+    /**
+     * Historial entre {@code from} (se redondea al inicio de su bucket) y {@code to} (exclusivo).
+     *
+     * - granularity: minute, hour o day (por defecto hour)
+     * - to: por defecto ahora; from: por defecto to menos 1 hora, 1 día o 30 días según la granularidad
+     *
+     * Lanza InvalidStatsQueryException si la granularidad no existe, el rango está vacío
+     * o abarca más de MAX_BUCKETS buckets.
+     */
+    public StatsHistoryResponse getHistory(String granularityValue, LocalDateTime from, LocalDateTime to) {
+        final StatsGranularity granularity = granularityValue == null
+                ? StatsGranularity.HOUR
+                : StatsGranularity.fromValue(granularityValue).orElseThrow(() ->
+                new InvalidStatsQueryException("granularity: must be one of minute, hour, day"));
+        final LocalDateTime end = to != null ? to : LocalDateTime.now();
+        final LocalDateTime start = granularity.truncate(from != null ? from : end.minus(granularity.defaultWindow()));
+
+        if (!start.isBefore(end)) {
+            throw new InvalidStatsQueryException("from: must be before to");
+        }
+        if (granularity.bucketsBetween(start, end) > MAX_BUCKETS) {
+            throw new InvalidStatsQueryException("Range too large: at most " + MAX_BUCKETS + " "
+                    + granularity.value() + " buckets per request");
+        }
+
+        Map<LocalDateTime, long[]> counts = new HashMap<>();
+        flushLock.readLock().lock();
+        try {
+            for (DnaStatsRollup rollup : rollupRepository.findBuckets(granularity, start, end)) {
+                counts.put(rollup.getBucketStart(), new long[]{rollup.getMutantCount(), rollup.getHumanCount()});
+            }
+            for (BucketKey key : pending.keySet()) {
+                if (key.granularity() == granularity && !key.start().isBefore(start) && key.start().isBefore(end)) {
+                    long[] total = counts.computeIfAbsent(key.start(), bucket -> new long[2]);
+                    pending.computeIfPresent(key, (bucket, delta) -> {
+                        total[MUTANT] += delta[MUTANT];
+                        total[HUMAN] += delta[HUMAN];
+                        return delta;
+                    });
+                }
+            }
+        } finally {
+            flushLock.readLock().unlock();
+        }
+
+        List<StatsBucket> buckets = new ArrayList<>();
+        for (LocalDateTime bucket = start; bucket.isBefore(end); bucket = granularity.next(bucket)) {
+            long[] bucketCounts = counts.getOrDefault(bucket, new long[2]);
+            buckets.add(new StatsBucket(bucket, bucketCounts[MUTANT], bucketCounts[HUMAN],
+                    StatsService.calculateRatio(bucketCounts[MUTANT], bucketCounts[HUMAN])));
+        }
+        return new StatsHistoryResponse(granularity.value(), start, end, buckets);
+    }
+
+    /**
+     * Borra el historial y los totales (p. ej. después de /admin/clear).
+     * Las otras instancias ven los totales en 0 en el próximo flush-interval.
+     */
+    public void clear() {
+        flushLock.writeLock().lock();
+        try {
+            pending.clear();
+            rollupRepository.deleteAllInBatch();
+            storedTotals[MUTANT] = 0;
+            storedTotals[HUMAN] = 0;
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Al cerrar se escriben los deltas pendientes. Los componentes que insertan
+     * (write-behind) dependen de este y se cierran antes.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (flusher != null) {
+            flusher.shutdown();
+            flusher.awaitTermination(flushInterval.toMillis() + 1_000, TimeUnit.MILLISECONDS);
+        }
+        flushQuietly();
+    }
+
+    public int pendingBuckets() {
+        return pending.size();
+    }
+
+    public long flushCount() {
+        return flushes.get();
+    }
+
+    public long failedFlushCount() {
+        return failedFlushes.get();
+    }
+
+    private record BucketKey(StatsGranularity granularity, LocalDateTime start) {
+    }
+}
@@ -1,18 +1,34 @@
 package org.example.service;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.RequiredArgsConstructor;
 import org.example.dto.StatsResponse;
-import org.example.repository.DnaRecordRepository;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+
+/**
+ * Totales de /stats sin consultar dna_records.
+ *
+ * Los totales salen de StatsHistoryService: la suma de los buckets de día de dna_stats_rollup
+ * (compartida por todas las instancias, releída cada dna.stats.history.flush-interval) más los
+ * inserts de esta instancia que todavía no se escribieron. Con varias instancias, los inserts
+ * de las otras aparecen con a lo sumo dos flush-interval de demora (su flush y nuestra relectura).
+ */
 @Service
 @RequiredArgsConstructor
-public class StatsService {
+public class StatsService implements MeterBinder {
+
+    private static final int MUTANT = 0;
+    private static final int HUMAN = 1;
 
-    private final DnaRecordRepository dnaRecordRepository;
+    private final StatsHistoryService statsHistoryService;
 
     /**
      * Obtiene estadísticas de verificaciones de ADN.
+     * Costo O(1): lee totales en memoria, no depende del tamaño de la tabla.
      *
      * Retorna:
      * - count_mutant_dna: Cantidad de mutantes
@@ -20,8 +36,9 @@ public class StatsService {
      * - ratio: mutantes / humanos
      */
     public StatsResponse getStats() {
-        long countMutant = dnaRecordRepository.countByIsMutant(true);
-        long countHuman = dnaRecordRepository.countByIsMutant(false);
+        long[] totals = statsHistoryService.totals();
+        long countMutant = totals[MUTANT];
+        long countHuman = totals[HUMAN];
 
         // Calcular ratio
         double ratio = calculateRatio(countMutant, countHuman);
@@ -29,6 +46,30 @@ public class StatsService {
         return new StatsResponse(countMutant, countHuman, ratio);
     }
 
+    /**
+     * Suma un registro recién insertado en BD.
+     * Se llama solo cuando el insert efectivamente ocurrió (no para duplicados).
+     * Se suma a los buckets de /stats/history, de donde salen también los totales.
+     */
+    public void recordInsert(boolean isMutant) {
+        statsHistoryService.recordInsert(isMutant, LocalDateTime.now());
+    }
+
+    /**
+     * Publica los totales de /stats como gauges (dna.stats.count{type=mutant|human}).
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("dna.stats.count", statsHistoryService, history -> history.totals()[MUTANT])
+                .description("ADN guardados por resultado")
+                .tag("type", "mutant")
+                .register(registry);
+        Gauge.builder("dna.stats.count", statsHistoryService, history -> history.totals()[HUMAN])
+                .description("ADN guardados por resultado")
+                .tag("type", "human")
+                .register(registry);
+    }
+
     /**
      * Calcula el ratio: mutantes / humanos
      *
@@ -36,7 +77,7 @@ public class StatsService {
      * - Si no hay humanos y hay mutantes: retorna countMutant
      * - Si no hay ninguno: retorna 0.0
      */
-    private double calculateRatio(long countMutant, long countHuman) {
+    static double calculateRatio(long countMutant, long countHuman) {
         if (countHuman == 0) {
             return countMutant > 0 ? (double) countMutant : 0.0;
         }
@@ -0,0 +1,50 @@
+package org.example.validation;
+
+import java.util.Arrays;
+
+/**
+ * Tabla de bases válidas (A, T, C, G) compartida por la validación y la detección.
+ *
+ * Reemplaza el regex por fila y el Set&lt;Character&gt; (boxing por carácter):
+ * la búsqueda es un acceso directo a un array, sin allocations.
+ */
+public final class DnaBases {
+
+    /** Código de 2 bits de cada base, -1 si el carácter no es válido */
+    private static final byte INVALID = -1;
+    private static final byte[] CODES = new byte[128];
+
+    static {
+        Arrays.fill(CODES, INVALID);
+        CODES['A'] = 0;
+        CODES['C'] = 1;
+        CODES['G'] = 2;
+        CODES['T'] = 3;
+    }
+
+    private DnaBases() {
+    }
+
+    /**
+     * Devuelve el código de 2 bits de la base (A=0, C=1, G=2, T=3) o -1 si no es válida.
+     */
+    public static int code(char c) {
+        return c < CODES.length ? CODES[c] : INVALID;
+    }
+
+    /**
+     * Verifica que la fila tenga largo {@code n} y solo contenga A, T, C, G.
+     * Corta en el primer carácter inválido.
+     */
+    public static boolean isValidRow(CharSequence row, int n) {
+        if (row == null || row.length() != n) {
+            return false;
+        }
+        for (int col = 0; col < n; col++) {
+            if (code(row.charAt(col)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -3,17 +3,19 @@ package org.example.validation;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 
-import java.util.Set;
-import java.util.regex.Pattern;
-
 public class ValidDnaSequenceValidator implements ConstraintValidator<ValidDnaSequence, String[]> {
 
-    private static final Set<Character> VALID_BASES = Set.of('A', 'T', 'C', 'G');
-    private static final Pattern DNA_PATTERN = Pattern.compile("^[ATCG]+$");
-    private static final int MIN_SIZE = 4;
+    public static final int MIN_SIZE = 4;
 
     @Override
     public boolean isValid(String[] dna, ConstraintValidatorContext context) {
+        return isValidDna(dna);
+    }
+
+    /**
+     * Misma validación fuera de Bean Validation (p. ej. ítem por ítem en un lote).
+     */
+    public static boolean isValidDna(String[] dna) {
         if (dna == null || dna.length == 0) {
             return false;
         }
@@ -26,12 +28,9 @@ public class ValidDnaSequenceValidator implements ConstraintValidator<ValidDnaSe
         }
 
         // Validar que sea matriz cuadrada NxN y que solo contenga A, T, C, G
+        // (lookup directo por carácter, sin regex ni boxing)
         for (String row : dna) {
-            if (row == null || row.length() != n) {
-                return false;
-            }
-
-            if (!DNA_PATTERN.matcher(row).matches()) {
+            if (!DnaBases.isValidRow(row, n)) {
                 return false;
             }
         }
@@ -0,0 +1,14 @@
+-- Esquema inicial: dna_records tal como la creaba ddl-auto antes de las migraciones
+--
+-- IF NOT EXISTS: en una base creada por ddl-auto (baseline-version=0) no cambia nada
+-- y las migraciones siguientes la llevan al esquema actual.
+
+CREATE TABLE IF NOT EXISTS dna_records (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    dna_hash   varchar(64) NOT NULL UNIQUE,
+    is_mutant  boolean NOT NULL,
+    created_at timestamp(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_dna_hash ON dna_records (dna_hash);
+CREATE INDEX IF NOT EXISTS idx_is_mutant ON dna_records (is_mutant);
@@ -0,0 +1,22 @@
+-- dna_hash: varchar(64) hexadecimal -> bytea (32 bytes)
+--
+-- Si la columna ya es bytea (la migración se corrió a mano antes de usar Flyway) no hace nada.
+--
+-- Los registros de demostración (/admin/seed) no guardaban un hash hexadecimal:
+-- se convierten con el SHA-256 de su texto, igual que los genera la versión nueva.
+
+DO $$
+BEGIN
+    IF (SELECT data_type FROM information_schema.columns
+        WHERE table_name = 'dna_records' AND column_name = 'dna_hash') <> 'bytea' THEN
+        ALTER TABLE dna_records
+            ALTER COLUMN dna_hash TYPE bytea
+            USING CASE
+                WHEN dna_hash ~ '^[0-9a-f]{64}$' THEN decode(dna_hash, 'hex')
+                ELSE sha256(convert_to(dna_hash, 'UTF8'))
+            END;
+    END IF;
+END $$;
+
+-- La restricción unique de dna_hash ya tiene su propio índice
+DROP INDEX IF EXISTS idx_dna_hash;
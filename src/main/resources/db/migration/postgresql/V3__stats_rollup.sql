@@ -0,0 +1,29 @@
+-- dna_stats_rollup: conteos por minuto, hora y día para /stats/history
+--
+-- Carga el historial previo agrupando dna_records una sola vez; desde ahí se mantiene
+-- con cada insert. Si la aplicación ya venía sumando buckets (tabla creada por ddl-auto),
+-- solo se cargan los registros anteriores al primer bucket.
+
+CREATE TABLE IF NOT EXISTS dna_stats_rollup (
+    id           bigserial PRIMARY KEY,
+    granularity  varchar(8) NOT NULL,
+    bucket_start timestamp(6) NOT NULL,
+    mutant_count bigint NOT NULL,
+    human_count  bigint NOT NULL,
+    CONSTRAINT uk_stats_rollup_bucket UNIQUE (granularity, bucket_start)
+);
+
+INSERT INTO dna_stats_rollup (granularity, bucket_start, mutant_count, human_count)
+SELECT g.granularity,
+       date_trunc(g.unit, r.created_at),
+       count(*) FILTER (WHERE r.is_mutant),
+       count(*) FILTER (WHERE NOT r.is_mutant)
+FROM dna_records r
+CROSS JOIN (VALUES ('MINUTE', 'minute'), ('HOUR', 'hour'), ('DAY', 'day')) AS g (granularity, unit)
+WHERE r.created_at < COALESCE(
+        (SELECT min(bucket_start) FROM dna_stats_rollup WHERE granularity = 'MINUTE'),
+        'infinity'::timestamp)
+GROUP BY g.granularity, date_trunc(g.unit, r.created_at)
+ON CONFLICT (granularity, bucket_start) DO UPDATE SET
+    mutant_count = dna_stats_rollup.mutant_count + EXCLUDED.mutant_count,
+    human_count = dna_stats_rollup.human_count + EXCLUDED.human_count;
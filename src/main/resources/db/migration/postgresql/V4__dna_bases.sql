@@ -0,0 +1,3 @@
+-- ADN codificado a 2 bits por base (solo se llena con dna.fingerprint.verify=true)
+
+ALTER TABLE dna_records ADD COLUMN IF NOT EXISTS dna_bases bytea;
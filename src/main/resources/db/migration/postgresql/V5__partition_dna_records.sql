@@ -0,0 +1,76 @@
+-- dna_records particionada por rango mensual de created_at
+--
+-- - La tabla actual queda adjunta como una partición más, sin copiar filas: cubre todo
+--   lo anterior al mes siguiente y la retención la elimina entera cuando vence.
+--   Antes se le quitan la PK (id), UNIQUE (dna_hash) y sus índices, que no coinciden con
+--   los de la tabla padre, y se le agrega la PK (id, created_at) que ATTACH adopta.
+--   ATTACH recorre la tabla una vez para validar el rango y crea los índices que falten.
+-- - Se crean las particiones de los próximos meses y una DEFAULT por si el job de
+--   retención (DnaRecordRetention) no llegó a crear la del mes.
+-- - Sin UNIQUE (dna_hash): en una tabla particionada la clave única tiene que incluir
+--   created_at. El insert-or-get toma pg_advisory_xact_lock por hash antes de insertar.
+-- - dna_records_archive guarda los conteos de cada partición eliminada para /stats.
+
+ALTER TABLE dna_records RENAME TO dna_records_legacy;
+
+CREATE SEQUENCE dna_records_partitioned_id_seq;
+SELECT setval('dna_records_partitioned_id_seq', COALESCE((SELECT max(id) FROM dna_records_legacy), 0) + 1, false);
+
+-- Una partición no puede generar su propio id: lo asigna la secuencia de la tabla padre
+ALTER TABLE dna_records_legacy ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE dna_records_legacy ALTER COLUMN id DROP DEFAULT;
+
+-- Los nombres dependen de quién creó la tabla (V1 o ddl-auto): se buscan en el catálogo
+DO $$
+DECLARE
+    item record;
+BEGIN
+    FOR item IN SELECT conname FROM pg_constraint
+                WHERE conrelid = 'dna_records_legacy'::regclass AND contype IN ('p', 'u') LOOP
+        EXECUTE format('ALTER TABLE dna_records_legacy DROP CONSTRAINT %I', item.conname);
+    END LOOP;
+    FOR item IN SELECT indexrelid::regclass AS index_name FROM pg_index
+                WHERE indrelid = 'dna_records_legacy'::regclass LOOP
+        EXECUTE format('DROP INDEX %s', item.index_name);
+    END LOOP;
+END $$;
+
+ALTER TABLE dna_records_legacy ADD CONSTRAINT dna_records_legacy_pkey PRIMARY KEY (id, created_at);
+
+CREATE TABLE dna_records (
+    id         bigint NOT NULL DEFAULT nextval('dna_records_partitioned_id_seq'),
+    dna_hash   bytea NOT NULL,
+    dna_bases  bytea,
+    is_mutant  boolean NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE dna_records_partitioned_id_seq OWNED BY dna_records.id;
+
+CREATE INDEX idx_dna_records_hash ON dna_records (dna_hash);
+CREATE INDEX idx_dna_records_is_mutant ON dna_records (is_mutant);
+
+DO $$
+DECLARE
+    cutover timestamp := date_trunc('month', localtimestamp) + interval '1 month';
+    month   timestamp := cutover;
+BEGIN
+    EXECUTE format('ALTER TABLE dna_records ATTACH PARTITION dna_records_legacy FOR VALUES FROM (MINVALUE) TO (%L)',
+                   cutover);
+    FOR i IN 1..3 LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF dna_records FOR VALUES FROM (%L) TO (%L)',
+                       'dna_records_p' || to_char(month, 'YYYYMM'), month, month + interval '1 month');
+        month := month + interval '1 month';
+    END LOOP;
+END $$;
+
+CREATE TABLE dna_records_default PARTITION OF dna_records DEFAULT;
+
+CREATE TABLE dna_records_archive (
+    partition_name varchar(63) PRIMARY KEY,
+    range_end      timestamp(6) NOT NULL,
+    mutant_count   bigint NOT NULL,
+    human_count    bigint NOT NULL,
+    dropped_at     timestamp(6) NOT NULL
+);
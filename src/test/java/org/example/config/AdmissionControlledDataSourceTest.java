@@ -0,0 +1,89 @@
+package org.example.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdmissionControlledDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private AdmissionControlledDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new AdmissionControlledDataSource(target, 1, Duration.ofMillis(50));
+    }
+
+    @Test
+    @DisplayName("Debe devolver el permiso al cerrar la conexión")
+    void testReleasesPermitOnClose() throws SQLException {
+        // ARRANGE
+        when(target.getConnection()).thenReturn(connection);
+
+        // ACT
+        Connection first = dataSource.getConnection();
+        assertEquals(0, dataSource.availablePermits());
+        first.close();
+
+        // ASSERT
+        assertEquals(1, dataSource.availablePermits());
+        verify(connection).close();
+        assertNotNull(dataSource.getConnection());
+    }
+
+    @Test
+    @DisplayName("Debe fallar por timeout si no hay permisos libres")
+    void testTimesOutWhenNoPermits() throws SQLException {
+        // ARRANGE
+        when(target.getConnection()).thenReturn(connection);
+        dataSource.getConnection();
+
+        // ACT & ASSERT
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        verify(target, times(1)).getConnection();
+    }
+
+    @Test
+    @DisplayName("Debe devolver el permiso una sola vez aunque se cierre dos veces")
+    void testReleasesPermitOnlyOnce() throws SQLException {
+        // ARRANGE
+        when(target.getConnection()).thenReturn(connection);
+
+        // ACT
+        Connection admitted = dataSource.getConnection();
+        admitted.close();
+        admitted.close();
+
+        // ASSERT
+        assertEquals(1, dataSource.availablePermits());
+    }
+
+    @Test
+    @DisplayName("Debe devolver el permiso si el pool falla al dar la conexión")
+    void testReleasesPermitWhenTargetFails() throws SQLException {
+        // ARRANGE
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+        // ACT & ASSERT
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+        assertEquals(1, dataSource.availablePermits());
+    }
+}
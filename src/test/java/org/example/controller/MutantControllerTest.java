@@ -1,25 +1,61 @@
 package org.example.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.config.DetectionRulesConfig;
+import org.example.config.DnaBinaryMessageConverter;
+import org.example.config.DnaFingerprintConfig;
+import org.example.dto.DetectionRulesRequest;
+import org.example.dto.DnaBatchRequest;
+import org.example.dto.DnaBatchResult;
+import org.example.dto.DnaLookupRequest;
+import org.example.dto.DnaLookupResult;
 import org.example.dto.DnaRequest;
+import org.example.dto.DnaRulesRequest;
+import org.example.dto.StatsBucket;
+import org.example.dto.StatsHistoryResponse;
 import org.example.dto.StatsResponse;
+import org.example.exception.InvalidDetectionRulesException;
+import org.example.exception.InvalidDnaHashException;
+import org.example.exception.InvalidStatsQueryException;
+import org.example.service.DnaAnalysis;
+import org.example.service.DnaFingerprinter;
 import org.example.service.MutantService;
+import org.example.service.StatsHistoryService;
 import org.example.service.StatsService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(MutantController.class)
+@Import({DnaFingerprintConfig.class, DetectionRulesConfig.class})
 class MutantControllerTest {
 
     @Autowired
@@ -28,12 +64,18 @@ class MutantControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private DnaFingerprinter dnaFingerprinter;
+
     @MockBean
     private MutantService mutantService;
 
     @MockBean
     private StatsService statsService;
 
+    @MockBean
+    private StatsHistoryService statsHistoryService;
+
     @Test
     @DisplayName("POST /mutant debe retornar 200 OK para ADN mutante")
     void testCheckMutantReturns200ForMutant() throws Exception {
@@ -176,4 +218,425 @@ class MutantControllerTest {
                 )
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("POST /mutant/stream debe retornar 200 OK para ADN mutante")
+    void testCheckMutantStreamReturns200ForMutant() throws Exception {
+        // ARRANGE
+        String[] mutantDna = {
+                "ATGCGA", "CAGTGC", "TTATGT",
+                "AGAAGG", "CCCCTA", "TCACTG"
+        };
+        DnaRequest request = new DnaRequest(mutantDna);
+
+        when(mutantService.recordAnalysis(any(DnaAnalysis.class)))
+                .thenReturn(true);
+
+        // ACT & ASSERT
+        mockMvc.perform(
+                        post("/mutant/stream")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request))
+                )
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("POST /mutant/stream debe retornar 403 Forbidden para ADN humano")
+    void testCheckMutantStreamReturns403ForHuman() throws Exception {
+        // ARRANGE
+        String[] humanDna = {
+                "ATGCGA", "CAGTGC", "TTATTT",
+                "AGACGG", "GCGTCA", "TCACTG"
+        };
+        DnaRequest request = new DnaRequest(humanDna);
+
+        when(mutantService.recordAnalysis(any(DnaAnalysis.class)))
+                .thenReturn(false);
+
+        // ACT & ASSERT
+        mockMvc.perform(
+                        post("/mutant/stream")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request))
+                )
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("POST /mutant/stream debe retornar 400 Bad Request para caracteres inválidos")
+    void testCheckMutantStreamReturns400ForInvalidCharacters() throws Exception {
+        // ARRANGE
+        String[] invalidDna = {
+                "ATGCGA", "CAGTXC", "TTATGT",
+                "AGAAGG", "CCCCTA", "TCACTG"
+        };
+        DnaRequest request = new DnaRequest(invalidDna);
+
+        // ACT & ASSERT
+        mockMvc.perform(
+                        post("/mutant/stream")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request))
+                )
+                .andExpect(status().isBadRequest());
+
+        verify(mutantService, never()).recordAnalysis(any());
+    }
+
+    @Test
+    @DisplayName("POST /mutant/stream debe retornar 400 Bad Request sin campo dna")
+    void testCheckMutantStreamReturns400WithoutDnaField() throws Exception {
+        // ACT & ASSERT
+        mockMvc.perform(
+                        post("/mutant/stream")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"other\": [\"ATGC\"]}")
+                )
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("POST /mutant/stream debe retornar 400 Bad Request si el campo dna se repite")
+    void testCheckMutantStreamReturns400ForDuplicateDnaField() throws Exception {
+        // ACT & ASSERT
+        mockMvc.perform(
+                        post("/mutant/stream")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"dna\": [\"ATGC\", \"CAGT\"], \"dna\": [\"TTAT\", \"AGAC\"]}")
+                )
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("dna: El campo dna no puede repetirse"));
+
+        verify(mutantService, never()).recordAnalysis(any());
+    }
+
+    @Test
+    @DisplayName("POST /mutant binario (2 bits por base) debe retornar 200 OK para ADN mutante")
+    void testCheckMutantBinaryPackedReturns200ForMutant() throws Exception {
+        // ARRANGE
+        String[] mutantDna = {
+                "ATGCGA", "CAGTGC", "TTATGT",
+                "AGAAGG", "CCCCTA", "TCACTG"
+        };
+        when(mutantService.recordAnalysis(any(DnaAnalysis.class)))
+                .thenReturn(true);
+
+        // ACT & ASSERT
+        mockMvc.perform(
+                        post("/mutant")
+                                .contentType(DnaBinaryMessageConverter.MEDIA_TYPE)
+                                .content(binaryDna(DnaBinaryMessageConverter.ENCODING_PACKED, mutantDna))
+                )
+                .andExpect(status().isOk());
+
+        // Misma huella que el ADN en JSON: comparte el caché con POST /mutant
+        ArgumentCaptor<DnaAnalysis> analysis = ArgumentCaptor.forClass(DnaAnalysis.class);
+        verify(mutantService).recordAnalysis(analysis.capture());
+        assertTrue(analysis.getValue().isMutant());
+        assertEquals(6, analysis.getValue().getSize());
+        assertArrayEquals(dnaFingerprinter.fingerprint(mutantDna), analysis.getValue().getDnaHash());
+    }
+
+    @Test
+    @DisplayName("POST /mutant binario (un byte por base) debe retornar 403 Forbidden para ADN humano")
+    void testCheckMutantBinaryAsciiReturns403ForHuman() throws Exception {
+        // ARRANGE
+        String[] humanDna = {
+                "ATGCGA", "CAGTGC", "TTATTT",
+                "AGACGG", "GCGTCA", "TCACTG"
+        };
+        when(mutantService.recordAnalysis(any(DnaAnalysis.class)))
+                .thenReturn(false);
+
+        // ACT & ASSERT
+        mockMvc.perform(
+                        post("/mutant")
+                                .contentType(DnaBinaryMessageConverter.MEDIA_TYPE)
+                                .content(binaryDna(DnaBinaryMessageConverter.ENCODING_ASCII, humanDna))
+                )
+                .andExpect(status().isForbidden());
+
+        ArgumentCaptor<DnaAnalysis> analysis = ArgumentCaptor.forClass(DnaAnalysis.class);
+        verify(mutantService).recordAnalysis(analysis.capture());
+        assertFalse(analysis.getValue().isMutant());
+    }
+
+    @Test
+    @DisplayName("POST /mutant binario debe retornar 400 Bad Request si faltan o sobran bases")
+    void testCheckMutantBinaryReturns400ForWrongLength() throws Exception {
+        // ARRANGE
+        String[] dna = {"ATGC", "CAGT", "TTAT", "AGAC"};
+        byte[] body = binaryDna(DnaBinaryMessageConverter.ENCODING_ASCII, dna);
+
+        // ACT & ASSERT
+        mockMvc.perform(
+                        post("/mutant")
+                                .contentType(DnaBinaryMessageConverter.MEDIA_TYPE)
+                                .content(Arrays.copyOf(body, body.length - 1))
+                )
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(
+                        post("/mutant")
+                                .contentType(DnaBinaryMessageConverter.MEDIA_TYPE)
+                                .content(Arrays.copyOf(body, body.length + 1))
+                )
+                .andExpect(status().isBadRequest());
+
+        verify(mutantService, never()).recordAnalysis(any());
+    }
+
+    @Test
+    @DisplayName("POST /mutant binario debe retornar 400 Bad Request para bases inválidas o codificación desconocida")
+    void testCheckMutantBinaryReturns400ForInvalidContent() throws Exception {
+        // ARRANGE
+        String[] invalidDna = {"ATGC", "CAXT", "TTAT", "AGAC"};
+        byte[] unknownEncoding = binaryDna(
+                DnaBinaryMessageConverter.ENCODING_ASCII, new String[]{"ATGC", "CAGT", "TTAT", "AGAC"});
+        unknownEncoding[0] = 9;
+
+        // ACT & ASSERT
+        mockMvc.perform(
+                        post("/mutant")
+                                .contentType(DnaBinaryMessageConverter.MEDIA_TYPE)
+                                .content(binaryDna(DnaBinaryMessageConverter.ENCODING_ASCII, invalidDna))
+                )
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(
+                        post("/mutant")
+                                .contentType(DnaBinaryMessageConverter.MEDIA_TYPE)
+                                .content(unknownEncoding)
+                )
+                .andExpect(status().isBadRequest());
+
+        verify(mutantService, never()).recordAnalysis(any());
+    }
+
+    @Test
+    @DisplayName("GET /mutant/{hash} debe retornar el resultado guardado o 404 si es desconocido")
+    void testGetMutantByHash() throws Exception {
+        // ARRANGE
+        String knownHash = "A65D94C3E61FA21513338BDE031F53064AD9CB63D8A9B4514E3869CC67DB6D32";
+        String unknownHash = "00".repeat(32);
+        when(mutantService.lookup(knownHash)).thenReturn(Optional.of(true));
+        when(mutantService.lookup(unknownHash)).thenReturn(Optional.empty());
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/mutant/" + knownHash))
+                .andExpect(status().isOk())
+                .andExpect(header().string(MutantController.MUTANT_HEADER, "true"))
+                .andExpect(jsonPath("$.dna_hash").value(knownHash.toLowerCase()))
+                .andExpect(jsonPath("$.is_mutant").value(true));
+
+        mockMvc.perform(get("/mutant/" + unknownHash))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("HEAD /mutant/{hash} debe informar el resultado en el header sin body")
+    void testHeadMutantByHash() throws Exception {
+        // ARRANGE
+        String hash = "ab".repeat(32);
+        when(mutantService.lookup(hash)).thenReturn(Optional.of(false));
+
+        // ACT & ASSERT
+        mockMvc.perform(head("/mutant/" + hash))
+                .andExpect(status().isOk())
+                .andExpect(header().string(MutantController.MUTANT_HEADER, "false"))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("GET /mutant/{hash} debe retornar 400 Bad Request para una huella mal formada")
+    void testGetMutantByHashReturns400ForMalformedHash() throws Exception {
+        // ARRANGE
+        when(mutantService.lookup("xyz"))
+                .thenThrow(new InvalidDnaHashException("hash: must be 64 hex characters (sha256)"));
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/mutant/xyz"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("hash: must be 64 hex characters (sha256)"));
+    }
+
+    @Test
+    @DisplayName("POST /mutant/lookup debe retornar un resultado por huella")
+    void testLookupMutants() throws Exception {
+        // ARRANGE
+        List<String> hashes = List.of("ab".repeat(32), "cd".repeat(32), "xyz");
+        when(mutantService.lookupBatch(hashes))
+                .thenReturn(List.of(DnaLookupResult.MUTANT, DnaLookupResult.UNKNOWN, DnaLookupResult.INVALID));
+
+        // ACT & ASSERT
+        mockMvc.perform(
+                        post("/mutant/lookup")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(new DnaLookupRequest(hashes)))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0]").value("MUTANT"))
+                .andExpect(jsonPath("$.results[1]").value("UNKNOWN"))
+                .andExpect(jsonPath("$.results[2]").value("INVALID"));
+
+        mockMvc.perform(
+                        post("/mutant/lookup")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"hashes\": []}")
+                )
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("POST /mutant/batch debe retornar un resultado por ADN")
+    void testCheckMutantBatchReturnsResults() throws Exception {
+        // ARRANGE
+        String[] mutantDna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        String[] invalidDna = {"ATGX", "CAGT", "TTAT", "AGAC"};
+        DnaBatchRequest request = new DnaBatchRequest(List.of(mutantDna, invalidDna));
+
+        when(mutantService.analyzeBatch(anyList()))
+                .thenReturn(List.of(DnaBatchResult.MUTANT, DnaBatchResult.INVALID));
+
+        // ACT & ASSERT
+        mockMvc.perform(
+                        post("/mutant/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0]").value("MUTANT"))
+                .andExpect(jsonPath("$.results[1]").value("INVALID"));
+    }
+
+    @Test
+    @DisplayName("POST /mutant/batch debe retornar 400 para lote vacío")
+    void testCheckMutantBatchReturns400ForEmptyBatch() throws Exception {
+        // ACT & ASSERT
+        mockMvc.perform(
+                        post("/mutant/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"dnas\": []}")
+                )
+                .andExpect(status().isBadRequest());
+
+        verify(mutantService, never()).analyzeBatch(anyList());
+    }
+
+    @Test
+    @DisplayName("POST /mutant/rules debe pasar las reglas del request al servicio")
+    void testCheckMutantWithRulesReturns200() throws Exception {
+        // ARRANGE
+        String[] rnaDna = {"AUGCGA", "CAGUGC", "UUAUGU", "AGAAGG", "CCCCUA", "UCACUG"};
+        DnaRulesRequest request = new DnaRulesRequest(rnaDna,
+                new DetectionRulesRequest(4, 1, "ACGU", List.of("horizontal")));
+
+        when(mutantService.analyzeDnaWithRules(any(String[].class), any(DetectionRulesRequest.class)))
+                .thenReturn(true);
+
+        // ACT & ASSERT
+        mockMvc.perform(
+                        post("/mutant/rules")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request))
+                )
+                .andExpect(status().isOk());
+
+        verify(mutantService).analyzeDnaWithRules(any(String[].class),
+                eq(new DetectionRulesRequest(4, 1, "ACGU", List.of("horizontal"))));
+    }
+
+    @Test
+    @DisplayName("POST /mutant/rules debe retornar 400 Bad Request para reglas inválidas")
+    void testCheckMutantWithRulesReturns400ForInvalidRules() throws Exception {
+        // ARRANGE
+        when(mutantService.analyzeDnaWithRules(any(String[].class), any()))
+                .thenThrow(new InvalidDetectionRulesException("sequence_length: must be between 2 and 64"));
+
+        // ACT & ASSERT
+        mockMvc.perform(
+                        post("/mutant/rules")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"dna\": [\"ATGC\", \"CAGT\", \"TTAT\", \"AGAC\"], " +
+                                        "\"rules\": {\"sequence_length\": 1}}")
+                )
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("rules.sequence_length: must be between 2 and 64"));
+    }
+
+    @Test
+    @DisplayName("GET /stats/history debe retornar los buckets del rango")
+    void testGetStatsHistoryReturnsBuckets() throws Exception {
+        // ARRANGE
+        LocalDateTime from = LocalDateTime.of(2024, 1, 15, 10, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 1, 15, 12, 0);
+        StatsHistoryResponse history = new StatsHistoryResponse("hour", from, to, List.of(
+                new StatsBucket(from, 4, 10, 0.4),
+                new StatsBucket(from.plusHours(1), 0, 0, 0.0)
+        ));
+        when(statsHistoryService.getHistory("hour", from, to)).thenReturn(history);
+
+        // ACT & ASSERT
+        mockMvc.perform(
+                        get("/stats/history")
+                                .param("from", "2024-01-15T10:00:00")
+                                .param("to", "2024-01-15T12:00:00")
+                                .param("granularity", "hour")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.granularity").value("hour"))
+                .andExpect(jsonPath("$.buckets.length()").value(2))
+                .andExpect(jsonPath("$.buckets[0].start").value("2024-01-15T10:00:00"))
+                .andExpect(jsonPath("$.buckets[0].count_mutant_dna").value(4))
+                .andExpect(jsonPath("$.buckets[0].count_human_dna").value(10))
+                .andExpect(jsonPath("$.buckets[1].count_mutant_dna").value(0));
+    }
+
+    @Test
+    @DisplayName("GET /stats/history debe retornar 400 para granularidad inválida")
+    void testGetStatsHistoryReturns400ForInvalidGranularity() throws Exception {
+        // ARRANGE
+        when(statsHistoryService.getHistory(eq("week"), any(), any()))
+                .thenThrow(new InvalidStatsQueryException("granularity: must be one of minute, hour, day"));
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/stats/history").param("granularity", "week"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("granularity: must be one of minute, hour, day"));
+    }
+
+    @Test
+    @DisplayName("GET /stats/history debe retornar 400 para fecha mal formada")
+    void testGetStatsHistoryReturns400ForMalformedDate() throws Exception {
+        // ACT & ASSERT
+        mockMvc.perform(get("/stats/history").param("from", "yesterday"))
+                .andExpect(status().isBadRequest());
+
+        verify(statsHistoryService, never()).getHistory(anyString(), any(), any());
+    }
+
+    /**
+     * Body application/x-dna: codificación, N big-endian y las bases (a 2 bits, 4 por byte desde los bits bajos).
+     */
+    private static byte[] binaryDna(int encoding, String[] dna) {
+        final int n = dna.length;
+        final boolean packed = encoding == DnaBinaryMessageConverter.ENCODING_PACKED;
+        ByteBuffer body = ByteBuffer.allocate(5 + (packed ? (n * n + 3) / 4 : n * n));
+        body.put((byte) encoding).putInt(n);
+
+        int position = 0;
+        for (String row : dna) {
+            for (char base : row.toCharArray()) {
+                if (packed) {
+                    final int index = 5 + position / 4;
+                    body.put(index, (byte) (body.get(index) | "ACGT".indexOf(base) << (position % 4) * 2));
+                } else {
+                    body.put((byte) base);
+                }
+                position++;
+            }
+        }
+        return body.array();
+    }
+}
@@ -0,0 +1,146 @@
+package org.example.controller;
+
+import jakarta.validation.Validation;
+import org.example.config.ReactiveWebConfig;
+import org.example.dto.DnaRequest;
+import org.example.dto.StatsResponse;
+import org.example.service.ReactiveMutantService;
+import org.example.service.StatsHistoryService;
+import org.example.service.StatsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Mismos casos que MutantControllerTest contra los handlers WebFlux:
+ * las respuestas deben ser idénticas en ambos stacks.
+ */
+@ExtendWith(MockitoExtension.class)
+class MutantHandlerTest {
+
+    @Mock
+    private ReactiveMutantService mutantService;
+
+    @Mock
+    private StatsService statsService;
+
+    @Mock
+    private StatsHistoryService statsHistoryService;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        MutantHandler handler = new MutantHandler(mutantService, statsService, statsHistoryService,
+                Validation.buildDefaultValidatorFactory().getValidator());
+        webTestClient = WebTestClient.bindToRouterFunction(new ReactiveWebConfig().mutantRoutes(handler)).build();
+    }
+
+    @Test
+    @DisplayName("POST /mutant debe retornar 200 OK para ADN mutante")
+    void testCheckMutantReturns200ForMutant() {
+        // ARRANGE
+        DnaRequest request = new DnaRequest(new String[]{
+                "ATGCGA", "CAGTGC", "TTATGT",
+                "AGAAGG", "CCCCTA", "TCACTG"
+        });
+        when(mutantService.analyzeDna(any(String[].class))).thenReturn(Mono.just(true));
+
+        // ACT & ASSERT
+        webTestClient.post().uri("/mutant")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    @DisplayName("POST /mutant debe retornar 403 Forbidden para ADN humano")
+    void testCheckMutantReturns403ForHuman() {
+        // ARRANGE
+        DnaRequest request = new DnaRequest(new String[]{
+                "ATGCGA", "CAGTGC", "TTATTT",
+                "AGACGG", "GCGTCA", "TCACTG"
+        });
+        when(mutantService.analyzeDna(any(String[].class))).thenReturn(Mono.just(false));
+
+        // ACT & ASSERT
+        webTestClient.post().uri("/mutant")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    @Test
+    @DisplayName("POST /mutant debe retornar 400 con ErrorResponse para ADN inválido")
+    void testCheckMutantReturns400ForInvalidDna() {
+        // ARRANGE
+        DnaRequest request = new DnaRequest(new String[]{"ATGC", "CAGT", "TTXT", "AGAA"});
+
+        // ACT & ASSERT
+        webTestClient.post().uri("/mutant")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(400)
+                .jsonPath("$.error").isEqualTo("Bad Request")
+                .jsonPath("$.path").isEqualTo("/mutant");
+        verify(mutantService, never()).analyzeDna(any());
+    }
+
+    @Test
+    @DisplayName("POST /mutant debe retornar 400 para JSON mal formado")
+    void testCheckMutantReturns400ForMalformedJson() {
+        // ACT & ASSERT
+        webTestClient.post().uri("/mutant")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"dna\": [")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Request body is missing or malformed");
+    }
+
+    @Test
+    @DisplayName("GET /stats debe retornar las estadísticas")
+    void testGetStatsReturnsCorrectData() {
+        // ARRANGE
+        when(statsService.getStats()).thenReturn(new StatsResponse(40, 100, 0.4));
+
+        // ACT & ASSERT
+        webTestClient.get().uri("/stats")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.count_mutant_dna").isEqualTo(40)
+                .jsonPath("$.count_human_dna").isEqualTo(100)
+                .jsonPath("$.ratio").isEqualTo(0.4);
+    }
+
+    @Test
+    @DisplayName("GET /stats/history debe retornar 400 para fecha mal formada")
+    void testGetStatsHistoryReturns400ForMalformedDate() {
+        // ACT & ASSERT
+        webTestClient.get().uri("/stats/history?from=yesterday")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("from: invalid value 'yesterday'");
+
+        verify(statsHistoryService, never()).getHistory(any(), any(), any());
+    }
+}
@@ -0,0 +1,129 @@
+package org.example.repository;
+
+import org.example.entity.DnaRecord;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Migraciones de db/migration/postgresql contra un PostgreSQL real (Testcontainers).
+ * Sin Docker los tests se omiten.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class PostgresMigrationTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final byte[] MUTANT_HASH = hash(1);
+    private static final byte[] HUMAN_HASH = hash(2);
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP SCHEMA public CASCADE; CREATE SCHEMA public");
+    }
+
+    @Test
+    @DisplayName("V5 debe adjuntar la tabla de V1..V4 como partición sin perder filas")
+    void testPartitionMigrationKeepsExistingRecords() {
+        // ARRANGE
+        migrate("4");
+        insertLegacyRecords();
+
+        // ACT
+        migrate("latest");
+
+        // ASSERT
+        assertPartitioned();
+    }
+
+    @Test
+    @DisplayName("V5 debe adjuntar una tabla creada por ddl-auto (baseline 0) con otros nombres de restricciones")
+    void testPartitionMigrationFromHibernateSchema() {
+        // ARRANGE - el esquema que generaba Hibernate antes de Flyway
+        jdbcTemplate.execute("CREATE TABLE dna_records (" +
+                "id bigint GENERATED BY DEFAULT AS IDENTITY, " +
+                "dna_hash bytea NOT NULL, " +
+                "is_mutant boolean NOT NULL, " +
+                "created_at timestamp(6) NOT NULL, " +
+                "PRIMARY KEY (id), " +
+                "CONSTRAINT uk_4f8kq2n3x9 UNIQUE (dna_hash))");
+        jdbcTemplate.execute("CREATE INDEX idx_is_mutant ON dna_records (is_mutant)");
+        insertLegacyRecords();
+
+        // ACT
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/postgresql")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+
+        // ASSERT
+        assertPartitioned();
+    }
+
+    private void migrate(String target) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/postgresql")
+                .target(target)
+                .load()
+                .migrate();
+    }
+
+    private void insertLegacyRecords() {
+        String insert = "INSERT INTO dna_records (dna_hash, is_mutant, created_at) VALUES (?, ?, ?)";
+        jdbcTemplate.update(insert, MUTANT_HASH, true, Timestamp.valueOf(LocalDateTime.now().minusMonths(2)));
+        jdbcTemplate.update(insert, HUMAN_HASH, false, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * La tabla vieja es una partición de dna_records, conserva sus filas y el insert-or-get
+     * sigue deduplicando por hash en todas las particiones.
+     */
+    private void assertPartitioned() {
+        assertEquals(Boolean.TRUE, jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = 'dna_records'::regclass)",
+                Boolean.class));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_inherits " +
+                        "WHERE inhrelid = 'dna_records_legacy'::regclass AND inhparent = 'dna_records'::regclass",
+                Integer.class));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT count(*) FROM dna_records", Integer.class));
+
+        DnaRecordBatchWriter writer = new DnaRecordBatchWriter(jdbcTemplate);
+        DnaRecord fresh = new DnaRecord(hash(3), false);
+        assertSame(fresh, writer.insertOrGet(fresh));
+
+        DnaRecord stored = writer.insertOrGet(new DnaRecord(MUTANT_HASH, false));
+        assertTrue(stored.isMutant());
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT count(*) FROM dna_records", Integer.class));
+        // La secuencia de la tabla padre sigue después de los ids existentes
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT count(DISTINCT id) FROM dna_records", Integer.class));
+    }
+
+    private static byte[] hash(int seed) {
+        byte[] hash = new byte[32];
+        hash[0] = (byte) seed;
+        return hash;
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DnaFingerprinterTest {
+
+    private static final String[] MUTANT_DNA = {
+            "ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"
+    };
+
+    private static final List<DnaFingerprinter> FINGERPRINTERS = List.of(
+            new Sha256DnaFingerprinter(), new Murmur3DnaFingerprinter(), new PackedDnaFingerprinter());
+
+    @Test
+    @DisplayName("SHA-256 debe coincidir con el hash del ADN concatenado")
+    void testSha256MatchesConcatenatedDna() throws Exception {
+        byte[] expected = MessageDigest.getInstance("SHA-256")
+                .digest(String.join("", MUTANT_DNA).getBytes(StandardCharsets.UTF_8));
+
+        assertArrayEquals(expected, new Sha256DnaFingerprinter().fingerprint(MUTANT_DNA));
+    }
+
+    @Test
+    @DisplayName("Murmur3 debe coincidir con el vector de referencia de 128 bits")
+    void testMurmur3ReferenceVector() {
+        // Murmur3 x64 128, semilla 0 (mismo valor que Guava murmur3_128)
+        byte[] fingerprint = new Murmur3DnaFingerprinter()
+                .fingerprint(new String[]{"The quick brown fox jumps over the lazy dog"});
+
+        assertEquals("6c1b07bc7bbc4be347939ac4a93c437a", HexFormat.of().formatHex(fingerprint));
+    }
+
+    @Test
+    @DisplayName("Murmur3 no debe depender de cómo se parten las filas")
+    void testMurmur3IndependentOfRowBoundaries() {
+        DnaFingerprinter murmur3 = new Murmur3DnaFingerprinter();
+
+        assertArrayEquals(
+                murmur3.fingerprint(new String[]{String.join("", MUTANT_DNA)}),
+                murmur3.fingerprint(MUTANT_DNA));
+    }
+
+    @Test
+    @DisplayName("Todas las huellas deben ser deterministas y distinguir ADN distintos")
+    void testFingerprintsAreDeterministicAndDistinct() {
+        String[] otherDna = MUTANT_DNA.clone();
+        otherDna[5] = "TCACTA"; // Una sola base distinta
+
+        for (DnaFingerprinter fingerprinter : FINGERPRINTERS) {
+            assertArrayEquals(fingerprinter.fingerprint(MUTANT_DNA), fingerprinter.fingerprint(MUTANT_DNA),
+                    fingerprinter.algorithm());
+            assertFalse(Arrays.equals(
+                    fingerprinter.fingerprint(MUTANT_DNA), fingerprinter.fingerprint(otherDna)),
+                    fingerprinter.algorithm());
+        }
+    }
+
+    @Test
+    @DisplayName("Packed debe distinguir matrices de distinto tamaño con el mismo relleno")
+    void testPackedDistinguishesSizes() {
+        DnaFingerprinter packed = new PackedDnaFingerprinter();
+
+        // "A" se codifica como 00, igual que el relleno de la palabra
+        assertFalse(Arrays.equals(
+                packed.fingerprint(new String[]{"AAAA", "AAAA", "AAAA", "AAAA"}),
+                packed.fingerprint(new String[]{"AAAAA", "AAAAA", "AAAAA", "AAAAA", "AAAAA"})));
+    }
+
+    @Test
+    @DisplayName("El scanner en streaming debe calcular la misma huella que el servicio")
+    void testStreamScannerUsesSameFingerprint() {
+        for (DnaFingerprinter fingerprinter : FINGERPRINTERS) {
+            DnaStreamScanner scanner = new DnaStreamScanner(fingerprinter, true);
+            for (String row : MUTANT_DNA) {
+                scanner.acceptRow(row);
+            }
+            DnaAnalysis analysis = scanner.finish();
+
+            assertArrayEquals(fingerprinter.fingerprint(MUTANT_DNA), analysis.getDnaHash(),
+                    fingerprinter.algorithm());
+            assertArrayEquals(CompactDnaEncoding.encode(MUTANT_DNA), analysis.getDnaBases());
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DnaHashBloomFilterTest {
+
+    private static final int INSERTED = 10_000;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("No debe dar falsos negativos para los hashes agregados")
+    void testNoFalseNegatives() {
+        // ARRANGE
+        DnaHashBloomFilter filter = readyFilter(INSERTED);
+        Random random = new Random(42);
+        byte[][] hashes = new byte[INSERTED][];
+        for (int i = 0; i < INSERTED; i++) {
+            hashes[i] = randomHash(random);
+            filter.put(hashes[i]);
+        }
+
+        // ACT & ASSERT
+        for (byte[] hash : hashes) {
+            assertTrue(filter.mightContain(hash));
+        }
+    }
+
+    @Test
+    @DisplayName("La tasa de falsos positivos debe quedar cerca de la configurada")
+    void testFalsePositiveRate() {
+        // ARRANGE
+        DnaHashBloomFilter filter = readyFilter(INSERTED);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        filter.bindTo(registry);
+        Random random = new Random(7);
+        for (int i = 0; i < INSERTED; i++) {
+            filter.put(randomHash(random));
+        }
+
+        // ACT
+        int falsePositives = 0;
+        final int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(randomHash(random))) {
+                falsePositives++;
+            }
+        }
+
+        // ASSERT - configurado al 1%
+        assertTrue(falsePositives < probes * 0.02, "Falsos positivos: " + falsePositives);
+        assertEquals(probes - falsePositives, filter.skippedLookupCount());
+        assertEquals(probes - falsePositives,
+                registry.get("dna.bloom.skipped.lookups").functionCounter().count(), 0.0);
+    }
+
+    @Test
+    @DisplayName("Sin cargar o deshabilitado debe responder que el hash puede estar")
+    void testNotReadyAlwaysMightContain() {
+        // ARRANGE
+        DnaHashBloomFilter notLoaded = new DnaHashBloomFilter(null, null, true, INSERTED, 0.01, "");
+        DnaHashBloomFilter disabled = new DnaHashBloomFilter(null, null, false, INSERTED, 0.01, "");
+        byte[] hash = randomHash(new Random(1));
+
+        // ACT & ASSERT
+        assertTrue(notLoaded.mightContain(hash));
+        assertTrue(disabled.mightContain(hash));
+        assertFalse(disabled.isReady());
+    }
+
+    @Test
+    @DisplayName("El snapshot debe restaurar los hashes y el último id leído")
+    void testSnapshotRoundTrip() throws Exception {
+        // ARRANGE
+        Path snapshot = tempDir.resolve("bloom.bin");
+        DnaHashBloomFilter original = readyFilter(INSERTED);
+        ReflectionTestUtils.setField(original, "loadedUpToId", 1234L);
+        byte[] hash = randomHash(new Random(3));
+        original.put(hash);
+        original.writeSnapshot(snapshot);
+
+        // ACT
+        DnaHashBloomFilter restored = readyFilter(INSERTED);
+        long upToId = restored.readSnapshot(snapshot);
+
+        // ASSERT
+        assertEquals(1234L, upToId);
+        assertTrue(restored.mightContain(hash));
+    }
+
+    @Test
+    @DisplayName("Debe ignorar un snapshot escrito con otro tamaño")
+    void testSnapshotWithDifferentSizeIsIgnored() throws Exception {
+        // ARRANGE
+        Path snapshot = tempDir.resolve("bloom.bin");
+        DnaHashBloomFilter original = readyFilter(INSERTED);
+        ReflectionTestUtils.setField(original, "loadedUpToId", 99L);
+        original.writeSnapshot(snapshot);
+
+        // ACT
+        long upToId = readyFilter(INSERTED * 10).readSnapshot(snapshot);
+
+        // ASSERT - se relee la tabla completa
+        assertEquals(0L, upToId);
+    }
+
+    @Test
+    @DisplayName("Después de clear debe descartar los hashes agregados antes")
+    void testClearRemovesHashes() {
+        // ARRANGE
+        DnaHashBloomFilter filter = readyFilter(INSERTED);
+        byte[] hash = randomHash(new Random(5));
+        filter.put(hash);
+
+        // ACT
+        filter.clear();
+
+        // ASSERT
+        assertFalse(filter.mightContain(hash));
+    }
+
+    private static DnaHashBloomFilter readyFilter(long expectedInsertions) {
+        DnaHashBloomFilter filter = new DnaHashBloomFilter(null, null, true, expectedInsertions, 0.01, "");
+        ReflectionTestUtils.setField(filter, "ready", true);
+        return filter;
+    }
+
+    private static byte[] randomHash(Random random) {
+        byte[] hash = new byte[16];
+        random.nextBytes(hash);
+        return hash;
+    }
+}
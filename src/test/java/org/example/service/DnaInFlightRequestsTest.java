@@ -0,0 +1,117 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DnaInFlightRequestsTest {
+
+    private final DnaInFlightRequests inFlightRequests = new DnaInFlightRequests();
+
+    private final byte[] dnaHash = {1, 2, 3, 4};
+
+    @Test
+    @DisplayName("Los requests simultáneos del mismo ADN deben compartir un solo cálculo")
+    void testConcurrentCallersShareOneComputation() throws Exception {
+        // ARRANGE - el segundo request llega mientras el primero está calculando
+        CompletableFuture<Boolean> follower = new CompletableFuture<>();
+
+        // ACT
+        boolean leaderResult = inFlightRequests.execute(dnaHash, () -> {
+            follower.completeAsync(() -> inFlightRequests.execute(dnaHash.clone(), () -> {
+                throw new AssertionError("El segundo request no debe calcular");
+            }));
+            awaitCoalesced(1);
+            return true;
+        });
+
+        // ASSERT
+        assertTrue(leaderResult);
+        assertTrue(follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, inFlightRequests.computationCount());
+        assertEquals(1, inFlightRequests.coalescedCount());
+        assertEquals(0, inFlightRequests.size());
+    }
+
+    @Test
+    @DisplayName("Si el cálculo falla, los requests que esperaban deben recibir la misma excepción")
+    void testFailurePropagatesToWaitingCallers() {
+        // ARRANGE
+        IllegalStateException failure = new IllegalStateException("BD caída");
+        CompletableFuture<Boolean> follower = new CompletableFuture<>();
+
+        // ACT
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () ->
+                inFlightRequests.execute(dnaHash, () -> {
+                    follower.completeAsync(() -> inFlightRequests.execute(dnaHash, () -> false));
+                    awaitCoalesced(1);
+                    throw failure;
+                }));
+
+        // ASSERT
+        assertSame(failure, thrown);
+        ExecutionException followerError = assertThrows(ExecutionException.class,
+                () -> follower.get(5, TimeUnit.SECONDS));
+        assertSame(failure, followerError.getCause());
+        assertEquals(0, inFlightRequests.size());
+    }
+
+    @Test
+    @DisplayName("Un request posterior al cálculo debe calcular de nuevo (la entrada se quita al terminar)")
+    void testEntryRemovedAfterCompletion() {
+        // ACT
+        boolean first = inFlightRequests.execute(dnaHash, () -> true);
+        boolean second = inFlightRequests.execute(dnaHash, () -> false);
+
+        // ASSERT
+        assertTrue(first);
+        assertFalse(second);
+        assertEquals(2, inFlightRequests.computationCount());
+        assertEquals(0, inFlightRequests.coalescedCount());
+    }
+
+    @Test
+    @DisplayName("Huellas distintas no deben agruparse")
+    void testDifferentHashesAreNotCoalesced() {
+        // ACT
+        boolean nested = inFlightRequests.execute(dnaHash, () ->
+                inFlightRequests.execute(new byte[]{9, 9, 9, 9}, () -> true));
+
+        // ASSERT
+        assertTrue(nested);
+        assertEquals(2, inFlightRequests.computationCount());
+        assertEquals(0, inFlightRequests.coalescedCount());
+    }
+
+    @Test
+    @DisplayName("Debe publicar cálculos y requests agrupados como contadores de Micrometer")
+    void testBindsCountersToRegistry() {
+        // ARRANGE
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        inFlightRequests.bindTo(registry);
+
+        // ACT
+        inFlightRequests.execute(dnaHash, () -> true);
+
+        // ASSERT
+        assertEquals(1.0, registry.get("dna.inflight.computations").functionCounter().count(), 0.0);
+        assertEquals(0.0, registry.get("dna.inflight.coalesced").functionCounter().count(), 0.0);
+        assertEquals(0.0, registry.get("dna.inflight.size").gauge().value(), 0.0);
+    }
+
+    private void awaitCoalesced(long expected) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (inFlightRequests.coalescedCount() < expected) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("El segundo request no llegó a esperar");
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
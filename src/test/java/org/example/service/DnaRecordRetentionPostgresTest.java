@@ -0,0 +1,92 @@
+package org.example.service;
+
+import org.example.entity.DnaRecord;
+import org.example.repository.DnaRecordBatchWriter;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DnaRecordRetention contra un PostgreSQL real (Testcontainers). Sin Docker los tests se omiten.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class DnaRecordRetentionPostgresTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final String LIVE_MUTANTS = "SELECT count(*) FROM dna_records WHERE is_mutant";
+    private static final String ARCHIVED_MUTANTS = "SELECT COALESCE(sum(mutant_count), 0) FROM dna_records_archive";
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP SCHEMA public CASCADE; CREATE SCHEMA public");
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/postgresql")
+                .load()
+                .migrate();
+    }
+
+    @Test
+    @DisplayName("Un ADN guardado de nuevo después de eliminar su partición debe contarse otra vez")
+    void testResubmittedDnaAfterDropIsCountedAgain() {
+        // ARRANGE
+        DnaRecordBatchWriter writer = new DnaRecordBatchWriter(jdbcTemplate);
+        DnaRecordRetention retention = new DnaRecordRetention(jdbcTemplate,
+                new DataSourceTransactionManager(dataSource), true, 12, 3, Duration.ofHours(1));
+        byte[] hash = new byte[32];
+        hash[0] = 7;
+        DnaRecord first = new DnaRecord(hash, true);
+        assertSame(first, writer.insertOrGet(first));
+
+        // ACT - dentro de 14 meses la partición del insert ya venció
+        retention.run(LocalDate.now().plusMonths(14));
+        DnaRecord again = new DnaRecord(hash, true);
+        DnaRecord stored = writer.insertOrGet(again);
+
+        // ASSERT - la fila vieja quedó en el archivo y la nueva es otro insert (/stats la cuenta otra vez)
+        assertSame(again, stored);
+        assertEquals(1L, jdbcTemplate.queryForObject(ARCHIVED_MUTANTS, Long.class));
+        assertEquals(1L, jdbcTemplate.queryForObject(LIVE_MUTANTS, Long.class));
+    }
+
+    @Test
+    @DisplayName("Dentro de la ventana de retención el mismo ADN debe guardarse y contarse una sola vez")
+    void testResubmittedDnaWithinRetentionIsNotCountedAgain() {
+        // ARRANGE
+        DnaRecordBatchWriter writer = new DnaRecordBatchWriter(jdbcTemplate);
+        DnaRecordRetention retention = new DnaRecordRetention(jdbcTemplate,
+                new DataSourceTransactionManager(dataSource), true, 12, 3, Duration.ofHours(1));
+        byte[] hash = new byte[32];
+        hash[0] = 8;
+        writer.insertOrGet(new DnaRecord(hash, true));
+
+        // ACT
+        retention.run(LocalDate.now());
+        DnaRecord stored = writer.insertOrGet(new DnaRecord(hash, false));
+
+        // ASSERT
+        assertTrue(stored.isMutant());
+        assertEquals(0L, jdbcTemplate.queryForObject(ARCHIVED_MUTANTS, Long.class));
+        assertEquals(1L, jdbcTemplate.queryForObject(LIVE_MUTANTS, Long.class));
+    }
+}
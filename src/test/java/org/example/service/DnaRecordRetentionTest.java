@@ -0,0 +1,43 @@
+package org.example.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DnaRecordRetentionTest {
+
+    @Test
+    @DisplayName("Debe leer el límite superior de una partición por rango")
+    void testRangeEndParsesPartitionBound() {
+        // ACT & ASSERT
+        assertEquals(LocalDateTime.of(2024, 2, 1, 0, 0),
+                DnaRecordRetention.rangeEnd("FOR VALUES FROM ('2024-01-01 00:00:00') TO ('2024-02-01 00:00:00')"));
+        assertEquals(LocalDateTime.of(2025, 11, 1, 0, 0),
+                DnaRecordRetention.rangeEnd("FOR VALUES FROM (MINVALUE) TO ('2025-11-01 00:00:00')"));
+    }
+
+    @Test
+    @DisplayName("Debe ignorar la partición DEFAULT")
+    void testRangeEndIgnoresDefaultPartition() {
+        // ACT & ASSERT
+        assertNull(DnaRecordRetention.rangeEnd("DEFAULT"));
+        assertNull(DnaRecordRetention.rangeEnd(null));
+    }
+
+    @Test
+    @DisplayName("Debe conservar los últimos keep-months meses completos más el actual")
+    void testRetentionCutoff() {
+        // ACT
+        LocalDateTime cutoff = DnaRecordRetention.retentionCutoff(LocalDate.of(2024, 6, 15), 12);
+
+        // ASSERT
+        assertEquals(LocalDateTime.of(2023, 6, 1, 0, 0), cutoff);
+        // La partición de mayo 2023 (termina el 2023-06-01) vence; la de junio 2023 no
+        assertFalse(LocalDateTime.of(2023, 6, 1, 0, 0).isAfter(cutoff));
+        assertTrue(LocalDateTime.of(2023, 7, 1, 0, 0).isAfter(cutoff));
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.service;
+
+import org.example.exception.InvalidDnaException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DnaStreamScannerTest {
+
+    private static DnaAnalysis scan(String... rows) {
+        DnaStreamScanner scanner = new DnaStreamScanner();
+        for (String row : rows) {
+            scanner.acceptRow(row);
+        }
+        return scanner.finish();
+    }
+
+    @Test
+    @DisplayName("Debe detectar mutante fila por fila")
+    void testDetectsMutant() {
+        DnaAnalysis analysis = scan("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG");
+
+        assertTrue(analysis.isMutant());
+        assertEquals(6, analysis.getSize());
+    }
+
+    @Test
+    @DisplayName("Debe detectar humano fila por fila")
+    void testDetectsHuman() {
+        DnaAnalysis analysis = scan("ATGCGA", "CAGTGC", "TTATTT", "AGACGG", "GCGTCA", "TCACTG");
+
+        assertFalse(analysis.isMutant());
+    }
+
+    @Test
+    @DisplayName("Debe calcular el mismo hash SHA-256 que el ADN concatenado")
+    void testHashMatchesConcatenatedDna() throws Exception {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        byte[] expected = MessageDigest.getInstance("SHA-256")
+                .digest(String.join("", dna).getBytes(StandardCharsets.UTF_8));
+
+        DnaAnalysis analysis = scan(dna);
+
+        assertArrayEquals(expected, analysis.getDnaHash());
+        assertEquals(32, analysis.getDnaHash().length);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar caracteres inválidos aunque ya sea mutante")
+    void testRejectsInvalidCharacterAfterMutantFound() {
+        assertThrows(InvalidDnaException.class,
+                () -> scan("AAAAGA", "CCCCGC", "TTATGT", "AGAAGG", "CCGCTA", "TCACTX"));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar matriz no cuadrada")
+    void testRejectsNonSquareMatrix() {
+        assertThrows(InvalidDnaException.class, () -> scan("ATGCGA", "CAGTGC", "TTATGT"));
+        assertThrows(InvalidDnaException.class, () -> scan("ATGC", "CAGT", "TTAT", "AGAC", "GGGG"));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar matriz menor a 4x4")
+    void testRejectsTooSmallMatrix() {
+        assertThrows(InvalidDnaException.class, () -> scan("ATG", "CAG", "TTA"));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar ADN sin filas")
+    void testRejectsEmptyDna() {
+        assertThrows(InvalidDnaException.class, () -> new DnaStreamScanner().finish());
+    }
+
+    @Test
+    @DisplayName("Un ADN mayor al N máximo debe analizarse sin guardar las bases")
+    void testAnalyzesOversizedDnaWithoutKeepingBases() {
+        DnaStreamScanner scanner = new DnaStreamScanner(new Sha256DnaFingerprinter(), true);
+        String row = "A".repeat(CompactDnaEncoding.MAX_SIZE + 1);
+        for (int i = 0; i <= CompactDnaEncoding.MAX_SIZE; i++) {
+            scanner.acceptRow(row);
+        }
+
+        DnaAnalysis analysis = scanner.finish();
+
+        assertTrue(analysis.isMutant());
+        assertEquals(CompactDnaEncoding.MAX_SIZE + 1, analysis.getSize());
+        assertNull(analysis.getDnaBases());
+    }
+}
@@ -0,0 +1,205 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.entity.DnaRecord;
+import org.example.repository.DnaRecordBatchWriter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DnaWriteBehindQueueTest {
+
+    @Mock
+    private DnaRecordBatchWriter batchWriter;
+
+    @Mock
+    private StatsService statsService;
+
+    @Mock
+    private DnaResultCache dnaResultCache;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicInteger flushed = new AtomicInteger();
+
+    /**
+     * El writer inserta todo el lote; se cuenta antes de que la cola lo limpie.
+     */
+    private Answer<List<DnaRecord>> insertAll() {
+        return invocation -> {
+            List<DnaRecord> batch = invocation.getArgument(0);
+            flushed.addAndGet(batch.size());
+            return new ArrayList<>(batch);
+        };
+    }
+
+    private DnaWriteBehindQueue newQueue(int capacity) {
+        DnaWriteBehindQueue queue = new DnaWriteBehindQueue(batchWriter, statsService, dnaResultCache,
+                new DnaMetrics(meterRegistry), true, capacity, 50,
+                Duration.ofMillis(5), Duration.ofMillis(50), Duration.ofSeconds(5));
+        queue.bindTo(meterRegistry);
+        return queue;
+    }
+
+    @Test
+    @DisplayName("stop() debe guardar todo lo encolado y rechazar los registros posteriores")
+    void testStopFlushesPendingAndRejectsLaterOffers() throws Exception {
+        // ARRANGE
+        when(batchWriter.insertIgnoringDuplicates(anyList())).thenAnswer(insertAll());
+        DnaWriteBehindQueue queue = newQueue(10_000);
+        queue.start();
+        for (int i = 0; i < 120; i++) {
+            assertTrue(queue.offer(new DnaRecord(new byte[]{(byte) i}, false)));
+        }
+
+        // ACT
+        queue.stop();
+
+        // ASSERT
+        assertEquals(120, flushed.get());
+        assertEquals(0, queue.pending());
+        assertFalse(queue.offer(new DnaRecord(new byte[]{1}, true)));
+        assertEquals(0, queue.pending());
+    }
+
+    @Test
+    @DisplayName("Ningún registro aceptado durante el shutdown debe perderse")
+    void testConcurrentOffersDuringStopAreNotLost() throws Exception {
+        // ARRANGE
+        when(batchWriter.insertIgnoringDuplicates(anyList())).thenAnswer(insertAll());
+        DnaWriteBehindQueue queue = newQueue(10_000);
+        queue.start();
+        ExecutorService producers = Executors.newFixedThreadPool(4);
+        CountDownLatch started = new CountDownLatch(4);
+        List<Future<Integer>> accepted = new ArrayList<>();
+        for (int p = 0; p < 4; p++) {
+            accepted.add(producers.submit(() -> {
+                started.countDown();
+                int count = 0;
+                // Cada productor encola hasta que la cola deja de aceptar
+                while (queue.offer(new DnaRecord(new byte[]{(byte) count}, false))) {
+                    count++;
+                }
+                return count;
+            }));
+        }
+        started.await();
+
+        // ACT
+        queue.stop();
+
+        // ASSERT
+        int total = 0;
+        for (Future<Integer> future : accepted) {
+            total += future.get(5, TimeUnit.SECONDS);
+        }
+        producers.shutdown();
+        assertTrue(total > 0);
+        assertEquals(total, flushed.get());
+        assertEquals(0, queue.pending());
+    }
+
+    @Test
+    @DisplayName("Una caída corta de la BD no debe perder registros: el lote se reintenta con backoff")
+    void testFailedFlushIsRetriedUntilTheDatabaseRecovers() throws Exception {
+        // ARRANGE
+        DataAccessResourceFailureException outage = new DataAccessResourceFailureException("failover");
+        when(batchWriter.insertIgnoringDuplicates(anyList()))
+                .thenThrow(outage, outage, outage, outage)
+                .thenAnswer(insertAll());
+        DnaWriteBehindQueue queue = newQueue(10_000);
+        queue.start();
+
+        // ACT
+        for (int i = 0; i < 10; i++) {
+            assertTrue(queue.offer(new DnaRecord(new byte[]{(byte) i}, false)));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (flushed.get() < 10 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        queue.stop();
+
+        // ASSERT
+        assertEquals(10, flushed.get());
+        assertEquals(0, queue.failedCount());
+        assertEquals(4, meterRegistry.get("dna.persist.batch")
+                .tags("source", "write_behind", "outcome", "failure").timer().count());
+        assertEquals(1, meterRegistry.get("dna.persist.batch")
+                .tags("source", "write_behind", "outcome", "success").timer().count());
+    }
+
+    @Test
+    @DisplayName("Con la BD caída la cola llena debe rechazar (back-pressure) en lugar de descartar")
+    void testFailingDatabaseAppliesBackPressure() throws Exception {
+        // ARRANGE
+        CountDownLatch firstAttempt = new CountDownLatch(1);
+        when(batchWriter.insertIgnoringDuplicates(anyList())).thenAnswer(invocation -> {
+            firstAttempt.countDown();
+            throw new DataAccessResourceFailureException("down");
+        });
+        DnaWriteBehindQueue queue = newQueue(2);
+        queue.start();
+        assertTrue(queue.offer(new DnaRecord(new byte[]{0}, false)));
+        assertTrue(firstAttempt.await(5, TimeUnit.SECONDS));
+
+        // ACT - el hilo retiene el lote fallido y no drena la cola
+        boolean second = queue.offer(new DnaRecord(new byte[]{1}, false));
+        boolean third = queue.offer(new DnaRecord(new byte[]{2}, false));
+        boolean fourth = queue.offer(new DnaRecord(new byte[]{3}, false));
+
+        // ASSERT
+        assertTrue(second);
+        assertTrue(third);
+        assertFalse(fourth);
+        assertEquals(1, queue.rejectedCount());
+        assertEquals(0, queue.failedCount());
+        assertEquals(2.0, meterRegistry.get("dna.write_behind.pending").gauge().value(), 0.0);
+        assertEquals(1.0, meterRegistry.get("dna.write_behind.records")
+                .tag("outcome", "rejected").functionCounter().count(), 0.0);
+        queue.stop();
+    }
+
+    @Test
+    @DisplayName("Un lote descartado al cerrar debe salir del caché para que se vuelva a guardar")
+    void testDroppedBatchIsEvictedFromTheResultCache() throws Exception {
+        // ARRANGE
+        when(batchWriter.insertIgnoringDuplicates(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+        DnaWriteBehindQueue queue = newQueue(10_000);
+        byte[] hash = {42};
+
+        // ACT - antes de start() offer() no encola ni cuenta un rechazo
+        assertFalse(queue.offer(new DnaRecord(hash, true)));
+        queue.start();
+        assertTrue(queue.offer(new DnaRecord(hash, true)));
+        queue.stop();
+
+        // ASSERT
+        assertEquals(1, queue.failedCount());
+        assertEquals(0, queue.rejectedCount());
+        assertEquals(1.0, meterRegistry.get("dna.write_behind.records")
+                .tag("outcome", "dropped").functionCounter().count(), 0.0);
+        verify(dnaResultCache).invalidate(hash);
+    }
+}
@@ -1,10 +1,26 @@
 package org.example.service;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.exception.InvalidDetectionRulesException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 class MutantDetectorTest {
 
@@ -12,7 +28,7 @@ class MutantDetectorTest {
 
     @BeforeEach
     void setUp() {
-        mutantDetector = new MutantDetector();
+        mutantDetector = MutantDetector.builder().build();
     }
 
     // ==================== TESTS DE MUTANTES (deben retornar true) ====================
@@ -117,6 +133,19 @@ class MutantDetectorTest {
         assertTrue(mutantDetector.isMutant(dna));
     }
 
+    @Test
+    @DisplayName("Debe detectar secuencias que cruzan el límite de palabra (columna 32)")
+    void testMutantWithSequencesAcrossPackedWordBoundary() {
+        char[][] matrix = buildHumanMatrix(40);
+        for (int col = 30; col < 34; col++) {
+            matrix[5][col] = 'G';          // Horizontal: GGGG en columnas 30-33
+        }
+        for (int i = 0; i < 4; i++) {
+            matrix[20 + i][29 + i] = 'T';  // Diagonal descendente: columnas 29-32
+        }
+        assertTrue(mutantDetector.isMutant(toDna(matrix)));
+    }
+
     // ==================== TESTS DE HUMANOS (deben retornar false) ====================
 
     @Test
@@ -145,6 +174,16 @@ class MutantDetectorTest {
         assertFalse(mutantDetector.isMutant(dna));
     }
 
+    @Test
+    @DisplayName("No debe detectar mutante en matriz grande 100x100 con una sola secuencia")
+    void testNotMutantLargeMatrixWithOnlyOneSequence() {
+        char[][] matrix = buildHumanMatrix(100);
+        for (int row = 60; row < 64; row++) {
+            matrix[row][63] = 'A';         // Vertical: AAAA en la última columna de la palabra
+        }
+        assertFalse(mutantDetector.isMutant(toDna(matrix)));
+    }
+
     // ==================== TESTS DE VALIDACIÓN (deben retornar false) ====================
 
     @Test
@@ -185,6 +224,34 @@ class MutantDetectorTest {
         assertFalse(mutantDetector.isMutant(dna));
     }
 
+    @Test
+    @DisplayName("Debe rechazar caracteres inválidos aunque ya haya encontrado 2 secuencias")
+    void testInvalidCharacterAfterEarlyTermination() {
+        String[] dna = {
+                "AAAAGA",  // Horizontal: AAAA
+                "CCCCGC",  // Horizontal: CCCC
+                "TTATGT",
+                "AGAAGG",
+                "CCGCTA",
+                "TCACTN"   // 'N' inválido en la última fila
+        };
+        assertFalse(mutantDetector.isMutant(dna));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar fila de distinto largo después de encontrar 2 secuencias")
+    void testShortRowAfterEarlyTermination() {
+        String[] dna = {
+                "AAAAGA",
+                "CCCCGC",
+                "TTATGT",
+                "AGAAGG",
+                "CCGCT",   // Fila de 5 caracteres
+                "TCACTG"
+        };
+        assertFalse(mutantDetector.isMutant(dna));
+    }
+
     @Test
     @DisplayName("Debe rechazar fila nula en el array")
     void testNullRowInArray() {
@@ -232,4 +299,434 @@ class MutantDetectorTest {
         // Debe ser muy rápido (menos de 10ms)
         assertTrue((endTime - startTime) < 10_000_000);
     }
+
+    // ==================== TESTS DE MODO PARALELO ====================
+
+    @Test
+    @DisplayName("Modo paralelo debe detectar secuencias que cruzan el borde entre bandas")
+    void testParallelDetectsSequencesAcrossBands() {
+        MutantDetector parallelDetector = MutantDetector.builder().parallelThreshold(0).build();
+        char[][] matrix = buildHumanMatrix(300);
+        for (int i = 0; i < 4; i++) {
+            matrix[148 + i][11] = 'A';       // Vertical: cruza la fila 150 (primer corte de banda)
+            matrix[73 + i][20 + i] = 'C';    // Diagonal descendente: cruza la fila 75
+        }
+        assertTrue(parallelDetector.isMutant(toDna(matrix)));
+    }
+
+    @Test
+    @DisplayName("Modo paralelo debe retornar false con una sola secuencia")
+    void testParallelHumanWithSingleSequence() {
+        MutantDetector parallelDetector = MutantDetector.builder().parallelThreshold(0).build();
+        char[][] matrix = buildHumanMatrix(300);
+        for (int i = 0; i < 4; i++) {
+            matrix[148 + i][11] = 'A';
+        }
+        assertFalse(parallelDetector.isMutant(toDna(matrix)));
+    }
+
+    @Test
+    @DisplayName("Modo paralelo debe rechazar caracteres inválidos aunque ya sea mutante")
+    void testParallelRejectsInvalidCharacter() {
+        MutantDetector parallelDetector = MutantDetector.builder().parallelThreshold(0).build();
+        char[][] matrix = buildHumanMatrix(300);
+        for (int col = 0; col < 8; col++) {
+            matrix[0][col] = 'G';            // Dos secuencias en la primera fila
+        }
+        matrix[299][299] = 'X';
+        assertFalse(parallelDetector.isMutant(toDna(matrix)));
+    }
+
+    @Test
+    @DisplayName("Modo paralelo debe dar el mismo resultado que el secuencial")
+    void testParallelMatchesSequential() {
+        MutantDetector parallelDetector = MutantDetector.builder().parallelThreshold(0).build();
+        Random random = new Random(42);
+        int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {-1, 1}};
+
+        for (int iteration = 0; iteration < 50; iteration++) {
+            int n = 4 + random.nextInt(300);
+            char[][] matrix = buildHumanMatrix(n);
+            int sequences = random.nextInt(4);
+            for (int s = 0; s < sequences; s++) {
+                int[] direction = directions[random.nextInt(directions.length)];
+                int row = direction[0] < 0 ? 3 + random.nextInt(n - 3) : random.nextInt(n - 3 * direction[0]);
+                int col = random.nextInt(n - 3);
+                char base = "ACGT".charAt(random.nextInt(4));
+                for (int i = 0; i < 4; i++) {
+                    matrix[row + i * direction[0]][col + i * direction[1]] = base;
+                }
+            }
+            String[] dna = toDna(matrix);
+            assertEquals(mutantDetector.isMutant(dna), parallelDetector.isMutant(dna), "n=" + n);
+        }
+    }
+
+    // ==================== TESTS DE VECTOR API ====================
+
+    @Test
+    @DisplayName("Vector API debe dar el mismo resultado que el camino escalar")
+    void testVectorMatchesScalar() {
+        MutantDetector vectorDetector = MutantDetector.builder()
+                .parallelThreshold(Integer.MAX_VALUE)
+                .build();
+        MutantDetector scalarDetector = MutantDetector.builder()
+                .parallelThreshold(Integer.MAX_VALUE)
+                .vectorEnabled(false)
+                .build();
+        assumeTrue(vectorDetector.isVectorized(), "JVM sin --add-modules jdk.incubator.vector");
+
+        Random random = new Random(7);
+        for (int iteration = 0; iteration < 200; iteration++) {
+            int n = 32 + random.nextInt(200);
+            char[][] matrix = new char[n][n];
+            for (int row = 0; row < n; row++) {
+                for (int col = 0; col < n; col++) {
+                    // Alfabeto reducido en algunas filas para que aparezcan secuencias
+                    matrix[row][col] = "ACGT".charAt(random.nextInt(row % 3 == 0 ? 2 : 4));
+                }
+            }
+            if (iteration % 10 == 0) {
+                matrix[random.nextInt(n)][random.nextInt(n)] = 'X';
+            }
+            String[] dna = toDna(matrix);
+            assertEquals(scalarDetector.isMutant(dna), vectorDetector.isMutant(dna), "n=" + n);
+        }
+    }
+
+    @Test
+    @DisplayName("Sin Vector API debe usar el camino escalar")
+    void testScalarWhenVectorDisabled() {
+        MutantDetector scalarDetector = MutantDetector.builder()
+                .parallelThreshold(Integer.MAX_VALUE)
+                .vectorEnabled(false)
+                .build();
+        char[][] matrix = buildHumanMatrix(100);
+        for (int row = 60; row < 64; row++) {
+            matrix[row][63] = 'A';
+        }
+
+        assertFalse(scalarDetector.isVectorized());
+        assertFalse(scalarDetector.isMutant(toDna(matrix)));
+    }
+
+    // ==================== TESTS DE RUN-LENGTH ====================
+
+    @Test
+    @DisplayName("Run-length debe dar el mismo resultado que el camino empaquetado")
+    void testRunLengthMatchesPacked() {
+        MutantDetector runLengthDetector = MutantDetector.builder()
+                .parallelThreshold(Integer.MAX_VALUE)
+                .vectorEnabled(false)
+                .algorithm(MutantDetector.ALGORITHM_RUN_LENGTH)
+                .build();
+
+        Random random = new Random(7);
+        for (int iteration = 0; iteration < 2000; iteration++) {
+            int n = 1 + random.nextInt(iteration % 20 == 0 ? 200 : 12);
+            char[][] matrix = new char[n][n];
+            for (int row = 0; row < n; row++) {
+                for (int col = 0; col < n; col++) {
+                    // Alfabeto reducido en algunas filas para que aparezcan secuencias
+                    matrix[row][col] = "ACGT".charAt(random.nextInt(row % 3 == 0 ? 2 : 4));
+                }
+            }
+            if (iteration % 10 == 0) {
+                matrix[random.nextInt(n)][random.nextInt(n)] = 'X';
+            }
+            String[] dna = toDna(matrix);
+            assertEquals(mutantDetector.isMutant(dna), runLengthDetector.isMutant(dna), "n=" + n);
+        }
+    }
+
+    @Test
+    @DisplayName("Run-length debe contar dos secuencias en una racha de 5 y validar después de cortar")
+    void testRunLengthOverlapAndValidation() {
+        MutantDetector runLengthDetector = MutantDetector.builder()
+                .parallelThreshold(Integer.MAX_VALUE)
+                .vectorEnabled(false)
+                .algorithm(MutantDetector.ALGORITHM_RUN_LENGTH)
+                .build();
+        char[][] matrix = buildHumanMatrix(8);
+        for (int col = 1; col < 6; col++) {
+            matrix[3][col] = 'C'; // GCCCCCAC: una sola racha de 5
+        }
+
+        assertTrue(runLengthDetector.isMutant(toDna(matrix)));
+        matrix[7][7] = 'X';
+        assertFalse(runLengthDetector.isMutant(toDna(matrix)));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar un algoritmo de detección desconocido")
+    void testRejectsUnknownAlgorithm() {
+        assertThrows(IllegalArgumentException.class,
+                () -> MutantDetector.builder()
+                        .parallelThreshold(Integer.MAX_VALUE)
+                        .vectorEnabled(false)
+                        .algorithm("regex")
+                        .build());
+    }
+
+    // ==================== TESTS DE STREAMING ====================
+
+    @Test
+    @DisplayName("Las filas de a una deben dar el mismo resultado que la matriz en memoria")
+    void testRowStreamMatchesInMemory() throws IOException {
+        Random random = new Random(11);
+        for (int iteration = 0; iteration < 500; iteration++) {
+            int n = 1 + random.nextInt(iteration % 20 == 0 ? 150 : 12);
+            char[][] matrix = new char[n][n];
+            for (int row = 0; row < n; row++) {
+                for (int col = 0; col < n; col++) {
+                    matrix[row][col] = "ACGT".charAt(random.nextInt(row % 3 == 0 ? 2 : 4));
+                }
+            }
+            if (iteration % 10 == 0) {
+                matrix[random.nextInt(n)][random.nextInt(n)] = 'X';
+            }
+            String[] dna = toDna(matrix);
+            boolean expected = mutantDetector.isMutant(dna);
+
+            assertEquals(expected, mutantDetector.isMutantRows(Arrays.asList(dna).iterator()), "n=" + n);
+            assertEquals(expected, mutantDetector.isMutantRows(channel(String.join("\n", dna) + "\n")), "n=" + n);
+        }
+    }
+
+    @Test
+    @DisplayName("Debe analizar una matriz generada fila por fila sin materializarla")
+    void testRowStreamWithoutMaterializedMatrix() {
+        // ARRANGE - 4096 filas generadas al vuelo; una secuencia vertical y una horizontal al final
+        final int n = 4096;
+        Iterator<CharSequence> rows = new Iterator<>() {
+            private final char[] row = new char[n];
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < n;
+            }
+
+            @Override
+            public CharSequence next() {
+                for (int col = 0; col < n; col++) {
+                    row[col] = "ACGT".charAt((col + 2 * next) % 4);
+                }
+                if (next >= n - 4) {
+                    row[100] = 'A';
+                }
+                if (next == n - 1) {
+                    Arrays.fill(row, 0, 4, 'T');
+                }
+                next++;
+                return CharBuffer.wrap(row); // Misma vista en cada fila
+            }
+        };
+
+        // ACT & ASSERT
+        assertTrue(mutantDetector.isMutantRows(rows));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar filas de más, filas de menos y un canal vacío")
+    void testRowStreamRejectsNonSquare() throws IOException {
+        List<String> dna = new ArrayList<>(List.of("ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"));
+        assertTrue(mutantDetector.isMutantRows(dna.iterator()));
+        assertTrue(mutantDetector.isMutantRows(channel(String.join("\r\n", dna))));
+
+        assertFalse(mutantDetector.isMutantRows(dna.subList(0, 5).iterator()));
+        dna.add("AAAAAA");
+        assertFalse(mutantDetector.isMutantRows(dna.iterator()));
+        assertFalse(mutantDetector.isMutantRows(channel("")));
+        assertFalse(mutantDetector.isMutantRows(channel("ATGCGA\n\nCAGTGC")));
+    }
+
+    // ==================== TESTS DE REGLAS CONFIGURABLES ====================
+
+    @Test
+    @DisplayName("El detector empaquetado de reglas debe coincidir con la regla por defecto")
+    void testPackedRulesMatchesDefaultRule() {
+        Random random = new Random(5);
+        for (int iteration = 0; iteration < 500; iteration++) {
+            String[] dna = randomDna(random, "ACGT", 1 + random.nextInt(iteration % 20 == 0 ? 150 : 12));
+            assertEquals(mutantDetector.isMutant(dna),
+                    scan(new PackedRulesDetector(DetectionRules.DEFAULT, dna.length), dna), "n=" + dna.length);
+        }
+    }
+
+    @Test
+    @DisplayName("Empaquetado y run-length deben coincidir con cualquier K, M y direcciones")
+    void testPackedRulesMatchesRunLength() {
+        List<String> allDirections = List.of("horizontal", "vertical", "diagonal", "anti-diagonal");
+        Random random = new Random(9);
+        for (int iteration = 0; iteration < 2000; iteration++) {
+            List<String> directions = allDirections.stream().filter(direction -> random.nextBoolean()).toList();
+            DetectionRules rules = DetectionRules.of(2 + random.nextInt(5), 1 + random.nextInt(4),
+                    random.nextBoolean() ? "ACGT" : "AC", directions.isEmpty() ? allDirections : directions);
+            String[] dna = randomDna(random, rules.getAlphabet(), 1 + random.nextInt(iteration % 20 == 0 ? 100 : 12));
+
+            assertEquals(scan(new RunLengthRowDetector(rules, dna.length), dna),
+                    scan(new PackedRulesDetector(rules, dna.length), dna), rules + " n=" + dna.length);
+        }
+    }
+
+    @Test
+    @DisplayName("Debe aplicar largo, mínimo, direcciones y alfabeto del request")
+    void testIsMutantWithRules() {
+        // ARRANGE - una racha horizontal de 5 (2 secuencias de 4) y una vertical de 4
+        String[] dna = {
+                "TTTTTC",
+                "GTACGA",
+                "ACGTAA",
+                "GTACGA",
+                "ACGTAA",
+                "GTACGT"
+        };
+        List<String> all = List.of("horizontal", "vertical", "diagonal", "anti-diagonal");
+
+        // ACT & ASSERT
+        assertFalse(mutantDetector.isMutant(dna, DetectionRules.of(5, 2, "ACGT", all)));
+        assertTrue(mutantDetector.isMutant(dna, DetectionRules.of(5, 1, "ACGT", all)));
+        assertTrue(mutantDetector.isMutant(dna, DetectionRules.of(4, 3, "ACGT", all)));
+        assertFalse(mutantDetector.isMutant(dna, DetectionRules.of(4, 4, "ACGT", all)));
+        assertTrue(mutantDetector.isMutant(dna, DetectionRules.of(4, 1, "ACGT", List.of("vertical"))));
+        assertFalse(mutantDetector.isMutant(dna, DetectionRules.of(4, 2, "ACGT", List.of("vertical"))));
+        assertTrue(mutantDetector.isMutant(dna, DetectionRules.of(4, 2, "ACGT", List.of("horizontal"))));
+        assertFalse(mutantDetector.isMutant(dna, DetectionRules.of(4, 1, "ACG", all)));
+
+        // Alfabeto de más de 4 bases: camino genérico
+        String[] rna = {"AUGCN", "CNNNN", "UUAUG", "AGAAG", "CCCCU"};
+        assertTrue(mutantDetector.isMutant(rna, DetectionRules.of(4, 2, "ACGUN", all)));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar reglas inválidas")
+    void testRejectsInvalidRules() {
+        List<String> all = List.of("horizontal");
+        assertThrows(InvalidDetectionRulesException.class, () -> DetectionRules.of(1, 2, "ACGT", all));
+        assertThrows(InvalidDetectionRulesException.class, () -> DetectionRules.of(65, 2, "ACGT", all));
+        assertThrows(InvalidDetectionRulesException.class, () -> DetectionRules.of(4, 0, "ACGT", all));
+        assertThrows(InvalidDetectionRulesException.class, () -> DetectionRules.of(4, 2, "AACG", all));
+        assertThrows(InvalidDetectionRulesException.class, () -> DetectionRules.of(4, 2, "AC-G", all));
+        assertThrows(InvalidDetectionRulesException.class, () -> DetectionRules.of(4, 2, "ACGT", List.of()));
+        assertThrows(InvalidDetectionRulesException.class, () -> DetectionRules.of(4, 2, "ACGT", List.of("up")));
+        assertTrue(DetectionRules.of(4, 2, "tgca", List.of("horizontal", "vertical", "diagonal", "anti-diagonal"))
+                .isDefault());
+    }
+
+    // ==================== MÉTRICAS ====================
+
+    @Test
+    @DisplayName("Debe registrar el % de filas recorridas al cortar por early termination")
+    void testRecordsEarlyTerminationPosition() {
+        // ARRANGE - la segunda secuencia se completa en la quinta fila de 6
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MutantDetector detector = MutantDetector.builder()
+                .parallelThreshold(Integer.MAX_VALUE)
+                .vectorEnabled(false)
+                .metrics(new DnaMetrics(registry))
+                .build();
+        String[] dna = {
+                "AAAAGC",  // Horizontal: AAAA
+                "CAGTGC",
+                "TTCTAT",
+                "AGACGG",
+                "CCCCTA",  // Horizontal: CCCC
+                "TCACTG"
+        };
+
+        // ACT
+        boolean result = detector.isMutant(dna);
+
+        // ASSERT
+        DistributionSummary summary = registry.get("dna.detection.early.termination").summary();
+        assertTrue(result);
+        assertEquals(1, summary.count());
+        assertEquals(100.0 * 5 / 6, summary.totalAmount(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Run-length debe registrar la misma fila de corte que el camino empaquetado")
+    void testRunLengthRecordsEarlyTerminationPosition() {
+        // ARRANGE - la segunda secuencia se completa en la quinta fila de 6
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MutantDetector detector = MutantDetector.builder()
+                .parallelThreshold(Integer.MAX_VALUE)
+                .vectorEnabled(false)
+                .algorithm(MutantDetector.ALGORITHM_RUN_LENGTH)
+                .metrics(new DnaMetrics(registry))
+                .build();
+        String[] dna = {
+                "AAAAGC",  // Horizontal: AAAA
+                "CAGTGC",
+                "TTCTAT",
+                "AGACGG",
+                "CCCCTA",  // Horizontal: CCCC
+                "TCACTG"
+        };
+
+        // ACT
+        boolean result = detector.isMutant(dna);
+
+        // ASSERT
+        DistributionSummary summary = registry.get("dna.detection.early.termination").summary();
+        assertTrue(result);
+        assertEquals(1, summary.count());
+        assertEquals(100.0 * 5 / 6, summary.totalAmount(), 0.001);
+    }
+
+    // ==================== HELPERS ====================
+
+    /**
+     * Matriz sin ninguna secuencia: cada fila desplaza el patrón ACGT dos posiciones.
+     */
+    private static char[][] buildHumanMatrix(int n) {
+        char[][] matrix = new char[n][n];
+        for (int row = 0; row < n; row++) {
+            for (int col = 0; col < n; col++) {
+                matrix[row][col] = "ACGT".charAt((col + 2 * row) % 4);
+            }
+        }
+        return matrix;
+    }
+
+    private static boolean scan(RowDetector detector, String[] dna) {
+        for (int row = 0; row < dna.length; row++) {
+            if (!detector.acceptRow(row, dna[row])) {
+                return false;
+            }
+        }
+        return detector.isMutant();
+    }
+
+    private static String[] randomDna(Random random, String alphabet, int n) {
+        String[] dna = new String[n];
+        for (int row = 0; row < n; row++) {
+            StringBuilder bases = new StringBuilder(n);
+            for (int col = 0; col < n; col++) {
+                // Alfabeto reducido en algunas filas para que aparezcan secuencias
+                bases.append(alphabet.charAt(random.nextInt(row % 3 == 0 ? Math.min(2, alphabet.length()) : alphabet.length())));
+            }
+            dna[row] = bases.toString();
+        }
+        if (random.nextInt(10) == 0) {
+            int invalidRow = random.nextInt(n);
+            char[] row = dna[invalidRow].toCharArray();
+            row[random.nextInt(n)] = 'X';
+            dna[invalidRow] = new String(row);
+        }
+        return dna;
+    }
+
+    private static ReadableByteChannel channel(String text) {
+        return Channels.newChannel(new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static String[] toDna(char[][] matrix) {
+        String[] dna = new String[matrix.length];
+        for (int i = 0; i < matrix.length; i++) {
+            dna[i] = new String(matrix[i]);
+        }
+        return dna;
+    }
 }
@@ -1,6 +1,14 @@
 package org.example.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.dto.DetectionRulesRequest;
+import org.example.dto.DnaBatchResult;
+import org.example.dto.DnaLookupResult;
 import org.example.entity.DnaRecord;
+import org.example.exception.InvalidDetectionRulesException;
+import org.example.exception.InvalidDnaException;
+import org.example.exception.InvalidDnaHashException;
+import org.example.repository.DnaRecordBatchWriter;
 import org.example.repository.DnaRecordRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -8,11 +16,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -25,6 +39,33 @@ class MutantServiceTest {
     @Mock
     private DnaRecordRepository dnaRecordRepository;
 
+    @Mock
+    private DnaResultCache dnaResultCache;
+
+    @Mock
+    private DnaWriteBehindQueue writeBehindQueue;
+
+    @Mock
+    private StatsService statsService;
+
+    @Spy
+    private DnaFingerprinter dnaFingerprinter = new Sha256DnaFingerprinter();
+
+    @Mock
+    private DnaRecordBatchWriter dnaRecordBatchWriter;
+
+    @Spy
+    private DnaInFlightRequests inFlightRequests = new DnaInFlightRequests();
+
+    // Deshabilitado: siempre "puede estar", se consulta la BD
+    @Spy
+    private DnaHashBloomFilter hashFilter = new DnaHashBloomFilter(null, null, false, 1000, 0.01, "");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private DnaMetrics dnaMetrics = new DnaMetrics(meterRegistry);
+
     @InjectMocks
     private MutantService mutantService;
 
@@ -33,6 +74,14 @@ class MutantServiceTest {
 
     @BeforeEach
     void setUp() {
+        // Por defecto el insert ocurre: insertOrGet retorna el mismo registro
+        lenient().when(dnaRecordBatchWriter.insertOrGet(any(DnaRecord.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Por defecto el caché en memoria no tiene el hash (sin stub, Mockito retornaría false: un hit)
+        lenient().when(dnaResultCache.get(any(byte[].class)))
+                .thenReturn(null);
+
         mutantDna = new String[]{
                 "ATGCGA", "CAGTGC", "TTATGT",
                 "AGAAGG", "CCCCTA", "TCACTG"
@@ -48,12 +97,10 @@ class MutantServiceTest {
     @DisplayName("Debe analizar ADN mutante y guardarlo en DB")
     void testAnalyzeMutantDnaAndSave() {
         // ARRANGE
-        when(dnaRecordRepository.findByDnaHash(anyString()))
+        when(dnaRecordRepository.findByDnaHash(any(byte[].class)))
                 .thenReturn(Optional.empty());
         when(mutantDetector.isMutant(mutantDna))
                 .thenReturn(true);
-        when(dnaRecordRepository.save(any(DnaRecord.class)))
-                .thenReturn(new DnaRecord());
 
         // ACT
         boolean result = mutantService.analyzeDna(mutantDna);
@@ -61,19 +108,17 @@ class MutantServiceTest {
         // ASSERT
         assertTrue(result);
         verify(mutantDetector, times(1)).isMutant(mutantDna);
-        verify(dnaRecordRepository, times(1)).save(any(DnaRecord.class));
+        verify(dnaRecordBatchWriter, times(1)).insertOrGet(any(DnaRecord.class));
     }
 
     @Test
     @DisplayName("Debe analizar ADN humano y guardarlo en DB")
     void testAnalyzeHumanDnaAndSave() {
         // ARRANGE
-        when(dnaRecordRepository.findByDnaHash(anyString()))
+        when(dnaRecordRepository.findByDnaHash(any(byte[].class)))
                 .thenReturn(Optional.empty());
         when(mutantDetector.isMutant(humanDna))
                 .thenReturn(false);
-        when(dnaRecordRepository.save(any(DnaRecord.class)))
-                .thenReturn(new DnaRecord());
 
         // ACT
         boolean result = mutantService.analyzeDna(humanDna);
@@ -81,15 +126,15 @@ class MutantServiceTest {
         // ASSERT
         assertFalse(result);
         verify(mutantDetector, times(1)).isMutant(humanDna);
-        verify(dnaRecordRepository, times(1)).save(any(DnaRecord.class));
+        verify(dnaRecordBatchWriter, times(1)).insertOrGet(any(DnaRecord.class));
     }
 
     @Test
     @DisplayName("Debe retornar resultado cacheado si el ADN ya fue analizado")
     void testReturnCachedResultForAnalyzedDna() {
         // ARRANGE
-        DnaRecord cachedRecord = new DnaRecord("somehash", true);
-        when(dnaRecordRepository.findByDnaHash(anyString()))
+        DnaRecord cachedRecord = new DnaRecord(new byte[32], true);
+        when(dnaRecordRepository.findByDnaHash(any(byte[].class)))
                 .thenReturn(Optional.of(cachedRecord));
 
         // ACT
@@ -98,14 +143,14 @@ class MutantServiceTest {
         // ASSERT
         assertTrue(result);
         verify(mutantDetector, never()).isMutant(any());
-        verify(dnaRecordRepository, never()).save(any());
+        verify(dnaRecordBatchWriter, never()).insertOrGet(any());
     }
 
     @Test
     @DisplayName("Debe generar hash consistente para el mismo ADN")
     void testConsistentHashGeneration() {
         // ARRANGE
-        when(dnaRecordRepository.findByDnaHash(anyString()))
+        when(dnaRecordRepository.findByDnaHash(any(byte[].class)))
                 .thenReturn(Optional.empty());
         when(mutantDetector.isMutant(any()))
                 .thenReturn(true);
@@ -115,14 +160,14 @@ class MutantServiceTest {
         mutantService.analyzeDna(mutantDna);
 
         // ASSERT - Debe buscar por el mismo hash ambas veces
-        verify(dnaRecordRepository, times(2)).findByDnaHash(anyString());
+        verify(dnaRecordRepository, times(2)).findByDnaHash(any(byte[].class));
     }
 
     @Test
     @DisplayName("Debe guardar registro con hash correcto")
     void testSavesRecordWithCorrectHash() {
         // ARRANGE
-        when(dnaRecordRepository.findByDnaHash(anyString()))
+        when(dnaRecordRepository.findByDnaHash(any(byte[].class)))
                 .thenReturn(Optional.empty());
         when(mutantDetector.isMutant(mutantDna))
                 .thenReturn(true);
@@ -131,10 +176,508 @@ class MutantServiceTest {
         mutantService.analyzeDna(mutantDna);
 
         // ASSERT
-        verify(dnaRecordRepository).save(argThat(record ->
+        verify(dnaRecordBatchWriter).insertOrGet(argThat(record ->
                 record.getDnaHash() != null &&
-                        record.getDnaHash().length() == 64 &&  // SHA-256 = 64 chars hex
+                        record.getDnaHash().length == 32 &&  // SHA-256 = 32 bytes binarios
                         record.isMutant()
         ));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Debe guardar el resultado de un ADN analizado en streaming")
+    void testRecordAnalysisSavesNewResult() {
+        // ARRANGE
+        byte[] streamHash = new byte[32];
+        streamHash[0] = 7;
+        DnaAnalysis analysis = new DnaAnalysis(streamHash, true, 6);
+        when(dnaRecordRepository.findByDnaHash(aryEq(streamHash)))
+                .thenReturn(Optional.empty());
+
+        // ACT
+        boolean result = mutantService.recordAnalysis(analysis);
+
+        // ASSERT
+        assertTrue(result);
+        verify(mutantDetector, never()).isMutant(any());
+        verify(dnaRecordBatchWriter).insertOrGet(argThat(record ->
+                record.getDnaHash() == streamHash && record.isMutant()
+        ));
+    }
+
+    @Test
+    @DisplayName("Debe retornar el resultado cacheado de un ADN analizado en streaming")
+    void testRecordAnalysisReturnsCachedResult() {
+        // ARRANGE
+        byte[] streamHash = new byte[32];
+        DnaAnalysis analysis = new DnaAnalysis(streamHash, true, 6);
+        when(dnaRecordRepository.findByDnaHash(aryEq(streamHash)))
+                .thenReturn(Optional.of(new DnaRecord(streamHash, false)));
+
+        // ACT
+        boolean result = mutantService.recordAnalysis(analysis);
+
+        // ASSERT
+        assertFalse(result);
+        verify(dnaRecordBatchWriter, never()).insertOrGet(any());
+    }
+
+    @Test
+    @DisplayName("Debe retornar resultado del caché en memoria sin consultar la BD")
+    void testReturnInMemoryCachedResultWithoutDatabase() {
+        // ARRANGE
+        when(dnaResultCache.get(any(byte[].class)))
+                .thenReturn(true);
+
+        // ACT
+        boolean result = mutantService.analyzeDna(mutantDna);
+
+        // ASSERT
+        assertTrue(result);
+        verify(dnaRecordRepository, never()).findByDnaHash(any(byte[].class));
+        verify(mutantDetector, never()).isMutant(any());
+        verify(dnaRecordBatchWriter, never()).insertOrGet(any());
+    }
+
+    @Test
+    @DisplayName("Debe guardar en el caché en memoria el resultado de un ADN nuevo")
+    void testPutsNewResultInMemoryCache() {
+        // ARRANGE
+        when(dnaRecordRepository.findByDnaHash(any(byte[].class)))
+                .thenReturn(Optional.empty());
+        when(mutantDetector.isMutant(humanDna))
+                .thenReturn(false);
+
+        // ACT
+        mutantService.analyzeDna(humanDna);
+
+        // ASSERT
+        verify(dnaResultCache).put(any(byte[].class), eq(false));
+    }
+
+    @Test
+    @DisplayName("Debe guardar en el caché en memoria el resultado encontrado en BD")
+    void testPutsDatabaseResultInMemoryCache() {
+        // ARRANGE
+        when(dnaRecordRepository.findByDnaHash(any(byte[].class)))
+                .thenReturn(Optional.of(new DnaRecord(new byte[32], true)));
+
+        // ACT
+        mutantService.analyzeDna(mutantDna);
+
+        // ASSERT
+        verify(dnaResultCache).put(any(byte[].class), eq(true));
+    }
+
+    @Test
+    @DisplayName("Debe encolar el registro nuevo en write-behind en lugar de guardarlo")
+    void testEnqueuesNewRecordInWriteBehind() {
+        // ARRANGE
+        when(dnaRecordRepository.findByDnaHash(any(byte[].class)))
+                .thenReturn(Optional.empty());
+        when(mutantDetector.isMutant(mutantDna))
+                .thenReturn(true);
+        when(writeBehindQueue.offer(any(DnaRecord.class)))
+                .thenReturn(true);
+
+        // ACT
+        boolean result = mutantService.analyzeDna(mutantDna);
+
+        // ASSERT
+        assertTrue(result);
+        verify(writeBehindQueue).offer(argThat(DnaRecord::isMutant));
+        verify(dnaRecordBatchWriter, never()).insertOrGet(any());
+        verify(statsService, never()).recordInsert(anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Debe actualizar los contadores de /stats al guardar un ADN nuevo")
+    void testRecordsInsertInStats() {
+        // ARRANGE
+        when(dnaRecordRepository.findByDnaHash(any(byte[].class)))
+                .thenReturn(Optional.empty());
+        when(mutantDetector.isMutant(humanDna))
+                .thenReturn(false);
+
+        // ACT
+        mutantService.analyzeDna(humanDna);
+
+        // ASSERT
+        verify(statsService).recordInsert(false);
+    }
+
+    @Test
+    @DisplayName("Si el filtro Bloom descarta el hash no debe consultar la BD antes de analizar")
+    void testBloomFilterMissSkipsDatabaseLookup() {
+        // ARRANGE
+        doReturn(false).when(hashFilter).mightContain(any(byte[].class));
+        when(mutantDetector.isMutant(mutantDna))
+                .thenReturn(true);
+
+        // ACT
+        boolean result = mutantService.analyzeDna(mutantDna);
+
+        // ASSERT
+        assertTrue(result);
+        verify(dnaRecordRepository, never()).findByDnaHash(any(byte[].class));
+        verify(dnaRecordBatchWriter).insertOrGet(argThat(DnaRecord::isMutant));
+        verify(hashFilter).put(any(byte[].class));
+    }
+
+    @Test
+    @DisplayName("Debe registrar el resultado y la duración de cada fase en las métricas")
+    void testRecordsPhaseAndResultMetrics() {
+        // ARRANGE
+        when(dnaRecordRepository.findByDnaHash(any(byte[].class)))
+                .thenReturn(Optional.empty());
+        when(mutantDetector.isMutant(mutantDna))
+                .thenReturn(true);
+
+        // ACT
+        mutantService.analyzeDna(mutantDna);
+
+        // ASSERT
+        assertEquals(1.0, meterRegistry.get("dna.results").tag("type", "mutant").counter().count(), 0.0);
+        assertEquals(6.0, meterRegistry.get("dna.matrix.size").summary().totalAmount(), 0.0);
+        for (String phase : List.of("hash", "cache", "lookup", "detect", "save")) {
+            assertEquals(1, meterRegistry.get("dna.analyze.phase").tag("phase", phase).timer().count());
+        }
+    }
+
+    @Test
+    @DisplayName("Si otro request guardó el mismo ADN primero debe usar el resultado guardado sin contarlo")
+    void testConcurrentInsertReturnsStoredResult() {
+        // ARRANGE
+        when(dnaRecordRepository.findByDnaHash(any(byte[].class)))
+                .thenReturn(Optional.empty());
+        when(mutantDetector.isMutant(mutantDna))
+                .thenReturn(true);
+        when(dnaRecordBatchWriter.insertOrGet(any(DnaRecord.class)))
+                .thenReturn(new DnaRecord(new byte[32], true));
+
+        // ACT
+        boolean result = mutantService.analyzeDna(mutantDna);
+
+        // ASSERT
+        assertTrue(result);
+        verify(statsService, never()).recordInsert(anyBoolean());
+        verify(dnaResultCache).put(any(byte[].class), eq(true));
+    }
+
+    @Test
+    @DisplayName("Con verificación debe analizar sin guardar si la huella choca con otro ADN")
+    void testVerifyFingerprintDetectsCollision() {
+        // ARRANGE
+        ReflectionTestUtils.setField(mutantService, "verifyFingerprints", true);
+        DnaRecord otherDna = new DnaRecord(new byte[32], false);
+        otherDna.setDnaBases(CompactDnaEncoding.encode(humanDna));
+        when(dnaRecordRepository.findByDnaHash(any(byte[].class)))
+                .thenReturn(Optional.of(otherDna));
+        when(mutantDetector.isMutant(mutantDna))
+                .thenReturn(true);
+
+        // ACT
+        boolean result = mutantService.analyzeDna(mutantDna);
+
+        // ASSERT
+        assertTrue(result);
+        verify(mutantDetector).isMutant(mutantDna);
+        verify(dnaRecordBatchWriter, never()).insertOrGet(any());
+        verify(dnaResultCache, never()).get(any(byte[].class));
+    }
+
+    @Test
+    @DisplayName("Con verificación debe retornar el resultado guardado si el ADN coincide")
+    void testVerifyFingerprintAcceptsSameDna() {
+        // ARRANGE
+        ReflectionTestUtils.setField(mutantService, "verifyFingerprints", true);
+        DnaRecord sameDna = new DnaRecord(new byte[32], true);
+        sameDna.setDnaBases(CompactDnaEncoding.encode(mutantDna));
+        when(dnaRecordRepository.findByDnaHash(any(byte[].class)))
+                .thenReturn(Optional.of(sameDna));
+
+        // ACT
+        boolean result = mutantService.analyzeDna(mutantDna);
+
+        // ASSERT
+        assertTrue(result);
+        verify(mutantDetector, never()).isMutant(any());
+    }
+
+    @Test
+    @DisplayName("Con verificación debe guardar el ADN codificado junto a la huella")
+    void testVerifyFingerprintStoresEncodedDna() {
+        // ARRANGE
+        ReflectionTestUtils.setField(mutantService, "verifyFingerprints", true);
+        when(dnaRecordRepository.findByDnaHash(any(byte[].class)))
+                .thenReturn(Optional.empty());
+        when(mutantDetector.isMutant(mutantDna))
+                .thenReturn(true);
+
+        // ACT
+        mutantService.analyzeDna(mutantDna);
+
+        // ASSERT
+        byte[] expected = CompactDnaEncoding.encode(mutantDna);
+        verify(dnaRecordBatchWriter).insertOrGet(argThat(record ->
+                Arrays.equals(expected, record.getDnaBases())
+        ));
+    }
+
+    @Test
+    @DisplayName("Con verificación un ADN mayor al N máximo debe analizarse sin caché ni guardado")
+    void testVerifyFingerprintAnalyzesOversizedDnaWithoutPersisting() {
+        // ARRANGE
+        ReflectionTestUtils.setField(mutantService, "verifyFingerprints", true);
+        String[] oversizedDna = oversizedDna();
+        doReturn(new byte[32]).when(dnaFingerprinter).fingerprint(any(String[].class));
+        when(mutantDetector.isMutant(oversizedDna))
+                .thenReturn(true);
+
+        // ACT
+        boolean result = mutantService.analyzeDna(oversizedDna);
+
+        // ASSERT
+        assertTrue(result);
+        verify(dnaRecordRepository, never()).findByDnaHash(any());
+        verify(writeBehindQueue, never()).offer(any());
+        verify(dnaRecordBatchWriter, never()).insertOrGet(any());
+        verify(dnaResultCache, never()).put(any(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Con verificación un ADN leído en streaming mayor al N máximo no debe guardarse")
+    void testVerifyFingerprintRecordAnalysisWithoutBasesSkipsPersistence() {
+        // ARRANGE
+        ReflectionTestUtils.setField(mutantService, "verifyFingerprints", true);
+        DnaAnalysis analysis = new DnaAnalysis(new byte[32], true, CompactDnaEncoding.MAX_SIZE + 1);
+
+        // ACT
+        boolean result = mutantService.recordAnalysis(analysis);
+
+        // ASSERT
+        assertTrue(result);
+        verify(dnaRecordRepository, never()).findByDnaHash(any());
+        verify(dnaRecordBatchWriter, never()).insertOrGet(any());
+    }
+
+    @Test
+    @DisplayName("Con verificación el lote debe analizar uno por uno los ADN mayores al N máximo")
+    void testAnalyzeBatchWithVerifyAnalyzesOversizedDna() {
+        // ARRANGE
+        ReflectionTestUtils.setField(mutantService, "verifyFingerprints", true);
+        String[] oversizedDna = oversizedDna();
+        doReturn(new byte[32]).when(dnaFingerprinter).fingerprint(any(String[].class));
+        when(mutantDetector.isMutant(oversizedDna))
+                .thenReturn(true);
+
+        // ACT
+        List<DnaBatchResult> results = mutantService.analyzeBatch(List.of(oversizedDna, oversizedDna));
+
+        // ASSERT
+        assertEquals(List.of(DnaBatchResult.MUTANT, DnaBatchResult.MUTANT), results);
+        verify(mutantDetector, times(2)).isMutant(oversizedDna);
+        verify(dnaRecordRepository, never()).findByDnaHashIn(anyCollection());
+        verify(dnaRecordBatchWriter, never()).insertIgnoringDuplicates(anyList());
+    }
+
+    @Test
+    @DisplayName("Debe analizar un lote deduplicando por huella y con una sola consulta a BD")
+    void testAnalyzeBatchDedupesAndQueriesOnce() {
+        // ARRANGE
+        String[] invalidDna = {"ATGX", "CAGT", "TTAT", "AGAC"};
+        when(dnaRecordRepository.findByDnaHashIn(anyCollection()))
+                .thenReturn(List.of());
+        when(mutantDetector.isMutant(mutantDna))
+                .thenReturn(true);
+        when(mutantDetector.isMutant(humanDna))
+                .thenReturn(false);
+        when(dnaRecordBatchWriter.insertIgnoringDuplicates(anyList()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // ACT
+        List<DnaBatchResult> results = mutantService.analyzeBatch(
+                List.of(mutantDna, humanDna, mutantDna, invalidDna));
+
+        // ASSERT
+        assertEquals(List.of(DnaBatchResult.MUTANT, DnaBatchResult.HUMAN,
+                DnaBatchResult.MUTANT, DnaBatchResult.INVALID), results);
+        verify(dnaRecordRepository, times(1)).findByDnaHashIn(anyCollection());
+        verify(mutantDetector, times(1)).isMutant(mutantDna);
+        verify(dnaRecordBatchWriter).insertIgnoringDuplicates(argThat(records -> records.size() == 2));
+        verify(statsService).recordInsert(true);
+        verify(statsService).recordInsert(false);
+        verify(dnaRecordBatchWriter, never()).insertOrGet(any());
+    }
+
+    @Test
+    @DisplayName("Debe resolver el lote con los resultados guardados en BD sin analizar")
+    void testAnalyzeBatchUsesDatabaseResults() {
+        // ARRANGE
+        byte[] mutantHash = new Sha256DnaFingerprinter().fingerprint(mutantDna);
+        when(dnaRecordRepository.findByDnaHashIn(anyCollection()))
+                .thenReturn(List.of(new DnaRecord(mutantHash, true)));
+
+        // ACT
+        List<DnaBatchResult> results = mutantService.analyzeBatch(List.of(mutantDna, mutantDna));
+
+        // ASSERT
+        assertEquals(List.of(DnaBatchResult.MUTANT, DnaBatchResult.MUTANT), results);
+        verify(mutantDetector, never()).isMutant(any());
+        verify(dnaRecordBatchWriter, never()).insertIgnoringDuplicates(anyList());
+        verify(dnaResultCache).put(aryEq(mutantHash), eq(true));
+    }
+
+    @Test
+    @DisplayName("Con verificación el lote no debe agrupar ADN distintos que comparten huella")
+    void testAnalyzeBatchWithVerifyKeepsCollidingDnaApart() {
+        // ARRANGE
+        ReflectionTestUtils.setField(mutantService, "verifyFingerprints", true);
+        doReturn(new byte[32]).when(dnaFingerprinter).fingerprint(any(String[].class));
+        when(dnaRecordRepository.findByDnaHashIn(anyCollection()))
+                .thenReturn(List.of());
+        when(mutantDetector.isMutant(mutantDna))
+                .thenReturn(true);
+        when(mutantDetector.isMutant(humanDna))
+                .thenReturn(false);
+        when(dnaRecordBatchWriter.insertIgnoringDuplicates(anyList()))
+                .thenAnswer(invocation -> List.of(invocation.<List<DnaRecord>>getArgument(0).get(0)));
+
+        // ACT
+        List<DnaBatchResult> results = mutantService.analyzeBatch(List.of(mutantDna, humanDna, mutantDna));
+
+        // ASSERT
+        assertEquals(List.of(DnaBatchResult.MUTANT, DnaBatchResult.HUMAN, DnaBatchResult.MUTANT), results);
+        verify(mutantDetector, times(1)).isMutant(mutantDna);
+        verify(mutantDetector, times(1)).isMutant(humanDna);
+        verify(dnaResultCache, never()).get(any(byte[].class));
+    }
+
+    @Test
+    @DisplayName("Debe registrar métricas de huella, detección y resultado por cada ADN del lote")
+    void testAnalyzeBatchRecordsMetrics() {
+        // ARRANGE
+        String[] invalidDna = {"ATGX", "CAGT", "TTAT", "AGAC"};
+        when(dnaRecordRepository.findByDnaHashIn(anyCollection()))
+                .thenReturn(List.of());
+        when(mutantDetector.isMutant(mutantDna))
+                .thenReturn(true);
+        when(mutantDetector.isMutant(humanDna))
+                .thenReturn(false);
+        when(dnaRecordBatchWriter.insertIgnoringDuplicates(anyList()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // ACT
+        mutantService.analyzeBatch(List.of(mutantDna, humanDna, mutantDna, invalidDna));
+
+        // ASSERT
+        assertEquals(3, meterRegistry.get("dna.analyze.phase").tag("phase", "hash").timer().count());
+        assertEquals(2, meterRegistry.get("dna.analyze.phase").tag("phase", "detect").timer().count());
+        assertEquals(2.0, meterRegistry.get("dna.results").tag("type", "mutant").counter().count(), 0.0);
+        assertEquals(1.0, meterRegistry.get("dna.results").tag("type", "human").counter().count(), 0.0);
+        assertEquals(3, meterRegistry.get("dna.matrix.size").summary().count());
+        assertEquals(1, meterRegistry.get("dna.persist.batch")
+                .tags("source", "batch", "outcome", "success").timer().count());
+        assertEquals(2.0, meterRegistry.get("dna.persist.batch.size").summary().totalAmount(), 0.0);
+    }
+
+    @Test
+    @DisplayName("Debe buscar por huella en BD, cachear el resultado y retornar vacío si es desconocida")
+    void testLookupByHash() {
+        // ARRANGE
+        byte[] humanHash = new Sha256DnaFingerprinter().fingerprint(humanDna);
+        when(dnaRecordRepository.findByDnaHash(any(byte[].class)))
+                .thenAnswer(invocation -> Arrays.equals(invocation.getArgument(0), humanHash)
+                        ? Optional.of(new DnaRecord(humanHash, false))
+                        : Optional.empty());
+        String unknownHash = HexFormat.of().formatHex(new Sha256DnaFingerprinter().fingerprint(mutantDna));
+
+        // ACT
+        Optional<Boolean> stored = mutantService.lookup(HexFormat.of().withUpperCase().formatHex(humanHash));
+        Optional<Boolean> unknown = mutantService.lookup(unknownHash);
+
+        // ASSERT
+        assertEquals(Optional.of(false), stored);
+        assertTrue(unknown.isEmpty());
+        verify(dnaResultCache).put(aryEq(humanHash), eq(false));
+        verify(mutantDetector, never()).isMutant(any());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar huellas que no son hexadecimales o no tienen el largo del algoritmo")
+    void testLookupRejectsMalformedHash() {
+        // ACT & ASSERT
+        assertThrows(InvalidDnaHashException.class, () -> mutantService.lookup("xyz"));
+        assertThrows(InvalidDnaHashException.class, () -> mutantService.lookup("ab".repeat(16)));
+        assertThrows(InvalidDnaHashException.class, () -> mutantService.lookup("zz".repeat(32)));
+        verifyNoInteractions(dnaRecordRepository);
+    }
+
+    @Test
+    @DisplayName("Debe consultar varias huellas con caché y una sola consulta IN a la BD")
+    void testLookupBatch() {
+        // ARRANGE
+        byte[] mutantHash = new Sha256DnaFingerprinter().fingerprint(mutantDna);
+        byte[] humanHash = new Sha256DnaFingerprinter().fingerprint(humanDna);
+        byte[] unknownHash = new Sha256DnaFingerprinter().fingerprint(new String[]{"ATGC", "CAGT", "TTAT", "AGAC"});
+        when(dnaResultCache.get(any(byte[].class)))
+                .thenAnswer(invocation -> Arrays.equals(invocation.getArgument(0), mutantHash) ? true : null);
+        when(dnaRecordRepository.findByDnaHashIn(anyCollection()))
+                .thenReturn(List.of(new DnaRecord(humanHash, false)));
+        HexFormat hex = HexFormat.of();
+
+        // ACT
+        List<DnaLookupResult> results = mutantService.lookupBatch(List.of(
+                hex.formatHex(mutantHash), hex.formatHex(humanHash), hex.formatHex(unknownHash),
+                "not-a-hash", hex.formatHex(humanHash)));
+
+        // ASSERT
+        assertEquals(List.of(DnaLookupResult.MUTANT, DnaLookupResult.HUMAN, DnaLookupResult.UNKNOWN,
+                DnaLookupResult.INVALID, DnaLookupResult.HUMAN), results);
+        verify(dnaRecordRepository, times(1)).findByDnaHashIn(argThat(hashes -> hashes.size() == 2));
+        verify(dnaResultCache).put(aryEq(humanHash), eq(false));
+    }
+
+    @Test
+    @DisplayName("Debe analizar con las reglas del request sin caché ni BD")
+    void testAnalyzeDnaWithRulesSkipsCacheAndDatabase() {
+        // ARRANGE
+        String[] rnaDna = {"AUGC", "CAGU", "UUAU", "AAAA"};
+        DetectionRules expectedRules = DetectionRules.of(4, 1, "ACGU", List.of("horizontal"));
+        when(mutantDetector.getRules()).thenReturn(DetectionRules.DEFAULT);
+        when(mutantDetector.isMutant(rnaDna, expectedRules)).thenReturn(true);
+
+        // ACT
+        boolean result = mutantService.analyzeDnaWithRules(rnaDna,
+                new DetectionRulesRequest(null, 1, "ACGU", List.of("horizontal")));
+
+        // ASSERT
+        assertTrue(result);
+        verify(mutantDetector).isMutant(rnaDna, expectedRules);
+        verifyNoInteractions(dnaRecordRepository, dnaResultCache, dnaRecordBatchWriter, statsService);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar reglas inválidas y bases fuera del alfabeto del request")
+    void testAnalyzeDnaWithRulesRejectsInvalidInput() {
+        // ARRANGE
+        when(mutantDetector.getRules()).thenReturn(DetectionRules.DEFAULT);
+
+        // ACT & ASSERT
+        assertThrows(InvalidDetectionRulesException.class, () -> mutantService.analyzeDnaWithRules(mutantDna,
+                new DetectionRulesRequest(1, null, null, null)));
+        assertThrows(InvalidDetectionRulesException.class, () -> mutantService.analyzeDnaWithRules(mutantDna,
+                new DetectionRulesRequest(null, null, null, List.of("sideways"))));
+        assertThrows(InvalidDnaException.class, () -> mutantService.analyzeDnaWithRules(mutantDna,
+                new DetectionRulesRequest(null, null, "ACGU", null)));
+        verify(mutantDetector, never()).isMutant(any(), any());
+    }
+
+    /**
+     * ADN válido de (MAX_SIZE + 1)x(MAX_SIZE + 1): todas las filas son la misma instancia.
+     */
+    private static String[] oversizedDna() {
+        String[] dna = new String[CompactDnaEncoding.MAX_SIZE + 1];
+        Arrays.fill(dna, "A".repeat(dna.length));
+        return dna;
+    }
+}
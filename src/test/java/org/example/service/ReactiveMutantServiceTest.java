@@ -0,0 +1,158 @@
+package org.example.service;
+
+import org.example.entity.DnaRecordRow;
+import org.example.repository.ReactiveDnaRecordRepository;
+import org.example.repository.ReactiveDnaRecordWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveMutantServiceTest {
+
+    @Mock
+    private MutantDetector mutantDetector;
+
+    @Mock
+    private ReactiveDnaRecordRepository dnaRecordRepository;
+
+    @Mock
+    private ReactiveDnaRecordWriter dnaRecordWriter;
+
+    @Mock
+    private DnaResultCache dnaResultCache;
+
+    @Mock
+    private StatsService statsService;
+
+    private ReactiveMutantService mutantService;
+
+    private String[] mutantDna;
+
+    @BeforeEach
+    void setUp() {
+        mutantService = new ReactiveMutantService(mutantDetector, dnaRecordRepository, dnaRecordWriter,
+                dnaResultCache, statsService, new Sha256DnaFingerprinter(),
+                new DnaHashBloomFilter(null, null, false, 1000, 0.01, ""), DnaMetrics.noop(),
+                Schedulers.immediate());
+
+        mutantDna = new String[]{
+                "ATGCGA", "CAGTGC", "TTATGT",
+                "AGAAGG", "CCCCTA", "TCACTG"
+        };
+    }
+
+    /**
+     * Sin stub, Mockito retornaría false (un hit): los tests que van a la BD parten de un miss.
+     */
+    private void givenCacheMiss() {
+        when(dnaResultCache.get(any(byte[].class))).thenReturn(null);
+    }
+
+    @Test
+    @DisplayName("Debe analizar ADN nuevo, guardarlo y sumarlo a las estadísticas")
+    void testAnalyzeNewDnaAndSave() {
+        // ARRANGE
+        givenCacheMiss();
+        when(dnaRecordRepository.findByDnaHash(any(byte[].class))).thenReturn(Mono.empty());
+        when(mutantDetector.isMutant(mutantDna)).thenReturn(true);
+        when(dnaRecordWriter.insertIgnoringDuplicate(any(byte[].class), isNull(), eq(true)))
+                .thenReturn(Mono.just(true));
+
+        // ACT & ASSERT
+        StepVerifier.create(mutantService.analyzeDna(mutantDna))
+                .expectNext(true)
+                .verifyComplete();
+        verify(statsService, times(1)).recordInsert(true);
+        verify(dnaResultCache, times(1)).put(any(byte[].class), eq(true));
+    }
+
+    @Test
+    @DisplayName("Debe retornar el resultado guardado en BD sin reanalizar")
+    void testReturnStoredResultWithoutAnalyzing() {
+        // ARRANGE
+        givenCacheMiss();
+        DnaRecordRow existing = new DnaRecordRow();
+        existing.setMutant(false);
+        when(dnaRecordRepository.findByDnaHash(any(byte[].class))).thenReturn(Mono.just(existing));
+
+        // ACT & ASSERT
+        StepVerifier.create(mutantService.analyzeDna(mutantDna))
+                .expectNext(false)
+                .verifyComplete();
+        verify(mutantDetector, never()).isMutant(any());
+        verify(dnaRecordWriter, never()).insertIgnoringDuplicate(any(), any(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Debe responder desde el caché en memoria sin consultar la BD")
+    void testCachedResultSkipsDatabase() {
+        // ARRANGE
+        when(dnaResultCache.get(any(byte[].class))).thenReturn(true);
+
+        // ACT & ASSERT
+        StepVerifier.create(mutantService.analyzeDna(mutantDna))
+                .expectNext(true)
+                .verifyComplete();
+        verifyNoInteractions(dnaRecordRepository, mutantDetector);
+    }
+
+    @Test
+    @DisplayName("No debe sumar a las estadísticas si otro request insertó el mismo ADN")
+    void testDuplicateInsertDoesNotCountTwice() {
+        // ARRANGE
+        givenCacheMiss();
+        when(dnaRecordRepository.findByDnaHash(any(byte[].class))).thenReturn(Mono.empty());
+        when(mutantDetector.isMutant(mutantDna)).thenReturn(true);
+        when(dnaRecordWriter.insertIgnoringDuplicate(any(byte[].class), isNull(), eq(true)))
+                .thenReturn(Mono.just(false));
+
+        // ACT & ASSERT
+        StepVerifier.create(mutantService.analyzeDna(mutantDna))
+                .expectNext(true)
+                .verifyComplete();
+        verify(statsService, never()).recordInsert(anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Debe calcular la huella en el scheduler de detección, no en el hilo que suscribe")
+    void testFingerprintRunsOnDetectionScheduler() {
+        // ARRANGE
+        AtomicReference<String> hashingThread = new AtomicReference<>();
+        Sha256DnaFingerprinter sha256 = new Sha256DnaFingerprinter();
+        DnaFingerprinter recordingFingerprinter = spy(sha256);
+        doAnswer(invocation -> {
+            hashingThread.set(Thread.currentThread().getName());
+            return sha256.fingerprint(invocation.<String[]>getArgument(0));
+        }).when(recordingFingerprinter).fingerprint(any(String[].class));
+        when(dnaResultCache.get(any(byte[].class))).thenReturn(true);
+
+        Scheduler detection = Schedulers.newSingle("dna-detect-test");
+        try {
+            ReactiveMutantService service = new ReactiveMutantService(mutantDetector, dnaRecordRepository,
+                    dnaRecordWriter, dnaResultCache, statsService, recordingFingerprinter,
+                    new DnaHashBloomFilter(null, null, false, 1000, 0.01, ""), DnaMetrics.noop(), detection);
+
+            // ACT & ASSERT
+            StepVerifier.create(service.analyzeDna(mutantDna))
+                    .expectNext(true)
+                    .verifyComplete();
+            assertTrue(hashingThread.get().startsWith("dna-detect-test"), hashingThread.get());
+        } finally {
+            detection.dispose();
+        }
+    }
+}
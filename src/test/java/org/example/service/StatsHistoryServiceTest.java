@@ -0,0 +1,211 @@
+package org.example.service;
+
+import org.example.dto.StatsBucket;
+import org.example.dto.StatsHistoryResponse;
+import org.example.entity.DnaStatsRollup;
+import org.example.entity.StatsGranularity;
+import org.example.exception.InvalidStatsQueryException;
+import org.example.repository.DnaStatsRollupRepository;
+import org.example.repository.DnaStatsRollupWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StatsHistoryServiceTest {
+
+    private static final LocalDateTime TEN_AM = LocalDateTime.of(2024, 1, 15, 10, 0);
+
+    @Mock
+    private DnaStatsRollupRepository rollupRepository;
+
+    @Mock
+    private DnaStatsRollupWriter rollupWriter;
+
+    private StatsHistoryService statsHistoryService;
+
+    @BeforeEach
+    void setUp() {
+        statsHistoryService = new StatsHistoryService(rollupRepository, rollupWriter, Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Debe combinar los buckets guardados con los inserts sin escribir")
+    void testHistoryMergesStoredAndPendingCounts() {
+        // ARRANGE
+        when(rollupRepository.findBuckets(StatsGranularity.HOUR, TEN_AM, TEN_AM.plusHours(3)))
+                .thenReturn(List.of(new DnaStatsRollup(StatsGranularity.HOUR, TEN_AM, 4, 10)));
+        statsHistoryService.recordInsert(true, TEN_AM.plusMinutes(30));
+        statsHistoryService.recordInsert(false, TEN_AM.plusHours(2).plusMinutes(5));
+
+        // ACT
+        StatsHistoryResponse history = statsHistoryService.getHistory("hour", TEN_AM.plusMinutes(10), TEN_AM.plusHours(3));
+
+        // ASSERT
+        assertEquals("hour", history.getGranularity());
+        assertEquals(TEN_AM, history.getFrom());
+        List<StatsBucket> buckets = history.getBuckets();
+        assertEquals(3, buckets.size());
+        assertEquals(5, buckets.get(0).getCountMutantDna());
+        assertEquals(10, buckets.get(0).getCountHumanDna());
+        assertEquals(0.5, buckets.get(0).getRatio(), 0.001);
+        assertEquals(TEN_AM.plusHours(1), buckets.get(1).getStart());
+        assertEquals(0, buckets.get(1).getCountMutantDna());
+        assertEquals(0, buckets.get(1).getCountHumanDna());
+        assertEquals(1, buckets.get(2).getCountHumanDna());
+    }
+
+    @Test
+    @DisplayName("Debe escribir un delta por granularidad y bucket al hacer flush")
+    @SuppressWarnings("unchecked")
+    void testFlushWritesOneDeltaPerBucket() {
+        // ARRANGE
+        statsHistoryService.recordInsert(true, TEN_AM.plusSeconds(10));
+        statsHistoryService.recordInsert(true, TEN_AM.plusSeconds(20));
+        statsHistoryService.recordInsert(false, TEN_AM.plusMinutes(1));
+
+        // ACT
+        statsHistoryService.flush();
+
+        // ASSERT
+        ArgumentCaptor<List<DnaStatsRollup>> captor = ArgumentCaptor.forClass(List.class);
+        verify(rollupWriter).addCounts(captor.capture());
+        List<DnaStatsRollup> deltas = captor.getValue();
+        assertEquals(4, deltas.size()); // 2 minutos + 1 hora + 1 día
+
+        DnaStatsRollup day = deltas.stream()
+                .filter(delta -> delta.getGranularity() == StatsGranularity.DAY)
+                .findFirst().orElseThrow();
+        assertEquals(TEN_AM.toLocalDate().atStartOfDay(), day.getBucketStart());
+        assertEquals(2, day.getMutantCount());
+        assertEquals(1, day.getHumanCount());
+        assertEquals(0, statsHistoryService.pendingBuckets());
+    }
+
+    @Test
+    @DisplayName("Debe conservar los deltas si el flush falla")
+    void testFailedFlushKeepsPendingCounts() {
+        // ARRANGE
+        statsHistoryService.recordInsert(true, TEN_AM);
+        doThrow(new RuntimeException("DB down")).doNothing().when(rollupWriter).addCounts(anyList());
+
+        // ACT
+        assertThrows(RuntimeException.class, () -> statsHistoryService.flush());
+        statsHistoryService.flush();
+
+        // ASSERT
+        verify(rollupWriter, times(2)).addCounts(anyList());
+        assertEquals(1, statsHistoryService.failedFlushCount());
+        assertEquals(1, statsHistoryService.flushCount());
+        assertEquals(0, statsHistoryService.pendingBuckets());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar granularidad inválida, rango vacío y demasiados buckets")
+    void testRejectsInvalidQueries() {
+        // ACT & ASSERT
+        assertThrows(InvalidStatsQueryException.class,
+                () -> statsHistoryService.getHistory("week", null, null));
+        assertThrows(InvalidStatsQueryException.class,
+                () -> statsHistoryService.getHistory("hour", TEN_AM, TEN_AM));
+        assertThrows(InvalidStatsQueryException.class,
+                () -> statsHistoryService.getHistory("minute", TEN_AM, TEN_AM.plusDays(30)));
+        verify(rollupRepository, never()).findBuckets(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Los totales deben sumar los buckets de día guardados y los inserts sin escribir")
+    void testTotalsMergeStoredAndPendingCounts() {
+        // ARRANGE
+        when(rollupRepository.sumCounts(StatsGranularity.DAY)).thenReturn(totals(40, 100));
+        statsHistoryService.refreshTotals();
+        statsHistoryService.recordInsert(true, TEN_AM);
+        statsHistoryService.recordInsert(false, TEN_AM.plusDays(1));
+
+        // ACT
+        long[] totals = statsHistoryService.totals();
+
+        // ASSERT
+        assertArrayEquals(new long[]{41, 101}, totals);
+    }
+
+    @Test
+    @DisplayName("Los totales no deben cambiar al escribir los deltas pendientes")
+    void testTotalsAreStableAcrossFlush() {
+        // ARRANGE
+        when(rollupRepository.sumCounts(StatsGranularity.DAY)).thenReturn(totals(4, 10));
+        statsHistoryService.refreshTotals();
+        statsHistoryService.recordInsert(true, TEN_AM);
+        statsHistoryService.recordInsert(true, TEN_AM.plusMinutes(1));
+
+        // ACT
+        long[] before = statsHistoryService.totals();
+        statsHistoryService.flush();
+        long[] after = statsHistoryService.totals();
+
+        // ASSERT
+        assertArrayEquals(new long[]{6, 10}, before);
+        assertArrayEquals(before, after);
+        verify(rollupRepository, times(1)).sumCounts(StatsGranularity.DAY);
+    }
+
+    @Test
+    @DisplayName("Releer los totales debe incluir lo escrito por otras instancias")
+    void testRefreshPicksUpOtherInstances() {
+        // ARRANGE
+        when(rollupRepository.sumCounts(StatsGranularity.DAY)).thenReturn(totals(4, 10), totals(7, 12));
+        statsHistoryService.refreshTotals();
+
+        // ACT
+        statsHistoryService.refreshTotals();
+
+        // ASSERT
+        assertArrayEquals(new long[]{7, 12}, statsHistoryService.totals());
+    }
+
+    @Test
+    @DisplayName("clear() debe poner los totales en 0")
+    void testClearResetsTotals() {
+        // ARRANGE
+        when(rollupRepository.sumCounts(StatsGranularity.DAY)).thenReturn(totals(4, 10));
+        statsHistoryService.refreshTotals();
+        statsHistoryService.recordInsert(true, TEN_AM);
+
+        // ACT
+        statsHistoryService.clear();
+
+        // ASSERT
+        assertArrayEquals(new long[]{0, 0}, statsHistoryService.totals());
+    }
+
+    private static DnaStatsRollupRepository.Totals totals(long mutants, long humans) {
+        return new DnaStatsRollupRepository.Totals() {
+            @Override
+            public long getMutantCount() {
+                return mutants;
+            }
+
+            @Override
+            public long getHumanCount() {
+                return humans;
+            }
+        };
+    }
+}
@@ -1,7 +1,7 @@
 package org.example.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.example.dto.StatsResponse;
-import org.example.repository.DnaRecordRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,14 +9,19 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDateTime;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class StatsServiceTest {
 
     @Mock
-    private DnaRecordRepository dnaRecordRepository;
+    private StatsHistoryService statsHistoryService;
 
     @InjectMocks
     private StatsService statsService;
@@ -25,8 +30,7 @@ class StatsServiceTest {
     @DisplayName("Debe calcular estadísticas correctamente")
     void testGetStatsWithData() {
         // ARRANGE
-        when(dnaRecordRepository.countByIsMutant(true)).thenReturn(40L);
-        when(dnaRecordRepository.countByIsMutant(false)).thenReturn(100L);
+        when(statsHistoryService.totals()).thenReturn(new long[]{40, 100});
 
         // ACT
         StatsResponse stats = statsService.getStats();
@@ -41,8 +45,7 @@ class StatsServiceTest {
     @DisplayName("Debe retornar ratio correcto cuando no hay humanos")
     void testGetStatsWithNoHumans() {
         // ARRANGE
-        when(dnaRecordRepository.countByIsMutant(true)).thenReturn(10L);
-        when(dnaRecordRepository.countByIsMutant(false)).thenReturn(0L);
+        when(statsHistoryService.totals()).thenReturn(new long[]{10, 0});
 
         // ACT
         StatsResponse stats = statsService.getStats();
@@ -57,8 +60,7 @@ class StatsServiceTest {
     @DisplayName("Debe retornar ratio 0 cuando no hay datos")
     void testGetStatsWithNoData() {
         // ARRANGE
-        when(dnaRecordRepository.countByIsMutant(true)).thenReturn(0L);
-        when(dnaRecordRepository.countByIsMutant(false)).thenReturn(0L);
+        when(statsHistoryService.totals()).thenReturn(new long[]{0, 0});
 
         // ACT
         StatsResponse stats = statsService.getStats();
@@ -73,8 +75,7 @@ class StatsServiceTest {
     @DisplayName("Debe calcular ratio con decimales correctamente")
     void testGetStatsWithDecimalRatio() {
         // ARRANGE
-        when(dnaRecordRepository.countByIsMutant(true)).thenReturn(1L);
-        when(dnaRecordRepository.countByIsMutant(false)).thenReturn(3L);
+        when(statsHistoryService.totals()).thenReturn(new long[]{1, 3});
 
         // ACT
         StatsResponse stats = statsService.getStats();
@@ -89,8 +90,7 @@ class StatsServiceTest {
     @DisplayName("Debe retornar ratio 1.0 cuando hay igual cantidad")
     void testGetStatsWithEqualCounts() {
         // ARRANGE
-        when(dnaRecordRepository.countByIsMutant(true)).thenReturn(50L);
-        when(dnaRecordRepository.countByIsMutant(false)).thenReturn(50L);
+        when(statsHistoryService.totals()).thenReturn(new long[]{50, 50});
 
         // ACT
         StatsResponse stats = statsService.getStats();
@@ -105,8 +105,7 @@ class StatsServiceTest {
     @DisplayName("Debe manejar grandes cantidades de datos")
     void testGetStatsWithLargeNumbers() {
         // ARRANGE
-        when(dnaRecordRepository.countByIsMutant(true)).thenReturn(1000000L);
-        when(dnaRecordRepository.countByIsMutant(false)).thenReturn(2000000L);
+        when(statsHistoryService.totals()).thenReturn(new long[]{1000000, 2000000});
 
         // ACT
         StatsResponse stats = statsService.getStats();
@@ -116,4 +115,48 @@ class StatsServiceTest {
         assertEquals(2000000, stats.getCountHumanDna());
         assertEquals(0.5, stats.getRatio(), 0.001);
     }
+
+    @Test
+    @DisplayName("Debe sumar cada insert a los buckets del historial")
+    void testRecordInsertUpdatesHistory() {
+        // ACT
+        statsService.recordInsert(true);
+        statsService.recordInsert(false);
+
+        // ASSERT
+        verify(statsHistoryService).recordInsert(eq(true), any(LocalDateTime.class));
+        verify(statsHistoryService).recordInsert(eq(false), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Debe leer los totales en memoria sin consultar la BD")
+    void testGetStatsReadsInMemoryTotals() {
+        // ARRANGE
+        when(statsHistoryService.totals()).thenReturn(new long[]{4, 10}, new long[]{5, 10});
+
+        // ACT
+        StatsResponse first = statsService.getStats();
+        StatsResponse second = statsService.getStats();
+
+        // ASSERT
+        assertEquals(4, first.getCountMutantDna());
+        assertEquals(5, second.getCountMutantDna());
+        assertEquals(10, second.getCountHumanDna());
+        assertEquals(0.5, second.getRatio(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Debe publicar los totales como gauges de Micrometer")
+    void testBindsTotalsAsGauges() {
+        // ARRANGE
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        when(statsHistoryService.totals()).thenReturn(new long[]{5, 10});
+
+        // ACT
+        statsService.bindTo(registry);
+
+        // ASSERT
+        assertEquals(5.0, registry.get("dna.stats.count").tag("type", "mutant").gauge().value(), 0.0);
+        assertEquals(10.0, registry.get("dna.stats.count").tag("type", "human").gauge().value(), 0.0);
+    }
 }
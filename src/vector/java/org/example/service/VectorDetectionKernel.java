@@ -0,0 +1,123 @@
+package org.example.service;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import org.example.validation.DnaBases;
+
+/**
+ * Detección con la Vector API (jdk.incubator.vector): compara carriles completos de bytes.
+ *
+ * Cada fila se codifica a un byte por base (A=0, C=1, G=2, T=3) en un anillo de 4 filas.
+ * Al llegar la fila {@code r} se cierran las secuencias que terminan en ella, igual que
+ * PackedDnaMatrix.countSequencesEndingAt:
+ * - Horizontal (→): la fila contra sí misma desplazada 1, 2 y 3 columnas
+ * - Vertical (↓): filas r-3..r en la misma columna
+ * - Diagonales (↘ y ↗): filas r-3..r cargadas con desplazamientos de 0 a 3 columnas
+ *
+ * Las coincidencias se cuentan con popcount de la máscara (trueCount), VL posiciones por
+ * instrucción según el ancho del hardware (32 con AVX2, 64 con AVX-512).
+ *
+ * Solo se carga si la JVM arrancó con --add-modules jdk.incubator.vector.
+ */
+final class VectorDetectionKernel implements DetectionKernel {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+    private static final int SEQUENCE_LENGTH = PackedDnaMatrix.SEQUENCE_LENGTH;
+
+    @Override
+    public boolean isMutant(String[] dna) {
+        if (dna == null || dna.length == 0) {
+            return false;
+        }
+
+        final int n = dna.length;
+        // Relleno para cargar VL carriles desde la columna n - 1 + 3 sin salir del array
+        final byte[][] ring = new byte[SEQUENCE_LENGTH][n + SEQUENCE_LENGTH + SPECIES.length()];
+        int sequenceCount = 0;
+
+        for (int row = 0; row < n; row++) {
+            if (sequenceCount > 1) {
+                // Ya es mutante: el resto de las filas solo se valida
+                if (!DnaBases.isValidRow(dna[row], n)) {
+                    return false;
+                }
+                continue;
+            }
+
+            if (!encodeRow(dna[row], n, ring[row & 3])) {
+                return false;
+            }
+            sequenceCount += countSequencesEndingAt(ring, row, n, 2 - sequenceCount);
+        }
+
+        return sequenceCount > 1;
+    }
+
+    private static boolean encodeRow(String bases, int n, byte[] target) {
+        if (bases == null || bases.length() != n) {
+            return false;
+        }
+        for (int col = 0; col < n; col++) {
+            final int code = DnaBases.code(bases.charAt(col));
+            if (code < 0) {
+                return false;
+            }
+            target[col] = (byte) code;
+        }
+        return true;
+    }
+
+    private static int countSequencesEndingAt(byte[][] ring, int row, int n, int limit) {
+        final byte[] current = ring[row & 3];
+        final int starts = n - (SEQUENCE_LENGTH - 1);
+        final int step = SPECIES.length();
+        int count = 0;
+
+        // Horizontal (→)
+        for (int col = 0; col < starts && count < limit; col += step) {
+            count += equalLanes(current, col, current, col + 1, current, col + 2, current, col + 3)
+                    .and(SPECIES.indexInRange(col, starts))
+                    .trueCount();
+        }
+        if (count >= limit || row < SEQUENCE_LENGTH - 1) {
+            return count;
+        }
+
+        final byte[] top = ring[(row - 3) & 3];
+        final byte[] second = ring[(row - 2) & 3];
+        final byte[] third = ring[(row - 1) & 3];
+
+        for (int col = 0; col < n && count < limit; col += step) {
+            // Vertical (↓): misma columna en las 4 filas
+            count += equalLanes(top, col, second, col, third, col, current, col)
+                    .and(SPECIES.indexInRange(col, n))
+                    .trueCount();
+
+            if (col < starts) {
+                VectorMask<Byte> startLanes = SPECIES.indexInRange(col, starts);
+                // Diagonal Descendente (↘): empieza en la fila de arriba
+                count += equalLanes(top, col, second, col + 1, third, col + 2, current, col + 3)
+                        .and(startLanes)
+                        .trueCount();
+                // Diagonal Ascendente (↗): empieza en la fila actual y sube
+                count += equalLanes(current, col, third, col + 1, second, col + 2, top, col + 3)
+                        .and(startLanes)
+                        .trueCount();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Carriles donde las 4 cargas tienen la misma base.
+     */
+    private static VectorMask<Byte> equalLanes(byte[] a, int aOffset, byte[] b, int bOffset,
+                                               byte[] c, int cOffset, byte[] d, int dOffset) {
+        ByteVector first = ByteVector.fromArray(SPECIES, a, aOffset);
+        return first.compare(VectorOperators.EQ, ByteVector.fromArray(SPECIES, b, bOffset))
+                .and(first.compare(VectorOperators.EQ, ByteVector.fromArray(SPECIES, c, cOffset)))
+                .and(first.compare(VectorOperators.EQ, ByteVector.fromArray(SPECIES, d, dOffset)));
+    }
+}